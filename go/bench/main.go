@@ -0,0 +1,81 @@
+// Bench client for `make bench`: runs the shared order workload against the
+// host in LOGBULL_HOST and prints "BENCH emitted=<n> seconds=<s>" for the
+// timed run. See java/src/testFixtures/.../bench/ClientBench.java.
+package main
+
+import (
+	"fmt"
+	"os"
+	"strconv"
+	"time"
+
+	"github.com/logbull/logbull-go/logbull"
+)
+
+func main() {
+	logger, err := logbull.NewLogger(logbull.Config{
+		ProjectID: os.Getenv("LOGBULL_PROJECT_ID"),
+		Host:      os.Getenv("LOGBULL_HOST"),
+		APIKey:    os.Getenv("LOGBULL_API_KEY"),
+		LogLevel:  logbull.INFO,
+	})
+	if err != nil {
+		panic(err)
+	}
+	defer logger.Shutdown()
+
+	// The type of logger is left to the library, so the workload is a closure over it
+	runOrders := func(run string, orders int) int {
+		serviceLogger := logger.WithContext(map[string]any{
+			"service":   "order_processing",
+			"bench_run": run,
+		})
+
+		emitted := 0
+		for i := 0; i < orders; i++ {
+			orderLogger := serviceLogger.WithContext(map[string]any{
+				"order_id": fmt.Sprintf("order_%d", i),
+				"user_id":  fmt.Sprintf("user_%d", i%1000),
+			})
+			orderLogger.Info("Starting order processing", map[string]any{
+				"emitted_at_us": time.Now().UnixMicro(),
+				"amount":        99.99,
+			})
+
+			paymentLogger := orderLogger.WithContext(map[string]any{
+				"payment_method": "credit_card",
+			})
+			paymentLogger.Info("Processing payment", map[string]any{
+				"emitted_at_us": time.Now().UnixMicro(),
+				"gateway":       "stripe",
+			})
+
+			orderLogger.Info("Order processed successfully", map[string]any{
+				"emitted_at_us": time.Now().UnixMicro(),
+				"duration_ms":   150,
+			})
+			emitted += 3
+
+			if i%100 == 0 {
+				orderLogger.Critical("Order processing failed", map[string]any{
+					"emitted_at_us": time.Now().UnixMicro(),
+					"error_code":    "PAYMENT_DECLINED",
+				})
+				emitted++
+			}
+		}
+		return emitted
+	}
+
+	run := os.Getenv("BENCH_RUN")
+	orders, _ := strconv.Atoi(os.Getenv("BENCH_ORDERS"))
+	warmup, _ := strconv.Atoi(os.Getenv("BENCH_WARMUP"))
+
+	runOrders(run+"-warmup", warmup)
+
+	start := time.Now()
+	emitted := runOrders(run, orders)
+	fmt.Printf("BENCH emitted=%d seconds=%.6f\n", emitted, time.Since(start).Seconds())
+
+	logger.Flush()
+}
@@ -0,0 +1,86 @@
+package com.logbull.test.benchmark;
+
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.logging.PipelineLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of DEBUG calls on a {@link PipelineLogger} whose level is INFO.
+ *
+ * Compare {@code gc.alloc.rate.norm} from the gc profiler: an eagerly built
+ * field map is allocated on every call even though it is thrown away, while
+ * constant fields, a non-capturing or escape-analysed {@code Supplier} and an
+ * {@code isDebugEnabled()} guard should report ~0 B/op.
+ *
+ * Run with: ./gradlew jmh -PjmhIncludes=DisabledLevelBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DisabledLevelBenchmark {
+
+    private static final Map<String, Object> VALIDATION_FIELDS = Map.of(
+            "validation_step", "check_inventory");
+
+    private LocalIngestServer ingest;
+    private PipelineLogger logger;
+
+    public String orderId = "order_12345";
+    public Map<String, Object> eventData = Map.of("severity", "high", "component", "database");
+
+    @Setup(Level.Trial)
+    public void start() {
+        ingest = LocalIngestServer.start(LocalIngestServer.Mode.DISCARD);
+        LogBullLogger logBullLogger = LogBullLogger.builder()
+                .projectId("12345678-1234-1234-1234-123456789012")
+                .host(ingest.baseUrl())
+                .logLevel(LogLevel.INFO)
+                .build();
+        logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .level(LogLevel.INFO)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        logger.close();
+        ingest.close();
+    }
+
+    @Benchmark
+    public void eagerFields() {
+        logger.debug("[java] Validating order", Map.of(
+                "order_id", orderId,
+                "event_data", eventData.toString()));
+    }
+
+    @Benchmark
+    public void constantFields() {
+        logger.debug("[java] Validating order", VALIDATION_FIELDS);
+    }
+
+    @Benchmark
+    public void supplierFields() {
+        logger.debug("[java] Validating order", () -> Map.of(
+                "order_id", orderId,
+                "event_data", eventData.toString()));
+    }
+
+    @Benchmark
+    public void guardedFields() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("[java] Validating order", Map.of(
+                    "order_id", orderId,
+                    "event_data", eventData.toString()));
+        }
+    }
+}
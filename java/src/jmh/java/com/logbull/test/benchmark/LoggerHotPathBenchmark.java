@@ -0,0 +1,109 @@
+package com.logbull.test.benchmark;
+
+import com.logbull.test.TestApplication;
+import com.logbull.test.controller.LogDemoController;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.service.StandaloneLoggerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the logging call patterns used by {@link StandaloneLoggerService}
+ * and {@link LogDemoController}.
+ *
+ * The application context is started once per trial with both loggers pointed
+ * at a {@link LocalIngestServer}, so the numbers include the real wiring of
+ * the Spring Boot Starter and the standalone LogBullLogger bean.
+ *
+ * Run with: ./gradlew jmh
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public abstract class LoggerHotPathBenchmark {
+
+    private static final Map<String, Object> EVENT_DATA = Map.of(
+            "severity", "high",
+            "component", "database",
+            "error_code", "DB_CONNECTION_LOST");
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        /**
+         * noop: stand-in drains request bodies without keeping them.
+         * standin: stand-in reads every batch like a real ingest.
+         */
+        @Param({ "noop", "standin" })
+        public String sink;
+
+        LocalIngestServer ingest;
+        ConfigurableApplicationContext context;
+        StandaloneLoggerService service;
+        LogDemoController controller;
+
+        @Setup(Level.Trial)
+        public void start() {
+            ingest = LocalIngestServer.start(
+                    sink.equals("noop") ? LocalIngestServer.Mode.DISCARD : LocalIngestServer.Mode.ACCEPT);
+
+            // Passed as arguments so they win over any application.properties on the classpath
+            context = new SpringApplicationBuilder(TestApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(
+                            "--logbull.enabled=true",
+                            "--logbull.project-id=12345678-1234-1234-1234-123456789012",
+                            "--logbull.host=" + ingest.baseUrl(),
+                            "--logbull.log-level=DEBUG",
+                            "--logging.pattern.console=");
+
+            service = context.getBean(StandaloneLoggerService.class);
+            controller = context.getBean(LogDemoController.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+            ingest.close();
+        }
+    }
+
+    @Benchmark
+    public void processOrder(Application app) {
+        app.service.processOrder("order_12345", "user_789");
+    }
+
+    @Benchmark
+    public void logCombinedTest(Application app) {
+        app.service.logCombinedTest("session_001");
+    }
+
+    @Benchmark
+    public void logCriticalEvent(Application app) {
+        app.service.logCriticalEvent("system_failure", EVENT_DATA);
+    }
+
+    @Benchmark
+    public Map<String, String> springBootStarterWithMdc(Application app) {
+        return app.controller.testSpringBootStarter("john_doe");
+    }
+
+    @Threads(1)
+    public static class SingleThread extends LoggerHotPathBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends LoggerHotPathBenchmark {
+    }
+
+    @Threads(Threads.MAX)
+    public static class MaxThreads extends LoggerHotPathBenchmark {
+    }
+}
@@ -0,0 +1,171 @@
+package com.logbull.test.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.logbull.test.logging.AggregationSettings;
+import com.logbull.test.logging.AsyncSettings;
+import com.logbull.test.logging.OverflowPolicy;
+import com.logbull.test.logging.PipelineAppender;
+import com.logbull.test.logging.SamplingSettings;
+import com.logbull.test.web.MdcRequestFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per request on the starter's SLF4J path through an async
+ * {@link PipelineAppender}: MDC set up, three log calls as in
+ * LogDemoController, MDC torn down.
+ *
+ * {@code handlerMdc} puts and clears request_id and username in the handler,
+ * as LogDemoController used to. {@code filterMdc} does what
+ * {@link MdcRequestFilter} and the handler do now: each removes only its own
+ * keys, so the thread keeps reusing its MDC map. Compare
+ * {@code gc.alloc.rate.norm} from the gc profiler; it covers the calling
+ * thread only, so the drain thread's bytes per event are printed at the end
+ * of the trial.
+ *
+ * Run with: ./gradlew jmh -PjmhIncludes=MdcCaptureBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MdcCaptureBenchmark {
+
+    private Logger logger;
+    private PipelineAppender appender;
+    private long drainAllocatedBefore;
+    private long deliveredBefore;
+
+    public String requestId = "0f8fad5b-d9cb-469f-a165-70867728950e";
+    public String username = "john_doe";
+
+    @Setup(Level.Trial)
+    public void start() {
+        // The global context, so events see the MDC that org.slf4j.MDC writes to
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        AppenderBase<ILoggingEvent> sink = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+            }
+        };
+        sink.setContext(context);
+        sink.setName("noop");
+        sink.start();
+
+        appender = new PipelineAppender(sink,
+                new AsyncSettings(true, 1 << 16, OverflowPolicy.BLOCK, Duration.ofMillis(50), 0, false),
+                new SamplingSettings(false, "", 100, Duration.ofSeconds(1)),
+                new AggregationSettings(false, Duration.ofSeconds(1), List.of(), 5, 1024),
+                null, null);
+        appender.setContext(context);
+        appender.start();
+
+        logger = context.getLogger("com.logbull.test.benchmark.MdcCapture");
+        logger.setAdditive(false);
+        logger.setLevel(ch.qos.logback.classic.Level.DEBUG);
+        logger.addAppender(appender);
+    }
+
+    @Setup(Level.Iteration)
+    public void markDrainThread() {
+        drainAllocatedBefore = drainAllocatedBytes();
+        deliveredBefore = appender.dispatcher().deliveredCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportDrainThread() {
+        long events = appender.dispatcher().deliveredCount() - deliveredBefore;
+        if (events > 0) {
+            System.out.printf("%n[jmh] drain thread: %.1f B/event%n",
+                    (drainAllocatedBytes() - drainAllocatedBefore) / (double) events);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        logger.detachAndStopAllAppenders();
+    }
+
+    private static long drainAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("logbull-async-starter"))
+                .mapToLong(thread -> threads.getThreadAllocatedBytes(thread.threadId()))
+                .sum();
+    }
+
+    @Benchmark
+    public void handlerMdc() {
+        MDC.put(MdcRequestFilter.REQUEST_ID_KEY, requestId);
+        MDC.put("username", username);
+        try {
+            logRequest();
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @Benchmark
+    public void filterMdc() {
+        MDC.put(MdcRequestFilter.REQUEST_ID_KEY, requestId);
+        try {
+            MDC.put("username", username);
+            try {
+                logRequest();
+            } finally {
+                MDC.remove("username");
+            }
+        } finally {
+            MDC.remove(MdcRequestFilter.REQUEST_ID_KEY);
+        }
+    }
+
+    /**
+     * One event in the middle of a request, the MDC already set: the capture
+     * reuses logback's read-only MDC snapshot. Compare with {@code eventNoMdc}.
+     */
+    @Benchmark
+    public void eventSteadyMdc() {
+        if (MDC.get(MdcRequestFilter.REQUEST_ID_KEY) == null) {
+            MDC.put(MdcRequestFilter.REQUEST_ID_KEY, requestId);
+            MDC.put("username", username);
+        }
+        logger.info("[java] Request processed successfully");
+    }
+
+    /**
+     * One event with an empty MDC, the floor for {@code eventSteadyMdc}.
+     */
+    @Benchmark
+    public void eventNoMdc() {
+        logger.info("[java] Request processed successfully");
+    }
+
+    /**
+     * One event right after an MDC change, which invalidates the snapshot,
+     * so the capture has to copy the map.
+     */
+    @Benchmark
+    public void eventChangedMdc() {
+        MDC.put(MdcRequestFilter.REQUEST_ID_KEY, requestId);
+        MDC.put("username", username);
+        logger.info("[java] Request processed successfully");
+    }
+
+    private void logRequest() {
+        logger.info("[java] Testing Spring Boot Starter - Request received");
+        logger.debug("[java] Processing user request with username: {}", username);
+        logger.info("[java] Request processed successfully for user: {}", username);
+    }
+}
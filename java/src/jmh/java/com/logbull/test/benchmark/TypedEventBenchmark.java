@@ -0,0 +1,114 @@
+package com.logbull.test.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.logging.JsonBuffer;
+import com.logbull.test.logging.OverflowPolicy;
+import com.logbull.test.logging.PipelineLogger;
+import com.logbull.test.logging.RecordSerializer;
+import com.logbull.test.service.StandaloneLoggerService;
+import com.logbull.test.service.StandaloneLoggerService.PaymentEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed record events, as {@link StandaloneLoggerService} logs them, against
+ * the equivalent {@code Map<String, Object>} fields, for the payment event
+ * with a per-order amount.
+ *
+ * The serialize benchmarks build the fields and write them as JSON into a
+ * reused buffer: the map is boxed and walked by Jackson, the record is
+ * written by its cached {@link RecordSerializer}. The log benchmarks measure
+ * the caller's side of {@code info(...)} on an async {@link PipelineLogger},
+ * where the map path allocates the map and the boxed amount and the typed
+ * path only the record and its view. Compare {@code gc.alloc.rate.norm}.
+ *
+ * Run with: ./gradlew jmh -PjmhIncludes=TypedEventBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TypedEventBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final RecordSerializer<PaymentEvent> PAYMENT_SERIALIZER = RecordSerializer.of(PaymentEvent.class);
+
+    private LocalIngestServer ingest;
+    private PipelineLogger logger;
+
+    private final JsonBuffer buffer = new JsonBuffer();
+    private final ByteArrayOutputStream jacksonBuffer = new ByteArrayOutputStream(256);
+    private JsonGenerator generator;
+
+    public String paymentMethod = "credit_card";
+    private long cents = 9999;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        ingest = LocalIngestServer.start(LocalIngestServer.Mode.DISCARD);
+        LogBullLogger logBullLogger = LogBullLogger.builder()
+                .projectId("12345678-1234-1234-1234-123456789012")
+                .host(ingest.baseUrl())
+                .logLevel(LogLevel.INFO)
+                .build();
+        logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .name("typed")
+                .level(LogLevel.INFO)
+                .asyncCapacity(8192)
+                .overflowPolicy(OverflowPolicy.DROP_NEWEST)
+                .build();
+        generator = MAPPER.createGenerator(jacksonBuffer);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        logger.close();
+        ingest.close();
+    }
+
+    // A fresh price per call, as a real order would have
+    private double nextAmount() {
+        cents = cents % 1_000_000 + 1;
+        return cents / 100.0;
+    }
+
+    @Benchmark
+    public int serializeMap() throws IOException {
+        Map<String, Object> fields = Map.of(
+                "payment_method", paymentMethod,
+                "amount", nextAmount());
+        jacksonBuffer.reset();
+        MAPPER.writeValue(generator, fields);
+        generator.flush();
+        return jacksonBuffer.size();
+    }
+
+    @Benchmark
+    public int serializeRecord() {
+        PAYMENT_SERIALIZER.write(new PaymentEvent(paymentMethod, nextAmount()), buffer.reset());
+        return buffer.size();
+    }
+
+    @Benchmark
+    public void logMap() {
+        logger.info("[java] Processing payment", Map.of(
+                "payment_method", paymentMethod,
+                "amount", nextAmount()));
+    }
+
+    @Benchmark
+    public void logRecord() {
+        logger.info("[java] Processing payment", new PaymentEvent(paymentMethod, nextAmount()));
+    }
+}
@@ -24,6 +24,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - logbull.host=http://localhost:4005
  * - logbull.api-key=your-api-key
  * - logbull.log-level=INFO
+ * - spring.threads.virtual.enabled=true (optional, Java 21 virtual threads)
  */
 @SpringBootApplication
 public class TestApplication {
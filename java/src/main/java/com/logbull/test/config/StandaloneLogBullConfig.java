@@ -2,9 +2,28 @@ package com.logbull.test.config;
 
 import com.logbull.LogBullLogger;
 import com.logbull.core.LogLevel;
+import com.logbull.test.logging.AggregationSettings;
+import com.logbull.test.logging.AsyncSettings;
+import com.logbull.test.logging.HostMonitor;
+import com.logbull.test.logging.LoggingTimings;
+import com.logbull.test.logging.OverflowPolicy;
+import com.logbull.test.logging.PipelineLogger;
+import com.logbull.test.logging.RecentEvents;
+import com.logbull.test.logging.SamplingSettings;
+import com.logbull.test.logging.SharedTransports;
+import com.logbull.test.logging.Spooler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Configuration class for standalone LogBullLogger.
@@ -23,18 +42,328 @@ public class StandaloneLogBullConfig {
     @Value("${logbull.api-key:}")
     private String apiKey;
 
+    @Value("${logbull.standalone.log-level:DEBUG}")
+    private LogLevel standaloneLogLevel;
+
+    @Value("${logbull.context-cache.max-size:256}")
+    private int contextCacheMaxSize;
+
+    @Value("${logbull.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    @Value("${logbull.async.capacity:8192}")
+    private int asyncCapacity;
+
+    @Value("${logbull.async.overflow-policy:BLOCK}")
+    private OverflowPolicy asyncOverflowPolicy;
+
+    @Value("${logbull.async.block-timeout-ms:50}")
+    private long asyncBlockTimeoutMs;
+
+    @Value("${logbull.async.priority-capacity:1024}")
+    private int asyncPriorityCapacity;
+
+    @Value("${logbull.async.virtual-threads:${spring.threads.virtual.enabled:false}}")
+    private boolean asyncVirtualThreads;
+
+    @Value("${logbull.sampling.enabled:false}")
+    private boolean samplingEnabled;
+
+    @Value("${logbull.sampling.key:}")
+    private String samplingKey;
+
+    @Value("${logbull.sampling.max-per-key:100}")
+    private int samplingMaxPerKey;
+
+    @Value("${logbull.sampling.window-ms:1000}")
+    private long samplingWindowMs;
+
+    @Value("${logbull.aggregation.enabled:false}")
+    private boolean aggregationEnabled;
+
+    @Value("${logbull.aggregation.window-ms:1000}")
+    private long aggregationWindowMs;
+
+    @Value("${logbull.aggregation.sample-fields:user_id,order_id,username,session_id}")
+    private List<String> aggregationSampleFields;
+
+    @Value("${logbull.aggregation.reservoir-size:5}")
+    private int aggregationReservoirSize;
+
+    @Value("${logbull.aggregation.max-fingerprints:1024}")
+    private int aggregationMaxFingerprints;
+
+    @Value("${logbull.spool.enabled:false}")
+    private boolean spoolEnabled;
+
+    @Value("${logbull.spool.directory:${java.io.tmpdir}/logbull-spool}")
+    private String spoolDirectory;
+
+    @Value("${logbull.spool.max-size-mb:256}")
+    private long spoolMaxSizeMb;
+
+    @Value("${logbull.spool.segment-size-mb:16}")
+    private int spoolSegmentSizeMb;
+
+    @Value("${logbull.spool.replay-rate:2000}")
+    private int spoolReplayRate;
+
+    @Value("${logbull.spool.probe-interval-ms:1000}")
+    private long spoolProbeIntervalMs;
+
+    @Value("${logbull.breaker.enabled:false}")
+    private boolean breakerEnabled;
+
+    @Value("${logbull.breaker.failure-threshold:3}")
+    private int breakerFailureThreshold;
+
+    @Value("${logbull.breaker.probe-interval-ms:1000}")
+    private long breakerProbeIntervalMs;
+
+    @Value("${logbull.breaker.probe-timeout-ms:500}")
+    private long breakerProbeTimeoutMs;
+
+    @Value("${logbull.breaker.backoff-initial-ms:500}")
+    private long breakerBackoffInitialMs;
+
+    @Value("${logbull.breaker.backoff-max-ms:30000}")
+    private long breakerBackoffMaxMs;
+
+    @Value("${logbull.recent.capacity-mb:16}")
+    private long recentCapacityMb;
+
+    @Value("${logbull.recent.slot-bytes:2048}")
+    private int recentSlotBytes;
+
+    @Value("${logbull.recent.index-buckets:4096}")
+    private int recentIndexBuckets;
+
+    @Value("${logbull.logging-time.max-endpoints:64}")
+    private int loggingTimeMaxEndpoints;
+
+    @Value("${logbull.metrics.enabled:true}")
+    private boolean metricsEnabled;
+
+    @Value("${logbull.transport.shared:false}")
+    private boolean sharedTransport;
+
+    @Value("${logbull.transport.lazy:false}")
+    private boolean lazyTransport;
+
+    @Value("${logbull.transport.lazy-buffer:8192}")
+    private int lazyTransportBuffer;
+
+    /**
+     * LogBullLogger clients built or acquired here, let go of once the
+     * pipeline that sends through them has closed.
+     */
+    private final List<LogBullLogger> clients = new CopyOnWriteArrayList<>();
+
     /**
      * Creates a standalone LogBullLogger bean.
      * This is separate from the Spring Boot Starter configuration
      * and demonstrates programmatic logger creation.
+     *
+     * With logbull.transport.shared=true the client is the JVM-wide one for
+     * this host and project from {@link SharedTransports}, which the Spring
+     * Boot Starter's events are then bridged to as well. It is built at
+     * DEBUG; the standalone pipeline and the bridge each apply their own level.
+     *
+     * The bean is lazy: with logbull.transport.lazy=true it is only built,
+     * with its HTTP client and sender thread, when the first event is handed
+     * on, so startup does not wait for it.
+     *
+     * Spring does not shut the client down itself: a shared client may still
+     * be in use by other contexts, and events buffered in the pipeline have
+     * to reach it first. The pipelineLogger bean shuts it down, or releases
+     * it to {@link SharedTransports}, once it has closed.
      */
-    @Bean
+    @Bean(destroyMethod = "")
+    @Lazy
     public LogBullLogger logBullLogger() {
+        return managed(sharedTransport
+                ? SharedTransports.acquire(host, projectId, () -> client(LogLevel.DEBUG))
+                : client(standaloneLogLevel));
+    }
+
+    /**
+     * Client for the priority lane, built like {@link #logBullLogger()}: with
+     * logbull.transport.shared=true the JVM-wide priority client for this
+     * host and project, otherwise one of its own. Either way it is let go of
+     * with the bulk client when the pipeline closes.
+     */
+    private LogBullLogger priorityClient() {
+        return managed(sharedTransport
+                ? SharedTransports.acquire(host, projectId, SharedTransports.PRIORITY, () -> client(LogLevel.DEBUG))
+                : client(standaloneLogLevel));
+    }
+
+    private LogBullLogger managed(LogBullLogger client) {
+        clients.add(client);
+        return client;
+    }
+
+    private void closeClients() {
+        for (LogBullLogger client : clients) {
+            release(client);
+        }
+    }
+
+    /**
+     * Lets go of one client: released to {@link SharedTransports} when shared,
+     * shut down otherwise. Also used for a lazy client only built after the
+     * pipeline closed.
+     */
+    private void release(LogBullLogger client) {
+        clients.remove(client);
+        if (sharedTransport) {
+            SharedTransports.release(client);
+        } else {
+            client.shutdown();
+        }
+    }
+
+    private LogBullLogger client(LogLevel level) {
         return LogBullLogger.builder()
                 .projectId(projectId)
                 .host(host)
                 .apiKey(apiKey.isEmpty() ? null : apiKey)
-                .logLevel(LogLevel.DEBUG)
+                .logLevel(level)
+                .build();
+    }
+
+    /**
+     * Ring buffer settings from logbull.async.*, applied to both the
+     * standalone logger and the Spring Boot Starter's appender.
+     */
+    @Bean
+    public AsyncSettings logBullAsyncSettings() {
+        return new AsyncSettings(asyncEnabled, asyncCapacity, asyncOverflowPolicy,
+                Duration.ofMillis(asyncBlockTimeoutMs), asyncPriorityCapacity, asyncVirtualThreads);
+    }
+
+    /**
+     * Per-key sampling settings from logbull.sampling.*, applied to both the
+     * standalone logger and the Spring Boot Starter's appender.
+     */
+    @Bean
+    public SamplingSettings logBullSamplingSettings() {
+        return new SamplingSettings(samplingEnabled, samplingKey, samplingMaxPerKey,
+                Duration.ofMillis(samplingWindowMs));
+    }
+
+    /**
+     * Error aggregation settings from logbull.aggregation.*, applied to both the
+     * standalone logger and the Spring Boot Starter's appender.
+     */
+    @Bean
+    public AggregationSettings logBullAggregationSettings() {
+        return new AggregationSettings(aggregationEnabled, Duration.ofMillis(aggregationWindowMs),
+                aggregationSampleFields, aggregationReservoirSize, aggregationMaxFingerprints);
+    }
+
+    /**
+     * Off-heap ring of the most recent events from both the standalone logger
+     * and the Spring Boot Starter, queried by GET /api/logs/recent.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "logbull.recent.enabled", havingValue = "true")
+    public RecentEvents recentEvents() {
+        return new RecentEvents(recentCapacityMb * 1024 * 1024, recentSlotBytes, recentIndexBuckets);
+    }
+
+    /**
+     * Per-endpoint histograms of request time and time spent in logging
+     * calls, recorded by the logging time filter and served by
+     * GET /api/logs/logging-time.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "logbull.logging-time.enabled", havingValue = "true")
+    public LoggingTimings loggingTimings() {
+        return new LoggingTimings(loggingTimeMaxEndpoints);
+    }
+
+    /**
+     * Routes standalone logging through the app's pipeline: cached shared
+     * contexts, when logbull.async.enabled=true, a bounded ring buffer and,
+     * when logbull.spool.enabled=true, an on-disk spool for host outages and,
+     * when logbull.sampling.enabled=true, per-key rate limiting and, when
+     * logbull.aggregation.enabled=true, collapsing of repeated errors and,
+     * when logbull.breaker.enabled=true, a circuit breaker that spools or
+     * drops events while probes of the host fail and, when
+     * logbull.recent.enabled=true, a copy of every event in {@link RecentEvents}.
+     * With a priority lane (logbull.async.priority-capacity > 0), ERROR and
+     * CRITICAL events are sent through a client of their own, so they do
+     * not queue behind a DEBUG backlog in the bulk client either; with
+     * logbull.transport.lazy=true that lane shares the lazily built client.
+     * Pipeline meters are tagged logger=standalone. Closing it shuts down,
+     * or releases, the LogBullLogger clients once it has handed them what
+     * it buffered.
+     */
+    @Bean
+    public PipelineLogger pipelineLogger(ObjectProvider<LogBullLogger> logBullLogger, AsyncSettings logBullAsyncSettings,
+            SamplingSettings logBullSamplingSettings, AggregationSettings logBullAggregationSettings,
+            ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<RecentEvents> recentEvents) {
+        HostMonitor hostMonitor = breakerEnabled ? hostMonitor() : null;
+        PipelineLogger.Builder builder = PipelineLogger.builder();
+        if (lazyTransport) {
+            builder.lazyLogger(logBullLogger::getObject, lazyTransportBuffer, this::release);
+        } else {
+            builder.logger(logBullLogger.getObject());
+        }
+        return builder
+                .name("standalone")
+                .level(standaloneLogLevel)
+                .meterRegistry(metricsEnabled ? meterRegistry.getIfAvailable() : null)
+                .contextCacheSize(contextCacheMaxSize)
+                .asyncCapacity(logBullAsyncSettings.enabled() ? logBullAsyncSettings.capacity() : 0)
+                .overflowPolicy(logBullAsyncSettings.overflowPolicy())
+                .blockTimeout(logBullAsyncSettings.blockTimeout())
+                .priorityCapacity(logBullAsyncSettings.priorityCapacity())
+                .drainThreadFactory(logBullAsyncSettings.drainThreadFactory("standalone"))
+                .priorityLogger(!lazyTransport && logBullAsyncSettings.enabled()
+                        && logBullAsyncSettings.priorityCapacity() > 0 ? priorityClient() : null)
+                .spooler(spoolEnabled ? spooler(logBullLogger, hostMonitor) : null)
+                .hostMonitor(hostMonitor)
+                .recentEvents(recentEvents.getIfAvailable())
+                .samplingKey(logBullSamplingSettings.key())
+                .samplingMaxPerKey(logBullSamplingSettings.enabled() ? logBullSamplingSettings.maxPerKey() : 0)
+                .samplingWindow(logBullSamplingSettings.window())
+                .aggregationWindow(logBullAggregationSettings.enabled()
+                        ? logBullAggregationSettings.window() : Duration.ZERO)
+                .aggregationSampleFields(logBullAggregationSettings.sampleFields())
+                .aggregationReservoirSize(logBullAggregationSettings.reservoirSize())
+                .aggregationMaxFingerprints(logBullAggregationSettings.maxFingerprints())
+                .onClose(this::closeClients)
+                .build();
+    }
+
+    private HostMonitor hostMonitor() {
+        return HostMonitor.builder()
+                .name("standalone")
+                .host(host)
+                .projectId(projectId)
+                .apiKey(apiKey.isEmpty() ? null : apiKey)
+                .failureThreshold(breakerFailureThreshold)
+                .probeInterval(Duration.ofMillis(breakerProbeIntervalMs))
+                .probeTimeout(Duration.ofMillis(breakerProbeTimeoutMs))
+                .initialBackoff(Duration.ofMillis(breakerBackoffInitialMs))
+                .maxBackoff(Duration.ofMillis(breakerBackoffMaxMs))
+                .build();
+    }
+
+    private Spooler spooler(ObjectProvider<LogBullLogger> logBullLogger, HostMonitor hostMonitor) {
+        return Spooler.builder(logBullLogger::getObject)
+                .name("standalone")
+                .host(host)
+                .projectId(projectId)
+                .apiKey(apiKey.isEmpty() ? null : apiKey)
+                .monitor(hostMonitor)
+                .directory(Path.of(spoolDirectory))
+                .maxBytes(spoolMaxSizeMb * 1024 * 1024)
+                .segmentBytes(spoolSegmentSizeMb * 1024 * 1024)
+                .replayRate(spoolReplayRate)
+                .probeInterval(Duration.ofMillis(spoolProbeIntervalMs))
                 .build();
     }
 }
@@ -0,0 +1,187 @@
+package com.logbull.test.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.logbull.core.LogLevel;
+import com.logbull.test.logging.AggregationSettings;
+import com.logbull.test.logging.AsyncSettings;
+import com.logbull.test.logging.PipelineAppender;
+import com.logbull.test.logging.PipelineBridgeAppender;
+import com.logbull.test.logging.PipelineLogger;
+import com.logbull.test.logging.RecentEvents;
+import com.logbull.test.logging.SamplingSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Routes the Spring Boot Starter's SLF4J path through the app's logging
+ * pipeline, so logbull.async.*, logbull.sampling.*, logbull.aggregation.*,
+ * logbull.recent.*, logbull.logging-time.* and logbull.metrics.* apply to it too.
+ *
+ * Once the application has started, every Logback appender contributed by
+ * the LogBull starter is wrapped in a {@link PipelineAppender}. With
+ * logbull.transport.shared=true the starter's appenders are instead stopped
+ * and replaced by a {@link PipelineBridgeAppender} into the standalone
+ * {@link PipelineLogger}, so both paths share one ring buffer, drain thread
+ * and LogBullLogger client.
+ *
+ * Logback outlives the application context, so when the context closes the
+ * starter's appenders are put back in place of the wrappers or the bridge,
+ * which are then stopped.
+ */
+@Configuration
+public class StarterAppenderConfig implements ApplicationListener<ApplicationStartedEvent> {
+
+    private final AsyncSettings asyncSettings;
+    private final SamplingSettings samplingSettings;
+    private final AggregationSettings aggregationSettings;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<PipelineLogger> pipelineLogger;
+    private final ObjectProvider<RecentEvents> recentEvents;
+    private final List<Replaced> replaced = new ArrayList<>();
+    private ApplicationContext applicationContext;
+
+    @Value("${logbull.metrics.enabled:true}")
+    private boolean metricsEnabled;
+
+    @Value("${logbull.transport.shared:false}")
+    private boolean sharedTransport;
+
+    @Value("${logbull.logging-time.enabled:false}")
+    private boolean loggingTimeEnabled;
+
+    @Value("${logbull.log-level:INFO}")
+    private String starterLogLevel;
+
+    public StarterAppenderConfig(AsyncSettings logBullAsyncSettings, SamplingSettings logBullSamplingSettings,
+            AggregationSettings logBullAggregationSettings, ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<PipelineLogger> pipelineLogger, ObjectProvider<RecentEvents> recentEvents) {
+        this.asyncSettings = logBullAsyncSettings;
+        this.samplingSettings = logBullSamplingSettings;
+        this.aggregationSettings = logBullAggregationSettings;
+        this.meterRegistry = meterRegistry;
+        this.pipelineLogger = pipelineLogger;
+        this.recentEvents = recentEvents;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationStartedEvent event) {
+        applicationContext = event.getApplicationContext();
+        if (sharedTransport) {
+            bridgeToPipelineLogger();
+            return;
+        }
+        MeterRegistry registry = metricsEnabled ? meterRegistry.getIfAvailable() : null;
+        RecentEvents recent = recentEvents.getIfAvailable();
+        if (!asyncSettings.enabled() && !samplingSettings.enabled() && !aggregationSettings.enabled()
+                && registry == null && recent == null && !loggingTimeEnabled) {
+            return;
+        }
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext loggerContext)) {
+            return;
+        }
+
+        for (Logger logger : loggerContext.getLoggerList()) {
+            for (Appender<ILoggingEvent> appender : starterAppenders(logger)) {
+                PipelineAppender wrapper = new PipelineAppender(appender, asyncSettings, samplingSettings,
+                        aggregationSettings, registry, recent);
+                wrapper.setContext(loggerContext);
+                wrapper.start();
+                logger.addAppender(wrapper);
+                logger.detachAppender(appender);
+                replaced.add(new Replaced(logger, appender, wrapper));
+            }
+        }
+    }
+
+    /**
+     * Puts the starter's appenders back on their loggers, restarting those
+     * the bridge stopped. A wrapper or the bridge is detached only once the
+     * appender is attached again, so no event is lost in between, and is
+     * then stopped: a wrapper delivers what it buffered and removes its
+     * meters. This runs on ContextClosedEvent, before the pipelineLogger
+     * bean closes, so the bridge never hands events to a closed pipeline.
+     */
+    @EventListener
+    public void restoreStarterAppenders(ContextClosedEvent event) {
+        // Child contexts' events reach this listener too
+        if (event.getApplicationContext() != applicationContext) {
+            return;
+        }
+        for (Replaced entry : replaced) {
+            if (!entry.original().isStarted()) {
+                entry.original().start();
+            }
+            entry.logger().addAppender(entry.original());
+            entry.logger().detachAppender(entry.replacement());
+            if (entry.replacement() instanceof PipelineAppender wrapper) {
+                wrapper.unwrap();
+            } else {
+                entry.replacement().stop();
+            }
+        }
+        replaced.clear();
+    }
+
+    private void bridgeToPipelineLogger() {
+        PipelineLogger target = pipelineLogger.getIfAvailable();
+        if (target == null || !(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+
+        PipelineBridgeAppender bridge = null;
+        for (Logger logger : loggerContext.getLoggerList()) {
+            for (Appender<ILoggingEvent> appender : starterAppenders(logger)) {
+                if (bridge == null) {
+                    bridge = new PipelineBridgeAppender(target, starterLevel());
+                    bridge.setContext(loggerContext);
+                    bridge.start();
+                }
+                logger.addAppender(bridge);
+                logger.detachAppender(appender);
+                appender.stop();
+                replaced.add(new Replaced(logger, appender, bridge));
+            }
+        }
+    }
+
+    private LogLevel starterLevel() {
+        String name = starterLogLevel.strip().toUpperCase(Locale.ROOT);
+        return name.equals("WARN") ? LogLevel.WARNING : LogLevel.valueOf(name);
+    }
+
+    /**
+     * A starter appender and what took its place on the logger.
+     */
+    private record Replaced(Logger logger, Appender<ILoggingEvent> original, Appender<ILoggingEvent> replacement) {
+    }
+
+    private static List<Appender<ILoggingEvent>> starterAppenders(Logger logger) {
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext();) {
+            Appender<ILoggingEvent> appender = it.next();
+            String className = appender.getClass().getName();
+            if (className.startsWith("com.logbull.") && !className.startsWith("com.logbull.test.")) {
+                appenders.add(appender);
+            }
+        }
+        return appenders;
+    }
+}
@@ -1,12 +1,18 @@
 package com.logbull.test.controller;
 
 import com.logbull.test.service.StandaloneLoggerService;
+import com.logbull.test.web.MdcRequestFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -23,6 +29,9 @@ public class LogDemoController {
     @Autowired
     private StandaloneLoggerService standaloneLoggerService;
 
+    @Value("${logbull.bulk.max-orders:1000}")
+    private int bulkMaxOrders;
+
     /**
      * Demonstrates Spring Boot Starter usage with SLF4J.
      * Logs are automatically sent to LogBull via the configured Spring Boot
@@ -32,10 +41,14 @@ public class LogDemoController {
     public Map<String, String> testSpringBootStarter(
             @RequestParam(defaultValue = "john_doe") String username) {
 
-        String requestId = UUID.randomUUID().toString();
-
-        // Set MDC context for this request
-        MDC.put("request_id", requestId);
+        // request_id is set by MdcRequestFilter; called directly, e.g. from
+        // a benchmark, the handler sets and removes one itself
+        String requestId = MDC.get(MdcRequestFilter.REQUEST_ID_KEY);
+        boolean ownsRequestId = requestId == null;
+        if (ownsRequestId) {
+            requestId = UUID.randomUUID().toString();
+            MDC.put(MdcRequestFilter.REQUEST_ID_KEY, requestId);
+        }
         MDC.put("username", username);
 
         try {
@@ -66,7 +79,10 @@ public class LogDemoController {
                     "message", e.getMessage(),
                     "request_id", requestId);
         } finally {
-            MDC.clear();
+            MDC.remove("username");
+            if (ownsRequestId) {
+                MDC.remove(MdcRequestFilter.REQUEST_ID_KEY);
+            }
         }
     }
 
@@ -91,6 +107,53 @@ public class LogDemoController {
                 "user_id", userId);
     }
 
+    /**
+     * Bulk variant of {@link #testStandaloneLogger}: processes an array of
+     * orders in parallel and enqueues their log events as one batch.
+     */
+    @PostMapping("/standalone/bulk")
+    public Map<String, Object> testStandaloneLoggerBulk(
+            @RequestBody List<Map<String, String>> payload) {
+
+        if (payload.size() > bulkMaxOrders) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + bulkMaxOrders + " orders per request");
+        }
+        List<StandaloneLoggerService.Order> orders = new ArrayList<>(payload.size());
+        for (int i = 0; i < payload.size(); i++) {
+            Map<String, String> order = payload.get(i);
+            if (order == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order " + i + " must be an object");
+            }
+            orders.add(new StandaloneLoggerService.Order(
+                    bulkField(order, i, "order_id", UUID.randomUUID().toString()),
+                    bulkField(order, i, "user_id", "user_123")));
+        }
+
+        standaloneLoggerService.processOrders(orders);
+
+        return Map.of(
+                "status", "success",
+                "message", "Logs sent via Standalone Logger",
+                "orders", orders.size(),
+                "order_ids", orders.stream().map(StandaloneLoggerService.Order::orderId).toList());
+    }
+
+    /**
+     * A field of a bulk order, or the default when absent; an explicit null is rejected.
+     */
+    private static String bulkField(Map<String, String> order, int index, String name, String defaultValue) {
+        if (!order.containsKey(name)) {
+            return defaultValue;
+        }
+        String value = order.get(name);
+        if (value == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Order " + index + ": " + name + " must not be null");
+        }
+        return value;
+    }
+
     /**
      * Demonstrates both logging approaches in parallel.
      */
@@ -100,8 +163,11 @@ public class LogDemoController {
 
         // Spring Boot Starter approach
         MDC.put("session_id", sessionId);
-        logger.info("[java] Combined test - Using Spring Boot Starter");
-        MDC.clear();
+        try {
+            logger.info("[java] Combined test - Using Spring Boot Starter");
+        } finally {
+            MDC.remove("session_id");
+        }
 
         // Standalone logger approach
         standaloneLoggerService.logCombinedTest(sessionId);
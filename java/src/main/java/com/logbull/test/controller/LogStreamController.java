@@ -0,0 +1,103 @@
+package com.logbull.test.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.logbull.core.LogLevel;
+import com.logbull.test.logging.PipelineLogger;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ingests logs forwarded by edge services as a streamed NDJSON body, one
+ * {@code {"level":"INFO","message":"...","fields":{...}}} object per line.
+ *
+ * The body is parsed incrementally and each line is forwarded to the
+ * standalone LogBullLogger as soon as it is read, so memory stays flat
+ * regardless of upload size. Lines are handed on with
+ * {@link PipelineLogger#logBlocking}: when the async buffer is full the
+ * request thread waits, stops reading the body, and TCP flow control
+ * throttles the sender to the rate LogBull accepts.
+ */
+@RestController
+@RequestMapping("/api/logs")
+public class LogStreamController {
+
+    private static final ObjectReader LINE_READER = new ObjectMapper().readerFor(StreamedLog.class);
+
+    private final PipelineLogger streamLogger;
+
+    public LogStreamController(PipelineLogger pipelineLogger) {
+        this.streamLogger = pipelineLogger.withSharedContext(Map.of("source", "ndjson_stream"));
+    }
+
+    /**
+     * Forwards every line of an NDJSON body. Lines with an unknown level, no
+     * message or the wrong shape are counted as rejected and skipped; a body
+     * that is not JSON at all ends the stream with 400.
+     */
+    @PostMapping(path = "/stream", consumes = { "application/x-ndjson", "application/jsonl" })
+    public Map<String, Object> stream(InputStream body) throws IOException, InterruptedException {
+        long accepted = 0;
+        long rejected = 0;
+
+        try (MappingIterator<StreamedLog> lines = LINE_READER.readValues(body)) {
+            while (lines.hasNextValue()) {
+                StreamedLog line;
+                try {
+                    line = lines.nextValue();
+                } catch (JsonMappingException e) {
+                    rejected++;
+                    continue;
+                }
+                LogLevel level = line.logLevel();
+                if (level == null || line.message() == null) {
+                    rejected++;
+                    continue;
+                }
+                streamLogger.logBlocking(level, line.message(), line.fields());
+                accepted++;
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Malformed NDJSON after " + (accepted + rejected) + " lines", e);
+        }
+
+        return Map.of(
+                "status", "success",
+                "message", "Logs forwarded via Standalone Logger",
+                "accepted", accepted,
+                "rejected", rejected);
+    }
+
+    /**
+     * One NDJSON line.
+     */
+    private record StreamedLog(String level, String message, Map<String, Object> fields) {
+
+        LogLevel logLevel() {
+            if (level == null) {
+                return null;
+            }
+            String name = level.toUpperCase(Locale.ROOT);
+            if (name.equals("WARN")) {
+                return LogLevel.WARNING;
+            }
+            try {
+                return LogLevel.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.logbull.test.controller;
+
+import com.logbull.test.logging.LoggingTimings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+/**
+ * Reports, per /api/logs/* endpoint, the share of request time spent in
+ * logging calls and p50/p99/p999 of both, from {@link LoggingTimings} when
+ * logbull.logging-time.enabled=true.
+ */
+@RestController
+@RequestMapping("/api/logs")
+public class LoggingTimeController {
+
+    private final ObjectProvider<LoggingTimings> loggingTimings;
+
+    public LoggingTimeController(ObjectProvider<LoggingTimings> loggingTimings) {
+        this.loggingTimings = loggingTimings;
+    }
+
+    /**
+     * Endpoints spending the most time in logging calls first; times in
+     * microseconds. 404 when logging time is not measured.
+     */
+    @GetMapping("/logging-time")
+    public Map<String, Object> loggingTime() {
+        LoggingTimings timings = loggingTimings.getIfAvailable();
+        if (timings == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Logging time is not measured (logbull.logging-time.enabled)");
+        }
+        return Map.of(
+                "status", "success",
+                "endpoints", timings.snapshot());
+    }
+}
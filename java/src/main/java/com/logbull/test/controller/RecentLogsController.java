@@ -0,0 +1,90 @@
+package com.logbull.test.controller;
+
+import com.logbull.core.LogLevel;
+import com.logbull.test.logging.RecentEvents;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Looks at this node's most recent events, kept in {@link RecentEvents}
+ * when logbull.recent.enabled=true, without going through the LogBull host.
+ */
+@RestController
+@RequestMapping("/api/logs")
+public class RecentLogsController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final ObjectProvider<RecentEvents> recentEvents;
+
+    public RecentLogsController(ObjectProvider<RecentEvents> recentEvents) {
+        this.recentEvents = recentEvents;
+    }
+
+    /**
+     * Newest events first, filtered by any of request_id, session_id, level
+     * and an ISO-8601 time range; 404 when recent events are not kept.
+     */
+    @GetMapping("/recent")
+    public Map<String, Object> recent(
+            @RequestParam(name = "request_id", required = false) String requestId,
+            @RequestParam(name = "session_id", required = false) String sessionId,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "100") int limit) {
+        RecentEvents recent = recentEvents.getIfAvailable();
+        if (recent == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Recent events are not kept (logbull.recent.enabled)");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<Map<String, Object>> events = recent.query(requestId, sessionId, parseLevel(level),
+                parseInstant("from", from), parseInstant("to", to), limit);
+
+        return Map.of(
+                "status", "success",
+                "count", events.size(),
+                "events", events);
+    }
+
+    private static LogLevel parseLevel(String level) {
+        if (level == null) {
+            return null;
+        }
+        String name = level.toUpperCase(Locale.ROOT);
+        if (name.equals("WARN")) {
+            return LogLevel.WARNING;
+        }
+        try {
+            return LogLevel.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown level " + level);
+        }
+    }
+
+    private static Instant parseInstant(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be an ISO-8601 instant", e);
+        }
+    }
+}
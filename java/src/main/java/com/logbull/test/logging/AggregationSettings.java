@@ -0,0 +1,21 @@
+package com.logbull.test.logging;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Error aggregation settings shared by the standalone logger and the starter's appender.
+ *
+ * @param enabled         whether repeated ERROR and CRITICAL events are collapsed
+ * @param window          length of one aggregation window
+ * @param sampleFields    fields (standalone) or MDC keys (starter) whose distinct values summaries keep
+ * @param reservoirSize   distinct values kept per sample field
+ * @param maxFingerprints maximum errors aggregated at once
+ */
+public record AggregationSettings(
+        boolean enabled,
+        Duration window,
+        List<String> sampleFields,
+        int reservoirSize,
+        int maxFingerprints) {
+}
@@ -0,0 +1,524 @@
+package com.logbull.test.logging;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Hands events from logging threads to a single drain thread through a
+ * bounded {@link RingBuffer}, so callers never wait on the logger's
+ * serialization or network path. When the buffer is full the configured
+ * {@link OverflowPolicy} decides whether the caller waits or an event is dropped.
+ *
+ * An optional spill target receives events the overflow policy would drop,
+ * e.g. an on-disk {@link Spooler}; spilled events are not counted as dropped.
+ *
+ * With a priority lane configured, events matching the priority predicate
+ * (e.g. ERROR and CRITICAL) go into a second bounded ring buffer that the
+ * drain thread serves ahead of the bulk lane: it is checked before every
+ * bulk event is delivered, so a priority event waits for at most one
+ * delivery, not for a backlog of thousands of DEBUG lines.
+ * To keep the bulk lane from starving under a flood of errors, the drain
+ * thread takes at most {@link Builder#priorityWeight} priority events for
+ * each bulk event while both lanes have work.
+ *
+ * @param <E> event type
+ */
+public final class AsyncDispatcher<E> implements AutoCloseable {
+
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int EVICTION_ATTEMPTS = 16;
+
+    private final RingBuffer<E> buffer;
+    private final RingBuffer<E> priorityBuffer;
+    private final Predicate<E> priority;
+    private final Consumer<E> prioritySink;
+    private final int priorityWeight;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Consumer<E> sink;
+    private final Predicate<E> keepOnOverflow;
+    private final Predicate<E> spill;
+    private final DispatchListener<E> listener;
+    private final Thread drainer;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private final Object closeLock = new Object();
+
+    private volatile boolean running = true;
+    private volatile boolean drainerParked;
+
+    private AsyncDispatcher(Builder<E> builder) {
+        this.buffer = new RingBuffer<>(builder.capacity);
+        this.priorityBuffer = builder.priorityCapacity > 0 ? new RingBuffer<>(builder.priorityCapacity) : null;
+        this.priority = builder.priority;
+        this.prioritySink = builder.prioritySink != null ? builder.prioritySink : builder.sink;
+        this.priorityWeight = Math.max(1, builder.priorityWeight);
+        this.overflowPolicy = builder.overflowPolicy;
+        this.blockTimeoutNanos = builder.blockTimeout.toNanos();
+        this.sink = builder.sink;
+        this.keepOnOverflow = builder.keepOnOverflow;
+        this.spill = builder.spill;
+        this.listener = builder.listener;
+        this.drainer = builder.threadFactory != null
+                ? builder.threadFactory.newThread(this::drain)
+                : Thread.ofPlatform().name("logbull-async-" + builder.name).daemon().unstarted(this::drain);
+        this.drainer.start();
+    }
+
+    public static <E> Builder<E> builder(Consumer<E> sink) {
+        return new Builder<>(sink);
+    }
+
+    /**
+     * Enqueues an event for delivery.
+     *
+     * @return false if the event was dropped
+     */
+    public boolean offer(E event) {
+        if (!running) {
+            // After close, deliver on the caller rather than lose the event
+            deliver(event);
+            return true;
+        }
+        RingBuffer<E> lane = laneOf(event);
+        if (lane.offer(event)) {
+            accepted(event);
+            return true;
+        }
+
+        return switch (overflowPolicy) {
+            case BLOCK -> offerBlocking(lane, event);
+            case DROP_NEWEST -> drop(event);
+            case DROP_OLDEST -> offerEvictingOldest(lane, event);
+            case DROP_BY_LEVEL -> keepOnOverflow.test(event) ? offerEvictingOldest(lane, event) : drop(event);
+        };
+    }
+
+    private RingBuffer<E> laneOf(E event) {
+        return priorityBuffer != null && priority.test(event) ? priorityBuffer : buffer;
+    }
+
+    /**
+     * Enqueues an event, waiting for space for as long as it takes instead of
+     * applying the overflow policy. For producers that can be slowed down,
+     * such as a streaming upload, so delivery throttles them rather than
+     * dropping their events.
+     */
+    public void put(E event) throws InterruptedException {
+        RingBuffer<E> lane = laneOf(event);
+        long parkNanos = 1_000;
+        while (running && Thread.currentThread() != drainer) {
+            if (lane.offer(event)) {
+                accepted(event);
+                return;
+            }
+            wakeDrainer();
+            LockSupport.parkNanos(parkNanos);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            parkNanos = Math.min(parkNanos * 2, MAX_BLOCK_PARK_NANOS);
+        }
+        // Closed, or called from a sink that logs: fall back to the usual path
+        offer(event);
+    }
+
+    /**
+     * Enqueues events as one contiguous run, so they reach the drain thread
+     * together, without other producers' events in between.
+     * Events that do not fit are offered one by one under the overflow policy.
+     * With a priority lane, priority events are taken out of the run and
+     * offered to their lane first.
+     *
+     * @return number of events dropped
+     */
+    public int offerAll(List<E> events) {
+        if (!running) {
+            events.forEach(this::deliver);
+            return 0;
+        }
+        int droppedEvents = 0;
+        if (priorityBuffer != null) {
+            List<E> bulk = new ArrayList<>(events.size());
+            for (E event : events) {
+                if (!priority.test(event)) {
+                    bulk.add(event);
+                } else if (!offer(event)) {
+                    droppedEvents++;
+                }
+            }
+            events = bulk;
+        }
+        int added = buffer.offerAll(events, 0);
+        if (added > 0) {
+            enqueued.add(added);
+            for (int i = 0; i < added; i++) {
+                listener.enqueued(events.get(i));
+            }
+            wakeDrainer();
+            if (!running) {
+                drainRemaining();
+            }
+        }
+        for (int i = added; i < events.size(); i++) {
+            if (!offer(events.get(i))) {
+                droppedEvents++;
+            }
+        }
+        return droppedEvents;
+    }
+
+    private boolean offerBlocking(RingBuffer<E> lane, E event) {
+        if (Thread.currentThread() == drainer) {
+            // A sink that logs must never wait on itself
+            return drop(event);
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        long parkNanos = 1_000;
+        while (System.nanoTime() < deadline) {
+            wakeDrainer();
+            LockSupport.parkNanos(parkNanos);
+            if (lane.offer(event)) {
+                accepted(event);
+                return true;
+            }
+            parkNanos = Math.min(parkNanos * 2, MAX_BLOCK_PARK_NANOS);
+        }
+        return drop(event);
+    }
+
+    private boolean offerEvictingOldest(RingBuffer<E> lane, E event) {
+        for (int attempt = 0; attempt < EVICTION_ATTEMPTS; attempt++) {
+            E evicted = lane.poll();
+            if (evicted != null) {
+                drop(evicted);
+            }
+            if (lane.offer(event)) {
+                accepted(event);
+                return true;
+            }
+        }
+        return drop(event);
+    }
+
+    private void accepted(E event) {
+        enqueued.increment();
+        listener.enqueued(event);
+        wakeDrainer();
+        if (!running) {
+            // Enqueued while closing, possibly after the drain thread's last pass
+            drainRemaining();
+        }
+    }
+
+    private boolean drop(E event) {
+        if (spill.test(event)) {
+            spilled.increment();
+            return true;
+        }
+        dropped.increment();
+        listener.dropped(event);
+        return false;
+    }
+
+    private void wakeDrainer() {
+        if (drainerParked) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    private void drain() {
+        int batchSize = 0;
+        while (running || !lanesEmpty()) {
+            servePriority();
+            E event = buffer.poll();
+            if (event != null) {
+                deliver(event);
+                batchSize++;
+                continue;
+            }
+            if (batchSize > 0) {
+                // Everything delivered since the last wake-up counts as one batch
+                listener.drained(batchSize);
+                batchSize = 0;
+            }
+            // Producers that enqueue after this flag is set will unpark us
+            drainerParked = true;
+            if (running && lanesEmpty()) {
+                LockSupport.parkNanos(MAX_IDLE_PARK_NANOS);
+            }
+            drainerParked = false;
+        }
+        if (batchSize > 0) {
+            listener.drained(batchSize);
+        }
+    }
+
+    /**
+     * Delivers up to {@code priorityWeight} priority events, each as soon as it is taken.
+     */
+    private void servePriority() {
+        if (priorityBuffer == null) {
+            return;
+        }
+        int served = 0;
+        for (E event; served < priorityWeight && (event = priorityBuffer.poll()) != null; served++) {
+            deliver(prioritySink, event);
+        }
+        if (served > 0) {
+            listener.drained(served);
+        }
+    }
+
+    private boolean lanesEmpty() {
+        return buffer.isEmpty() && (priorityBuffer == null || priorityBuffer.isEmpty());
+    }
+
+    private void deliver(E event) {
+        deliver(sink, event);
+    }
+
+    private void deliver(Consumer<E> target, E event) {
+        long start = System.nanoTime();
+        try {
+            target.accept(event);
+            delivered.increment();
+            listener.delivered(event, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            failed.increment();
+            listener.failed(event);
+        }
+    }
+
+    /**
+     * Stops accepting new events into the buffer and waits for the drain
+     * thread to deliver what is already queued.
+     *
+     * A producer that saw the dispatcher running may still enqueue after the
+     * drain thread's last pass; once the drain thread has ended, whatever is
+     * left in the lanes is delivered here, or by that producer if it comes
+     * later still.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainRemaining();
+    }
+
+    /**
+     * Delivers what is left in the lanes after the drain thread has ended;
+     * while it is alive, it takes them itself.
+     */
+    private void drainRemaining() {
+        if (drainer.isAlive()) {
+            return;
+        }
+        synchronized (closeLock) {
+            if (priorityBuffer != null) {
+                for (E event; (event = priorityBuffer.poll()) != null;) {
+                    deliver(prioritySink, event);
+                }
+            }
+            for (E event; (event = buffer.poll()) != null;) {
+                deliver(event);
+            }
+        }
+    }
+
+    /**
+     * Events waiting in both lanes.
+     */
+    public int queueDepth() {
+        return buffer.size() + priorityQueueDepth();
+    }
+
+    /**
+     * Capacity of both lanes.
+     */
+    public int capacity() {
+        return buffer.capacity() + (priorityBuffer == null ? 0 : priorityBuffer.capacity());
+    }
+
+    /**
+     * Events waiting in the priority lane; 0 without one.
+     */
+    public int priorityQueueDepth() {
+        return priorityBuffer == null ? 0 : priorityBuffer.size();
+    }
+
+    /**
+     * Capacity of the priority lane; 0 without one.
+     */
+    public int priorityCapacity() {
+        return priorityBuffer == null ? 0 : priorityBuffer.capacity();
+    }
+
+    public long enqueuedCount() {
+        return enqueued.sum();
+    }
+
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Events handed to the spill target instead of being dropped.
+     */
+    public long spilledCount() {
+        return spilled.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    public OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Builder for {@link AsyncDispatcher}.
+     */
+    public static final class Builder<E> {
+
+        private final Consumer<E> sink;
+        private String name = "dispatcher";
+        private int capacity = 8192;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private Duration blockTimeout = Duration.ofMillis(50);
+        private Predicate<E> keepOnOverflow = event -> false;
+        private Predicate<E> spill = event -> false;
+        private DispatchListener<E> listener = DispatchListener.none();
+        private Predicate<E> priority = event -> false;
+        private Consumer<E> prioritySink;
+        private int priorityCapacity;
+        private int priorityWeight = 8;
+        private ThreadFactory threadFactory;
+
+        private Builder(Consumer<E> sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Name used for the drain thread.
+         */
+        public Builder<E> name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder<E> capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder<E> overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * How long {@link OverflowPolicy#BLOCK} waits for space before dropping.
+         */
+        public Builder<E> blockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+            return this;
+        }
+
+        /**
+         * Events that {@link OverflowPolicy#DROP_BY_LEVEL} keeps when the buffer is full.
+         */
+        public Builder<E> keepOnOverflow(Predicate<E> keepOnOverflow) {
+            this.keepOnOverflow = keepOnOverflow;
+            return this;
+        }
+
+        /**
+         * Takes events the overflow policy would drop; returns false if it
+         * could not keep the event, which is then dropped as usual.
+         */
+        public Builder<E> spill(Predicate<E> spill) {
+            this.spill = spill;
+            return this;
+        }
+
+        /**
+         * Receives enqueue, drop and delivery notifications, e.g. for metrics.
+         */
+        public Builder<E> listener(DispatchListener<E> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Events that go into the priority lane, when it has a capacity.
+         */
+        public Builder<E> priority(Predicate<E> priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Sink for priority lane events, e.g. a client with its own send
+         * queue so they do not wait behind the bulk lane's backlog there
+         * either; defaults to the sink.
+         */
+        public Builder<E> prioritySink(Consumer<E> prioritySink) {
+            this.prioritySink = prioritySink;
+            return this;
+        }
+
+        /**
+         * Capacity of the priority lane; 0 (the default) keeps one lane.
+         */
+        public Builder<E> priorityCapacity(int priorityCapacity) {
+            this.priorityCapacity = priorityCapacity;
+            return this;
+        }
+
+        /**
+         * Priority events taken for each bulk event while both lanes have work.
+         */
+        public Builder<E> priorityWeight(int priorityWeight) {
+            this.priorityWeight = priorityWeight;
+            return this;
+        }
+
+        /**
+         * Creates the drain thread, e.g. {@code Thread.ofVirtual().factory()}
+         * to deliver on a virtual thread; defaults to a daemon platform thread
+         * named after {@link #name}.
+         */
+        public Builder<E> threadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        public AsyncDispatcher<E> build() {
+            return new AsyncDispatcher<>(this);
+        }
+    }
+}
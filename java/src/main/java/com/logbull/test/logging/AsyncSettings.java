@@ -0,0 +1,31 @@
+package com.logbull.test.logging;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Async buffer settings shared by the standalone logger and the starter's appender.
+ *
+ * @param enabled          whether logging goes through a ring buffer
+ * @param capacity         ring buffer capacity, rounded up to a power of two
+ * @param overflowPolicy   what to do when the buffer is full
+ * @param blockTimeout     how long {@link OverflowPolicy#BLOCK} waits for space
+ * @param priorityCapacity capacity of the ERROR/CRITICAL lane; 0 for one lane
+ * @param virtualThreads   whether the drain thread is a virtual thread
+ */
+public record AsyncSettings(
+        boolean enabled,
+        int capacity,
+        OverflowPolicy overflowPolicy,
+        Duration blockTimeout,
+        int priorityCapacity,
+        boolean virtualThreads) {
+
+    /**
+     * Factory for the drain thread of the named pipeline; null for the
+     * dispatcher's default platform thread.
+     */
+    public ThreadFactory drainThreadFactory(String name) {
+        return virtualThreads ? Thread.ofVirtual().name("logbull-async-" + name).factory() : null;
+    }
+}
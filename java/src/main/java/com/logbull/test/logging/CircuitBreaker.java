@@ -0,0 +1,167 @@
+package com.logbull.test.logging;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for the LogBull host.
+ *
+ * CLOSED lets calls through and opens after {@code failureThreshold}
+ * consecutive failures. OPEN rejects calls until its backoff has passed, then
+ * lets exactly one trial call through as HALF_OPEN: success closes the
+ * breaker, failure opens it again for twice as long, up to the maximum
+ * backoff. Each backoff is jittered to between half and all of its nominal
+ * length, so instances that tripped together do not retry together.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * Breaker state; the state gauge reports its ordinal.
+     */
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureThreshold;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final LongSupplier clock;
+    private final DoubleSupplier jitter;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int consecutiveOpens;
+    private long openUntil;
+    private long openedCount;
+
+    private CircuitBreaker(Builder builder) {
+        this.failureThreshold = Math.max(1, builder.failureThreshold);
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = Math.max(initialBackoffNanos, builder.maxBackoff.toNanos());
+        this.clock = builder.clock;
+        this.jitter = builder.jitter;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * True if a call may go ahead now. Moves an OPEN breaker whose backoff
+     * has passed to HALF_OPEN and admits that one call as the trial.
+     */
+    public synchronized boolean allowRequest() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false;
+            case OPEN -> {
+                if (clock.getAsLong() - openUntil < 0) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        consecutiveOpens = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        long backoff = initialBackoffNanos << Math.min(consecutiveOpens, 30);
+        if (backoff <= 0 || backoff > maxBackoffNanos) {
+            backoff = maxBackoffNanos;
+        }
+        consecutiveOpens++;
+        openedCount++;
+        long jittered = backoff / 2 + (long) (jitter.getAsDouble() * (backoff / 2));
+        openUntil = clock.getAsLong() + jittered;
+        state = State.OPEN;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Nanos until an OPEN breaker admits its trial call; 0 in other states.
+     */
+    public synchronized long nanosUntilTrial() {
+        return state == State.OPEN ? Math.max(0, openUntil - clock.getAsLong()) : 0;
+    }
+
+    /**
+     * How many times the breaker has opened.
+     */
+    public synchronized long openedCount() {
+        return openedCount;
+    }
+
+    /**
+     * Builder for {@link CircuitBreaker}.
+     */
+    public static final class Builder {
+
+        private int failureThreshold = 3;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+        private LongSupplier clock = System::nanoTime;
+        private DoubleSupplier jitter = () -> ThreadLocalRandom.current().nextDouble();
+
+        private Builder() {
+        }
+
+        /**
+         * Consecutive failures that open a closed breaker.
+         */
+        public Builder failureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Nominal backoff after the first opening; doubled on every failed trial.
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Nano time source, for tests.
+         */
+        public Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Source of jitter in [0, 1), for tests.
+         */
+        public Builder jitter(DoubleSupplier jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
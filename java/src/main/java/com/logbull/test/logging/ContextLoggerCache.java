@@ -0,0 +1,146 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of context loggers for contexts that repeat often,
+ * such as {@code service=order_processing}.
+ *
+ * Every {@code withContext} call merges the parent's fields with the new ones,
+ * so creating the same context logger per call repeats that work. The cache
+ * keys on the parent logger and the context delta, so nested chains only pay
+ * for the fields they add. The pipeline's {@link LogContext} links are cached
+ * the same way, so their serialized JSON is reused across calls.
+ *
+ * The bound is least-recently-used, approximately: every entry carries the
+ * tick of its last use, and once the cache grows past {@code maxSize} one
+ * thread drops the oldest eighth in a single pass. A hit only advances the
+ * clock when the entry is not already the most recently used, so a hot
+ * context is looked up without writes. A size of 0 disables caching.
+ */
+public class ContextLoggerCache {
+
+    private final LogBullLogger root;
+    private final int maxSize;
+    private final Map<Key, Entry> cache = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public ContextLoggerCache(LogBullLogger root, int maxSize) {
+        this.root = root;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a logger with the given context on top of the root logger.
+     */
+    public LogBullLogger withContext(Map<String, Object> context) {
+        return withContext(root, context);
+    }
+
+    /**
+     * Returns a logger with the given context delta on top of {@code parent}.
+     */
+    public LogBullLogger withContext(LogBullLogger parent, Map<String, Object> delta) {
+        if (maxSize <= 0) {
+            return parent.withContext(delta);
+        }
+        return (LogBullLogger) lookup(parent, delta, parent::withContext);
+    }
+
+    /**
+     * Returns the context link for the given delta on top of {@code parent},
+     * which may be null for the root.
+     */
+    public LogContext context(LogContext parent, Map<String, Object> delta) {
+        if (maxSize <= 0) {
+            return new LogContext(parent, delta);
+        }
+        return (LogContext) lookup(parent, delta, fields -> new LogContext(parent, fields));
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private Object lookup(Object parent, Map<String, Object> delta, Function<Map<String, Object>, Object> create) {
+        Entry cached = cache.get(new Key(parent, delta));
+        if (cached != null) {
+            touch(cached);
+            return cached.value;
+        }
+
+        // HashMap rather than Map.copyOf, which rejects null values
+        Map<String, Object> copy = Collections.unmodifiableMap(new HashMap<>(delta));
+        Entry created = new Entry(create.apply(copy), clock.incrementAndGet());
+        Entry existing = cache.putIfAbsent(new Key(parent, copy), created);
+        if (existing != null) {
+            touch(existing);
+            return existing.value;
+        }
+        if (cache.size() > maxSize) {
+            evict();
+        }
+        return created.value;
+    }
+
+    private void touch(Entry entry) {
+        if (entry.lastUsed != clock.get()) {
+            entry.lastUsed = clock.incrementAndGet();
+        }
+    }
+
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long[] ticks = cache.values().stream().mapToLong(entry -> entry.lastUsed).toArray();
+            int excess = ticks.length - (maxSize - maxSize / 8);
+            if (excess <= 0) {
+                return;
+            }
+            Arrays.sort(ticks);
+            long oldest = ticks[excess - 1];
+            cache.values().removeIf(entry -> entry.lastUsed <= oldest);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Entry {
+
+        final Object value;
+        volatile long lastUsed;
+
+        Entry(Object value, long lastUsed) {
+            this.value = value;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * Parents are compared by identity; context deltas by value.
+     */
+    private record Key(Object parent, Map<String, Object> delta) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && parent == key.parent && delta.equals(key.delta);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(parent) + delta.hashCode();
+        }
+    }
+}
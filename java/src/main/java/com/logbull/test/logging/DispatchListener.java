@@ -0,0 +1,63 @@
+package com.logbull.test.logging;
+
+/**
+ * Callbacks from the logging pipeline, e.g. for metrics.
+ * Implementations must be cheap and thread-safe: enqueue and drop callbacks
+ * run on the logging thread.
+ *
+ * @param <E> event type
+ */
+public interface DispatchListener<E> {
+
+    /**
+     * The event was accepted into the buffer.
+     */
+    default void enqueued(E event) {
+    }
+
+    /**
+     * The event was dropped by the overflow policy.
+     */
+    default void dropped(E event) {
+    }
+
+    /**
+     * The event was suppressed by the sampler.
+     */
+    default void suppressed(E event) {
+    }
+
+    /**
+     * The event was handed to the logger; {@code nanos} is the time that took,
+     * which for LogBullLogger is its enqueue, not the HTTP send.
+     */
+    default void delivered(E event, long nanos) {
+    }
+
+    /**
+     * Handing the event to the logger threw.
+     */
+    default void failed(E event) {
+    }
+
+    /**
+     * The drain thread delivered {@code batchSize} events in one wake-up.
+     */
+    default void drained(int batchSize) {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> DispatchListener<E> none() {
+        return (DispatchListener<E>) NoOp.INSTANCE;
+    }
+
+    /**
+     * Listener that ignores everything.
+     */
+    final class NoOp implements DispatchListener<Object> {
+        private static final NoOp INSTANCE = new NoOp();
+
+        private NoOp() {
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.logbull.test.logging;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Collapses repeated error events into one summary per window.
+ *
+ * Events are fingerprinted by level, message template and exception type.
+ * The first event of a fingerprint passes straight through and opens a
+ * window; duplicates within the window are absorbed. When the window ends,
+ * a flush thread emits one summary event carrying {@value #COUNT_FIELD},
+ * {@value #FIRST_SEEN_FIELD}, {@value #LAST_SEEN_FIELD} and up to
+ * {@code reservoirSize} distinct values of each sample field as
+ * {@code aggregated_<field>}. A dependency failing thousands of times per
+ * second then costs two events per window instead of thousands.
+ *
+ * At most {@code maxFingerprints} windows are open at once; events with new
+ * fingerprints beyond that pass through unaggregated.
+ *
+ * @param <E> event type
+ */
+public final class ErrorAggregator<E> implements AutoCloseable {
+
+    public static final String COUNT_FIELD = "aggregated_count";
+    public static final String FIRST_SEEN_FIELD = "first_seen";
+    public static final String LAST_SEEN_FIELD = "last_seen";
+    public static final String SAMPLES_PREFIX = "aggregated_";
+
+    private static final long MIN_FLUSH_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Function<E, Fingerprint> fingerprint;
+    private final Predicate<E> aggregate;
+    private final BiFunction<E, String, Object> fieldOf;
+    private final BiFunction<E, Summary, E> summarize;
+    private final List<String> sampleFields;
+    private final int reservoirSize;
+    private final int maxFingerprints;
+    private final long windowNanos;
+    private final Map<Fingerprint, Window<E>> windows = new ConcurrentHashMap<>();
+
+    private volatile Consumer<E> sink;
+    private volatile boolean running;
+    private Thread flusher;
+
+    private ErrorAggregator(Builder<E> builder) {
+        this.fingerprint = builder.fingerprint;
+        this.aggregate = builder.aggregate;
+        this.fieldOf = builder.fieldOf;
+        this.summarize = builder.summarize;
+        this.sampleFields = List.copyOf(builder.sampleFields);
+        this.reservoirSize = builder.reservoirSize;
+        this.maxFingerprints = builder.maxFingerprints;
+        this.windowNanos = builder.window.toNanos();
+    }
+
+    /**
+     * @param fingerprint level, message template and exception type of an event
+     * @param summarize   builds the summary event from the latest duplicate
+     */
+    public static <E> Builder<E> builder(Function<E, Fingerprint> fingerprint, BiFunction<E, Summary, E> summarize) {
+        return new Builder<>(fingerprint, summarize);
+    }
+
+    /**
+     * Starts the flush thread, which hands summary events to {@code sink}.
+     */
+    public void start(String name, Consumer<E> sink) {
+        this.sink = sink;
+        this.running = true;
+        this.flusher = new Thread(this::flushLoop, "logbull-aggregate-" + name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Offers an event to the aggregator.
+     *
+     * @return true if the caller should pass the event on now, false if it
+     *         was absorbed into an open window
+     */
+    public boolean offer(E event) {
+        if (!aggregate.test(event)) {
+            return true;
+        }
+        Fingerprint key = fingerprint.apply(event);
+        while (true) {
+            Window<E> window = windows.get(key);
+            if (window == null) {
+                if (windows.size() >= maxFingerprints) {
+                    return true;
+                }
+                if (windows.putIfAbsent(key, new Window<>(System.nanoTime())) == null) {
+                    return true;
+                }
+                continue;
+            }
+            if (window.add(event, this)) {
+                return false;
+            }
+            // Closed by the flush thread in the meantime; open a new window
+            windows.remove(key, window);
+        }
+    }
+
+    /**
+     * Number of fingerprints with an open window.
+     */
+    public int openWindows() {
+        return windows.size();
+    }
+
+    private void flushLoop() {
+        long parkNanos = Math.max(MIN_FLUSH_PARK_NANOS, windowNanos / 4);
+        while (running) {
+            flush(false);
+            LockSupport.parkNanos(parkNanos);
+        }
+        flush(true);
+    }
+
+    private void flush(boolean all) {
+        long now = System.nanoTime();
+        for (Iterator<Map.Entry<Fingerprint, Window<E>>> it = windows.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Fingerprint, Window<E>> entry = it.next();
+            Window<E> window = entry.getValue();
+            if (!all && now - window.openedNanos < windowNanos) {
+                continue;
+            }
+            Summary summary = window.close();
+            windows.remove(entry.getKey(), window);
+            if (summary != null) {
+                try {
+                    sink.accept(summarize.apply(window.latest, summary));
+                } catch (RuntimeException e) {
+                    // A failing sink must not stop later summaries
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the flush thread after emitting summaries for all open windows.
+     */
+    @Override
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * What events are grouped by.
+     *
+     * @param level     event level
+     * @param message   message template, before argument substitution where known
+     * @param errorType exception class or {@code error_type} field, or null
+     */
+    public record Fingerprint(String level, String message, String errorType) {
+    }
+
+    /**
+     * Duplicates absorbed by one window.
+     *
+     * @param count     number of duplicates, not counting the event that opened the window
+     * @param firstSeen when the first duplicate arrived
+     * @param lastSeen  when the last duplicate arrived
+     * @param samples   distinct values seen per sample field
+     */
+    public record Summary(long count, Instant firstSeen, Instant lastSeen, Map<String, Set<Object>> samples) {
+
+        /**
+         * The summary as event fields.
+         */
+        public Map<String, Object> fields() {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put(COUNT_FIELD, count);
+            fields.put(FIRST_SEEN_FIELD, firstSeen.toString());
+            fields.put(LAST_SEEN_FIELD, lastSeen.toString());
+            samples.forEach((field, values) -> fields.put(SAMPLES_PREFIX + field, List.copyOf(values)));
+            return fields;
+        }
+    }
+
+    /**
+     * One fingerprint's open window. Guarded by its own monitor, which is only
+     * contended between duplicates of the same error.
+     */
+    private static final class Window<E> {
+
+        private final long openedNanos;
+        private long count;
+        private Instant firstSeen;
+        private Instant lastSeen;
+        private E latest;
+        private Map<String, Set<Object>> samples;
+        private boolean closed;
+
+        Window(long openedNanos) {
+            this.openedNanos = openedNanos;
+        }
+
+        synchronized boolean add(E event, ErrorAggregator<E> aggregator) {
+            if (closed) {
+                return false;
+            }
+            Instant now = Instant.now();
+            if (count++ == 0) {
+                firstSeen = now;
+                samples = new LinkedHashMap<>();
+            }
+            lastSeen = now;
+            latest = event;
+            for (String field : aggregator.sampleFields) {
+                Object value = aggregator.fieldOf.apply(event, field);
+                if (value != null) {
+                    Set<Object> values = samples.computeIfAbsent(field, f -> new LinkedHashSet<>());
+                    if (values.size() < aggregator.reservoirSize) {
+                        values.add(value);
+                    }
+                }
+            }
+            return true;
+        }
+
+        synchronized Summary close() {
+            closed = true;
+            return count == 0 ? null : new Summary(count, firstSeen, lastSeen, samples);
+        }
+    }
+
+    /**
+     * Builder for {@link ErrorAggregator}.
+     */
+    public static final class Builder<E> {
+
+        private final Function<E, Fingerprint> fingerprint;
+        private final BiFunction<E, Summary, E> summarize;
+        private Predicate<E> aggregate = event -> true;
+        private BiFunction<E, String, Object> fieldOf = (event, field) -> null;
+        private List<String> sampleFields = List.of();
+        private int reservoirSize = 5;
+        private int maxFingerprints = 1024;
+        private Duration window = Duration.ofSeconds(1);
+
+        private Builder(Function<E, Fingerprint> fingerprint, BiFunction<E, Summary, E> summarize) {
+            this.fingerprint = fingerprint;
+            this.summarize = summarize;
+        }
+
+        /**
+         * Events to aggregate; all others pass through.
+         */
+        public Builder<E> aggregate(Predicate<E> aggregate) {
+            this.aggregate = aggregate;
+            return this;
+        }
+
+        /**
+         * Fields whose distinct values are kept, read with {@code fieldOf}.
+         */
+        public Builder<E> sampleFields(List<String> sampleFields, BiFunction<E, String, Object> fieldOf) {
+            this.sampleFields = sampleFields;
+            this.fieldOf = fieldOf;
+            return this;
+        }
+
+        /**
+         * Distinct values kept per sample field.
+         */
+        public Builder<E> reservoirSize(int reservoirSize) {
+            this.reservoirSize = reservoirSize;
+            return this;
+        }
+
+        public Builder<E> maxFingerprints(int maxFingerprints) {
+            this.maxFingerprints = maxFingerprints;
+            return this;
+        }
+
+        public Builder<E> window(Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        public ErrorAggregator<E> build() {
+            return new ErrorAggregator<>(this);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.logbull.test.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Rate-limits events per key: at most {@code maxPerKey} events per key are
+ * kept in each window, the rest are suppressed.
+ *
+ * Keys are hashed into a fixed array of slots, each holding its window index
+ * and count packed into one long that is updated with a CAS, so the sampler
+ * never allocates and its memory does not grow with the number of keys.
+ * Keys that collide share a slot's budget; with the default 4096 slots that
+ * only matters with thousands of hot keys at once.
+ *
+ * Events matching {@code alwaysKeep} (ERROR and CRITICAL) are never
+ * suppressed. A kept event learns how many events of its slot were
+ * suppressed since the previous kept one, so the count can be attached to it.
+ *
+ * @param <E> event type
+ */
+public final class EventSampler<E> {
+
+    /**
+     * Returned by {@link #sample(Object)} for a suppressed event.
+     */
+    public static final long SUPPRESSED = -1;
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLongArray states;
+    private final AtomicLongArray suppressed;
+    private final int mask;
+    private final int maxPerKey;
+    private final long windowNanos;
+    private final long origin = System.nanoTime();
+    private final ToIntFunction<E> keyHash;
+    private final Predicate<E> alwaysKeep;
+
+    private EventSampler(Builder<E> builder) {
+        int slots = Integer.highestOneBit(Math.max(1, builder.slots - 1)) << 1;
+        this.states = new AtomicLongArray(slots);
+        this.suppressed = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.maxPerKey = builder.maxPerKey;
+        this.windowNanos = Math.max(1, builder.window.toNanos());
+        this.keyHash = builder.keyHash;
+        this.alwaysKeep = builder.alwaysKeep;
+    }
+
+    public static <E> Builder<E> builder(ToIntFunction<E> keyHash) {
+        return new Builder<>(keyHash);
+    }
+
+    /**
+     * Decides whether to keep the event.
+     *
+     * @return {@link #SUPPRESSED}, or the number of events suppressed for
+     *         this key since the last kept one
+     */
+    public long sample(E event) {
+        int slot = spread(keyHash.applyAsInt(event)) & mask;
+        if (alwaysKeep.test(event)) {
+            return suppressed.getAndSet(slot, 0);
+        }
+
+        long window = ((System.nanoTime() - origin) / windowNanos) & COUNT_MASK;
+        while (true) {
+            long state = states.get(slot);
+            boolean sameWindow = state >>> 32 == window;
+            if (sameWindow && (state & COUNT_MASK) >= maxPerKey) {
+                suppressed.incrementAndGet(slot);
+                return SUPPRESSED;
+            }
+            long next = sameWindow ? state + 1 : window << 32 | 1;
+            if (states.compareAndSet(slot, state, next)) {
+                return suppressed.get(slot) == 0 ? 0 : suppressed.getAndSet(slot, 0);
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Builder for {@link EventSampler}.
+     */
+    public static final class Builder<E> {
+
+        private final ToIntFunction<E> keyHash;
+        private int slots = 4096;
+        private int maxPerKey = 100;
+        private Duration window = Duration.ofSeconds(1);
+        private Predicate<E> alwaysKeep = event -> false;
+
+        private Builder(ToIntFunction<E> keyHash) {
+            this.keyHash = keyHash;
+        }
+
+        /**
+         * Number of key slots, rounded up to a power of two.
+         */
+        public Builder<E> slots(int slots) {
+            this.slots = slots;
+            return this;
+        }
+
+        /**
+         * Events kept per key in each window.
+         */
+        public Builder<E> maxPerKey(int maxPerKey) {
+            this.maxPerKey = maxPerKey;
+            return this;
+        }
+
+        public Builder<E> window(Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Events that are never suppressed.
+         */
+        public Builder<E> alwaysKeep(Predicate<E> alwaysKeep) {
+            this.alwaysKeep = alwaysKeep;
+            return this;
+        }
+
+        public EventSampler<E> build() {
+            return new EventSampler<>(this);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.logbull.test.logging;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tracks whether the LogBull host is taking events, with a
+ * {@link CircuitBreaker} driven by HTTP probes.
+ *
+ * LogBullLogger sends on a thread of its own and swallows send failures, so
+ * the pipeline cannot see how its batches fare. A background thread
+ * therefore probes the project's ingest endpoint every probe interval with
+ * an empty batch, a POST of {@value #EMPTY_BATCH} to
+ * {@code /api/v1/logs/receiving/<projectId>} with the client's API key, so
+ * the probe takes the same route, authentication and handler as real sends
+ * rather than whatever answers on the host root. A response below 500
+ * within the probe timeout is a success, while a 5xx, a 429 Too Many
+ * Requests, a timeout or a refused or reset connection is a failure: a host
+ * shedding load is not taking events either. After a 429 with a
+ * {@code Retry-After}, the host is not probed again before that has passed,
+ * up to the maximum backoff. Enough failures in a row open
+ * the breaker, and {@link PipelineLogger} then spools or drops events instead
+ * of handing them to a client that would lose them. While open, the host is
+ * only probed again once the breaker's jittered, exponentially growing
+ * backoff has passed; that single half-open probe closes the breaker or
+ * opens it for longer.
+ *
+ * The breaker only decides where new events go. Retrying a send that
+ * failed is out of scope: batches LogBullLogger has already taken are
+ * sent, retried or lost by the client itself, which this app cannot
+ * reach into.
+ */
+public final class HostMonitor implements AutoCloseable {
+
+    private static final String EMPTY_BATCH = "{\"logs\":[]}";
+
+    private final URI probeUri;
+    private final String apiKey;
+    private final Duration probeTimeout;
+    private final long probeIntervalNanos;
+    private final long maxBackoffNanos;
+    private final CircuitBreaker breaker;
+    private final HttpClient client;
+    private final Thread prober;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile boolean available = true;
+    private volatile boolean running = true;
+
+    // Only touched by the probe thread
+    private long retryAfterNanos;
+
+    private HostMonitor(Builder builder) {
+        this.probeUri = URI.create(builder.host.replaceAll("/+$", "") + "/api/v1/logs/receiving/" + builder.projectId);
+        this.apiKey = builder.apiKey;
+        this.probeTimeout = builder.probeTimeout;
+        this.probeIntervalNanos = builder.probeInterval.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.breaker = CircuitBreaker.builder()
+                .failureThreshold(builder.failureThreshold)
+                .initialBackoff(builder.initialBackoff)
+                .maxBackoff(builder.maxBackoff)
+                .build();
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(probeTimeout)
+                .build();
+        this.prober = new Thread(this::run, "logbull-breaker-" + builder.name);
+        this.prober.setDaemon(true);
+        this.prober.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * True while the breaker is closed.
+     */
+    public boolean available() {
+        return available;
+    }
+
+    /**
+     * True if an event may be handed to the LogBull client now; otherwise
+     * counts it as rejected, for the caller to spool or drop.
+     */
+    public boolean admit() {
+        if (available) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public CircuitBreaker.State state() {
+        return breaker.state();
+    }
+
+    /**
+     * How many times the breaker has opened.
+     */
+    public long openedCount() {
+        return breaker.openedCount();
+    }
+
+    /**
+     * Events held back while the breaker was not closed.
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private void run() {
+        while (running) {
+            if (breaker.allowRequest()) {
+                if (probe()) {
+                    breaker.recordSuccess();
+                } else {
+                    breaker.recordFailure();
+                }
+                available = breaker.state() == CircuitBreaker.State.CLOSED;
+            }
+            long wait = breaker.state() == CircuitBreaker.State.OPEN ? breaker.nanosUntilTrial() : probeIntervalNanos;
+            wait = Math.max(wait, retryAfterNanos);
+            retryAfterNanos = 0;
+            LockSupport.parkNanos(Math.max(wait, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    private boolean probe() {
+        HttpRequest.Builder request = HttpRequest.newBuilder(probeUri)
+                .timeout(probeTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(EMPTY_BATCH));
+        if (apiKey != null && !apiKey.isEmpty()) {
+            request.header("X-API-Key", apiKey);
+        }
+        try {
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 429) {
+                retryAfterNanos = Math.min(retryAfterNanos(response), maxBackoffNanos);
+                return false;
+            }
+            return response.statusCode() < 500;
+        } catch (IOException e) {
+            // Refused, reset or timed out
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * The wait a {@code Retry-After} header asks for, in seconds or as an
+     * HTTP date; 0 when there is none or it cannot be read.
+     */
+    private static long retryAfterNanos(HttpResponse<?> response) {
+        String value = response.headers().firstValue("Retry-After").orElse("").strip();
+        if (value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            try {
+                Instant at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Math.max(0, Duration.between(Instant.now(), at).toNanos());
+            } catch (DateTimeParseException unreadable) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Stops probing. Safe to call more than once.
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(prober);
+        try {
+            prober.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        client.shutdownNow();
+    }
+
+    /**
+     * Builder for {@link HostMonitor}.
+     */
+    public static final class Builder {
+
+        private String name = "standalone";
+        private String host;
+        private String projectId;
+        private String apiKey;
+        private int failureThreshold = 3;
+        private Duration probeInterval = Duration.ofSeconds(1);
+        private Duration probeTimeout = Duration.ofMillis(500);
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+
+        private Builder() {
+        }
+
+        /**
+         * Name used for the probe thread.
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * LogBull host URL to probe, e.g. {@code http://localhost:4005}.
+         */
+        public Builder host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * Project whose ingest endpoint is probed.
+         */
+        public Builder projectId(String projectId) {
+            this.projectId = projectId;
+            return this;
+        }
+
+        /**
+         * API key sent with probes, as the client sends it; none when unset.
+         */
+        public Builder apiKey(String apiKey) {
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        /**
+         * Consecutive failed probes that open the breaker.
+         */
+        public Builder failureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Time between probes while the breaker is closed.
+         */
+        public Builder probeInterval(Duration probeInterval) {
+            this.probeInterval = probeInterval;
+            return this;
+        }
+
+        /**
+         * How long a probe may take before it counts as failed.
+         */
+        public Builder probeTimeout(Duration probeTimeout) {
+            this.probeTimeout = probeTimeout;
+            return this;
+        }
+
+        /**
+         * Backoff before the first half-open probe; doubled on every failed one.
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Upper bound for the backoff, and for a wait asked for by {@code Retry-After}.
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        public HostMonitor build() {
+            if (host == null || projectId == null) {
+                throw new IllegalStateException("host and projectId are required");
+            }
+            return new HostMonitor(this);
+        }
+    }
+}
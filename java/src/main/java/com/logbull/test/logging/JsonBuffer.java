@@ -0,0 +1,270 @@
+package com.logbull.test.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Growable UTF-8 byte buffer that JSON is written into directly, meant to
+ * be kept and reused, e.g. one per drain thread. Integers, booleans,
+ * strings and doubles with a few decimals are written without intermediate
+ * objects; other doubles go through {@link Double#toString(double)}.
+ */
+public final class JsonBuffer {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = { 'n', 'u', 'l', 'l' };
+    private static final byte[] TRUE = { 't', 'r', 'u', 'e' };
+    private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+    private static final byte[] LONG_MIN = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    // Doubles below this magnitude with no fractional part are written as integers plus ".0"
+    private static final double MAX_INTEGRAL_DOUBLE = 1e15;
+    // Up to this magnitude, with up to six decimals, the scaled value is an exact long
+    private static final double MAX_SHORT_DECIMAL = 1e7;
+    private static final double[] POWERS_OF_TEN = { 1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6 };
+
+    private byte[] bytes;
+    private int size;
+
+    public JsonBuffer() {
+        this(256);
+    }
+
+    public JsonBuffer(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * Empties the buffer, keeping its capacity.
+     */
+    public JsonBuffer reset() {
+        size = 0;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The backing array; only the first {@link #size()} bytes are valid.
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    public void writeByte(int b) {
+        ensure(1);
+        bytes[size++] = (byte) b;
+    }
+
+    /**
+     * Writes pre-encoded bytes, such as a quoted field name.
+     */
+    public void writeRaw(byte[] raw) {
+        ensure(raw.length);
+        System.arraycopy(raw, 0, bytes, size, raw.length);
+        size += raw.length;
+    }
+
+    public void writeNull() {
+        writeRaw(NULL);
+    }
+
+    public void writeBoolean(boolean value) {
+        writeRaw(value ? TRUE : FALSE);
+    }
+
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeRaw(LONG_MIN);
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            bytes[size++] = '-';
+            value = -value;
+        }
+        int digits = digits(value);
+        int end = size + digits;
+        for (int i = end - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size = end;
+    }
+
+    /**
+     * Writes a JSON number; NaN and infinities, which JSON cannot hold, are written as null.
+     */
+    public void writeDouble(double value) {
+        if (!Double.isFinite(value)) {
+            writeNull();
+        } else if (value == Math.rint(value) && Math.abs(value) < MAX_INTEGRAL_DOUBLE) {
+            if (value == 0 && Double.doubleToRawLongBits(value) != 0) {
+                writeByte('-');
+            }
+            writeLong((long) value);
+            writeByte('.');
+            writeByte('0');
+        } else if (!writeShortDecimal(value)) {
+            writeAscii(Double.toString(value));
+        }
+    }
+
+    /**
+     * Writes values such as prices and durations, which parse back from a few
+     * decimals, without going through a String: the fewest decimals whose
+     * quotient is exactly {@code value} are what {@link Double#toString} prints.
+     */
+    private boolean writeShortDecimal(double value) {
+        double magnitude = Math.abs(value);
+        if (magnitude >= MAX_SHORT_DECIMAL || magnitude < 1e-3) {
+            return false;
+        }
+        for (int decimals = 1; decimals < POWERS_OF_TEN.length; decimals++) {
+            double scaled = Math.rint(magnitude * POWERS_OF_TEN[decimals]);
+            if (scaled / POWERS_OF_TEN[decimals] == magnitude) {
+                long unscaled = (long) scaled;
+                long divisor = (long) POWERS_OF_TEN[decimals];
+                if (value < 0) {
+                    writeByte('-');
+                }
+                writeLong(unscaled / divisor);
+                writeByte('.');
+                long fraction = unscaled % divisor;
+                for (long digit = divisor / 10; digit > fraction && digit > 1; digit /= 10) {
+                    writeByte('0');
+                }
+                writeLong(fraction);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the entries as object members, without the enclosing braces.
+     * Integral numbers, floating-point numbers and booleans keep their JSON
+     * type; anything else is written as its {@code toString()}.
+     */
+    public void writeMembers(Map<String, ?> fields) {
+        boolean first = true;
+        for (Map.Entry<String, ?> field : fields.entrySet()) {
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            writeString(field.getKey());
+            writeByte(':');
+            Object value = field.getValue();
+            if (value == null) {
+                writeNull();
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte) {
+                writeLong(((Number) value).longValue());
+            } else if (value instanceof Double || value instanceof Float) {
+                writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean bool) {
+                writeBoolean(bool);
+            } else {
+                writeString(value.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes a quoted, escaped JSON string, or null.
+     */
+    public void writeString(CharSequence value) {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        int length = value.length();
+        ensure(length + 2);
+        bytes[size++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                // Capacity for the plain ASCII run was reserved up front
+                if (size == bytes.length) {
+                    ensure(length - i + 1);
+                }
+                bytes[size++] = (byte) c;
+            } else if (c < 0x80) {
+                writeEscaped(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                writeCodePoint(Character.toCodePoint(c, value.charAt(++i)));
+            } else {
+                writeCodePoint(Character.isSurrogate(c) ? '\uFFFD' : c);
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeAscii(String value) {
+        int length = value.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            bytes[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeEscaped(char c) {
+        ensure(6);
+        bytes[size++] = '\\';
+        switch (c) {
+            case '"' -> bytes[size++] = '"';
+            case '\\' -> bytes[size++] = '\\';
+            case '\n' -> bytes[size++] = 'n';
+            case '\r' -> bytes[size++] = 'r';
+            case '\t' -> bytes[size++] = 't';
+            default -> {
+                bytes[size++] = 'u';
+                bytes[size++] = '0';
+                bytes[size++] = '0';
+                bytes[size++] = HEX[c >> 4];
+                bytes[size++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void writeCodePoint(int codePoint) {
+        ensure(4);
+        if (codePoint < 0x800) {
+            bytes[size++] = (byte) (0xC0 | codePoint >> 6);
+        } else if (codePoint < 0x10000) {
+            bytes[size++] = (byte) (0xE0 | codePoint >> 12);
+            bytes[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+        } else {
+            bytes[size++] = (byte) (0xF0 | codePoint >> 18);
+            bytes[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            bytes[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+        }
+        bytes[size++] = (byte) (0x80 | codePoint & 0x3F);
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Builds the LogBullLogger client, with its HTTP client and sender thread,
+ * on the first event handed on rather than at startup.
+ *
+ * The first event starts a thread that builds the client; until it is
+ * built, events are held in a bounded buffer and the logging threads carry
+ * on. Once it is built, the buffer is sent in order, before any later
+ * event. Events are captured without a client and sent through the root
+ * one with their context merged into the fields, as on the priority lane.
+ * If building the client throws, the failure is counted, the buffer is
+ * kept and the next event tries again.
+ *
+ * Closing waits a while for a build in progress. The client is then left
+ * to whoever owns it, except one that is only built after the wait: that
+ * one is handed the buffer and then to the release action, since nothing
+ * else will let it go.
+ */
+final class LazyTransport {
+
+    private final Supplier<LogBullLogger> factory;
+    private final Consumer<LogBullLogger> release;
+    private final String name;
+    private final int maxPending;
+    private final Object lock = new Object();
+    private final Queue<LogEvent> pending = new ArrayDeque<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder buildFailures = new LongAdder();
+
+    private volatile LogBullLogger root;
+    private Thread starting;
+    private boolean closed;
+    private boolean abandoned;
+
+    LazyTransport(Supplier<LogBullLogger> factory, Consumer<LogBullLogger> release, String name, int maxPending) {
+        this.factory = factory;
+        this.release = release;
+        this.name = name;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Sends the event through the root client, or buffers it while the
+     * client is being built.
+     */
+    void send(LogEvent event) {
+        LogBullLogger client = root;
+        if (client == null) {
+            synchronized (lock) {
+                client = root;
+                if (client == null) {
+                    if (pending.size() < maxPending) {
+                        pending.add(event);
+                    } else {
+                        dropped.increment();
+                    }
+                    if (starting == null && !closed) {
+                        starting = Thread.ofPlatform().daemon().name("logbull-transport-" + name).start(this::start);
+                    }
+                    return;
+                }
+            }
+        }
+        event.retarget(client).deliver();
+    }
+
+    private void start() {
+        LogBullLogger client;
+        try {
+            client = factory.get();
+        } catch (RuntimeException e) {
+            buildFailures.increment();
+            synchronized (lock) {
+                starting = null;
+            }
+            return;
+        }
+        boolean late;
+        synchronized (lock) {
+            for (LogEvent event = pending.poll(); event != null; event = pending.poll()) {
+                event.retarget(client).deliver();
+            }
+            root = client;
+            starting = null;
+            late = abandoned;
+        }
+        if (late) {
+            release.accept(client);
+        }
+    }
+
+    /**
+     * Stops starting builds and waits up to {@code timeout} for one in
+     * progress. Events still buffered with no build left to send them are
+     * counted as dropped.
+     */
+    void close(Duration timeout) {
+        Thread building;
+        synchronized (lock) {
+            closed = true;
+            building = starting;
+        }
+        if (building != null) {
+            try {
+                building.join(timeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (lock) {
+            if (starting != null) {
+                abandoned = true;
+            } else if (root == null) {
+                dropped.add(pending.size());
+                pending.clear();
+            }
+        }
+    }
+
+    boolean started() {
+        return root != null;
+    }
+
+    /**
+     * Events dropped because the buffer was full while the client was being
+     * built, or because it was never built before closing.
+     */
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Times building the client threw.
+     */
+    long buildFailureCount() {
+        return buildFailures.sum();
+    }
+}
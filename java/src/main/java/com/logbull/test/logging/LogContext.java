@@ -0,0 +1,88 @@
+package com.logbull.test.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The chain of {@code withContext} maps behind a {@link PipelineLogger}.
+ *
+ * LogBullLogger keeps its context to itself, so the pipeline records the
+ * chain as well for the cases where an event has to outlive the logger,
+ * such as the on-disk spool. Linking instead of merging keeps
+ * {@code withContext} cheap; the maps are expected not to change once passed in.
+ * The merged chain is serialized to JSON the first time it is asked for and
+ * kept, so a context shared by many events, such as one from the context
+ * cache, is written once rather than per event.
+ */
+public final class LogContext {
+
+    private final LogContext parent;
+    private final Map<String, Object> fields;
+    private volatile byte[] json;
+
+    /**
+     * @param parent outer context, or null
+     * @param fields fields added at this level
+     */
+    public LogContext(LogContext parent, Map<String, Object> fields) {
+        this.parent = parent;
+        this.fields = fields;
+    }
+
+    public LogContext parent() {
+        return parent;
+    }
+
+    public Map<String, Object> fields() {
+        return fields;
+    }
+
+    /**
+     * The merged chain as JSON object members, without the braces; empty if
+     * the chain has no fields. Racing first calls may each serialize it.
+     */
+    public byte[] json() {
+        byte[] cached = json;
+        if (cached == null) {
+            JsonBuffer out = new JsonBuffer(256);
+            out.writeMembers(merge(this, null));
+            cached = out.toByteArray();
+            json = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Merges the chain, outermost first, with the given event fields on top.
+     */
+    public static Map<String, Object> merge(LogContext context, Map<String, Object> fields) {
+        Map<String, Object> merged = new LinkedHashMap<>();
+        if (context != null) {
+            context.putInto(merged);
+        }
+        if (fields != null) {
+            merged.putAll(fields);
+        }
+        return merged;
+    }
+
+    /**
+     * Looks a field up from the innermost context outwards, without merging.
+     */
+    public static Object find(LogContext context, String name) {
+        for (LogContext current = context; current != null; current = current.parent) {
+            Object value = current.fields.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private void putInto(Map<String, Object> merged) {
+        if (parent != null) {
+            parent.putInto(merged);
+        }
+        merged.putAll(fields);
+    }
+}
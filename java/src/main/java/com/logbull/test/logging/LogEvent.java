@@ -0,0 +1,116 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A log call captured on the caller's thread, to be handed to LogBullLogger later.
+ *
+ * @param target    logger carrying the caller's context
+ * @param level     log level
+ * @param message   log message
+ * @param fields    event fields, or null for a message-only call
+ * @param context   context chain behind {@code target}, or null for the root logger
+ * @param timestamp epoch millis of the log call, kept when the event is
+ *                  delivered late, e.g. replayed from the spool
+ */
+public record LogEvent(
+        LogBullLogger target,
+        LogLevel level,
+        String message,
+        Map<String, Object> fields,
+        LogContext context,
+        long timestamp) {
+
+    /**
+     * True for levels that must survive overflow and sampling.
+     */
+    public boolean isHighSeverity() {
+        return level == LogLevel.ERROR || level == LogLevel.CRITICAL;
+    }
+
+    /**
+     * Context and event fields merged, as the LogBull server would see them.
+     */
+    public Map<String, Object> allFields() {
+        return LogContext.merge(context, fields);
+    }
+
+    /**
+     * A field of the event or, failing that, of its context.
+     */
+    public Object field(String name) {
+        Object value = fields == null ? null : fields.get(name);
+        return value != null ? value : LogContext.find(context, name);
+    }
+
+    /**
+     * Copy of this event with one more field.
+     */
+    public LogEvent withField(String name, Object value) {
+        return withFields(Map.of(name, value));
+    }
+
+    /**
+     * Copy of this event with the given fields added.
+     */
+    public LogEvent withFields(Map<String, Object> added) {
+        Map<String, Object> extended = fields == null ? new LinkedHashMap<>() : new LinkedHashMap<>(fields);
+        extended.putAll(added);
+        return new LogEvent(target, level, message, extended, context, timestamp);
+    }
+
+    /**
+     * Copy of this event for another root client, with its context merged
+     * into the fields since that client's loggers do not carry it.
+     */
+    public LogEvent retarget(LogBullLogger root) {
+        return new LogEvent(root, level, message, context == null ? fields : allFields(), null, timestamp);
+    }
+
+    /**
+     * Passes the event to the matching LogBullLogger method.
+     */
+    public void deliver() {
+        switch (level) {
+            case DEBUG -> {
+                if (fields == null) {
+                    target.debug(message);
+                } else {
+                    target.debug(message, fields);
+                }
+            }
+            case INFO -> {
+                if (fields == null) {
+                    target.info(message);
+                } else {
+                    target.info(message, fields);
+                }
+            }
+            case WARNING -> {
+                if (fields == null) {
+                    target.warning(message);
+                } else {
+                    target.warning(message, fields);
+                }
+            }
+            case ERROR -> {
+                if (fields == null) {
+                    target.error(message);
+                } else {
+                    target.error(message, fields);
+                }
+            }
+            default -> {
+                if (fields == null) {
+                    target.critical(message);
+                } else {
+                    target.critical(message, fields);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.logbull.test.logging;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bounded, segmented on-disk FIFO of byte records backed by memory-mapped files.
+ *
+ * Records are appended to the newest segment and read back from the oldest.
+ * Each record is an int length followed by its bytes; the length is written
+ * after the bytes, so a record torn by a crash reads as the end of the segment.
+ * Reading a record negates its length in place, so a spool reopened after a
+ * restart skips what was already replayed. Once the spool would grow past
+ * {@code maxBytes}, whole segments are evicted oldest first.
+ *
+ * All methods are synchronized; the spool is only written when the normal
+ * path is failing, so contention is not a concern.
+ */
+public final class LogSpool implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "spool-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final int segmentBytes;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private long nextSegmentId;
+    private long pending;
+    private long written;
+    private long read;
+    private long evicted;
+
+    private LogSpool(Path directory, long maxBytes, int segmentBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the spool in {@code directory}, picking up segments left by a previous run.
+     *
+     * @param maxBytes     upper bound for all segments together
+     * @param segmentBytes size of one segment file; also the largest record accepted
+     */
+    public static LogSpool open(Path directory, long maxBytes, int segmentBytes) {
+        if (segmentBytes <= LENGTH_BYTES || maxBytes < segmentBytes) {
+            throw new IllegalArgumentException("maxBytes must hold at least one segment of more than 4 bytes");
+        }
+        LogSpool spool = new LogSpool(directory, maxBytes, segmentBytes);
+        try {
+            Files.createDirectories(directory);
+            spool.recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open log spool in " + directory, e);
+        }
+        return spool;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(LogSpool::isSegment).sorted().toList();
+        }
+        for (Path file : files) {
+            Segment segment = Segment.map(file, segmentIdOf(file), segmentBytes);
+            segment.scan();
+            nextSegmentId = Math.max(nextSegmentId, segment.id + 1);
+            if (segment.pending == 0) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            pending += segment.pending;
+            segments.addLast(segment);
+        }
+    }
+
+    /**
+     * Appends a record, evicting the oldest segments if the spool is full.
+     *
+     * @return false if the record is empty or larger than a segment
+     */
+    public synchronized boolean append(byte[] record) {
+        int size = LENGTH_BYTES + record.length;
+        if (record.length == 0 || size > segmentBytes) {
+            return false;
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writePosition + size > segmentBytes) {
+            tail = newSegment();
+        }
+        tail.write(record);
+        pending++;
+        written++;
+        return true;
+    }
+
+    /**
+     * Removes and returns the oldest record, or null if the spool is empty.
+     */
+    public synchronized byte[] poll() {
+        Segment head;
+        while ((head = segments.peekFirst()) != null) {
+            byte[] record = head.read();
+            if (record != null) {
+                pending--;
+                read++;
+                return record;
+            }
+            if (head == segments.peekLast()) {
+                return null;
+            }
+            segments.removeFirst();
+            head.delete();
+        }
+        return null;
+    }
+
+    private Segment newSegment() {
+        while (!segments.isEmpty() && (long) (segments.size() + 1) * segmentBytes > maxBytes) {
+            Segment oldest = segments.removeFirst();
+            pending -= oldest.pending;
+            evicted += oldest.pending;
+            oldest.delete();
+        }
+        Path file = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, nextSegmentId, SEGMENT_SUFFIX));
+        try {
+            Segment segment = Segment.map(file, nextSegmentId++, segmentBytes);
+            segments.addLast(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create spool segment " + file, e);
+        }
+    }
+
+    /**
+     * Records appended but not yet read back.
+     */
+    public synchronized long pendingCount() {
+        return pending;
+    }
+
+    public synchronized long writtenCount() {
+        return written;
+    }
+
+    public synchronized long readCount() {
+        return read;
+    }
+
+    /**
+     * Records lost because their segment was evicted before being read.
+     */
+    public synchronized long evictedCount() {
+        return evicted;
+    }
+
+    /**
+     * Disk space taken by the current segments.
+     */
+    public synchronized long sizeBytes() {
+        return (long) segments.size() * segmentBytes;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Flushes every segment to disk. Unread records stay for the next run.
+     */
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+        segments.clear();
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentIdOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * One mapped segment file with its read and write positions.
+     */
+    private static final class Segment {
+
+        private final Path file;
+        private final long id;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private int readPosition;
+        private long pending;
+
+        private Segment(Path file, long id, MappedByteBuffer buffer) {
+            this.file = file;
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        static Segment map(Path file, long id, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Mapping past the end grows the file; the mapping outlives the channel
+                return new Segment(file, id, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        /**
+         * Finds the write position and the first unread record of a recovered segment.
+         */
+        void scan() {
+            int position = 0;
+            readPosition = -1;
+            while (position + LENGTH_BYTES <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                int recordEnd = position + LENGTH_BYTES + Math.abs(length);
+                if (length == 0 || recordEnd > buffer.capacity()) {
+                    break;
+                }
+                if (length > 0) {
+                    pending++;
+                    if (readPosition < 0) {
+                        readPosition = position;
+                    }
+                }
+                position = recordEnd;
+            }
+            writePosition = position;
+            if (readPosition < 0) {
+                readPosition = position;
+            }
+        }
+
+        void write(byte[] record) {
+            buffer.put(writePosition + LENGTH_BYTES, record);
+            buffer.putInt(writePosition, record.length);
+            writePosition += LENGTH_BYTES + record.length;
+            pending++;
+        }
+
+        byte[] read() {
+            while (readPosition < writePosition) {
+                int length = buffer.getInt(readPosition);
+                if (length < 0) {
+                    readPosition += LENGTH_BYTES - length;
+                    continue;
+                }
+                byte[] record = new byte[length];
+                buffer.get(readPosition + LENGTH_BYTES, record);
+                buffer.putInt(readPosition, -length);
+                readPosition += LENGTH_BYTES + length;
+                pending--;
+                return record;
+            }
+            return null;
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Already consumed; a stale segment only costs disk space until the next open
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.logbull.test.logging;
+
+/**
+ * Adds up, per thread, the time callers spend inside logging calls while a
+ * request is being measured.
+ *
+ * A request filter {@link #open() opens} a measurement on the thread serving
+ * the request and {@link #close() closes} it when the request completes.
+ * Logging entry points, i.e. {@link PipelineLogger}'s log and context
+ * methods and the pipeline's Logback appenders, wrap their work in
+ * {@link #begin()} and {@link #end(long)}. Only the outermost call is timed,
+ * so a starter event bridged into the standalone logger is counted once.
+ * Outside a measurement, begin and end cost a thread-local read.
+ *
+ * Logging done on other threads, e.g. a bulk request's worker pool or the
+ * async drain thread, is not counted towards the request.
+ */
+public final class LoggingTime {
+
+    private static final long NOT_MEASURED = Long.MIN_VALUE;
+    private static final long NESTED = Long.MIN_VALUE + 1;
+
+    private static final ThreadLocal<Measurement> CURRENT = ThreadLocal.withInitial(Measurement::new);
+
+    private LoggingTime() {
+    }
+
+    /**
+     * What one thread has measured so far.
+     */
+    private static final class Measurement {
+        boolean open;
+        int depth;
+        long nanos;
+        int calls;
+    }
+
+    /**
+     * Starts measuring logging calls on this thread, discarding any earlier measurement.
+     */
+    public static void open() {
+        Measurement measurement = CURRENT.get();
+        measurement.open = true;
+        measurement.depth = 0;
+        measurement.nanos = 0;
+        measurement.calls = 0;
+    }
+
+    /**
+     * Stops measuring on this thread and returns the nanoseconds spent in logging calls.
+     */
+    public static long close() {
+        Measurement measurement = CURRENT.get();
+        measurement.open = false;
+        return measurement.nanos;
+    }
+
+    /**
+     * True between {@link #open()} and {@link #close()} on this thread.
+     */
+    public static boolean measuring() {
+        return CURRENT.get().open;
+    }
+
+    /**
+     * Nanoseconds spent in logging calls on this thread since {@link #open()}.
+     */
+    public static long nanos() {
+        return CURRENT.get().nanos;
+    }
+
+    /**
+     * Logging calls timed on this thread since {@link #open()}.
+     */
+    public static int calls() {
+        return CURRENT.get().calls;
+    }
+
+    /**
+     * Marks the start of a logging call; pass the result to {@link #end(long)}.
+     */
+    static long begin() {
+        Measurement measurement = CURRENT.get();
+        if (!measurement.open) {
+            return NOT_MEASURED;
+        }
+        return measurement.depth++ == 0 ? System.nanoTime() : NESTED;
+    }
+
+    static void end(long start) {
+        if (start == NOT_MEASURED) {
+            return;
+        }
+        Measurement measurement = CURRENT.get();
+        measurement.depth--;
+        if (start != NESTED) {
+            measurement.nanos += System.nanoTime() - start;
+            measurement.calls++;
+        }
+    }
+}
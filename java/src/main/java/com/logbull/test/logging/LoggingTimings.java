@@ -0,0 +1,140 @@
+package com.logbull.test.logging;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint HdrHistograms of request time and of the part of it spent
+ * in logging calls, as measured by {@link LoggingTime}.
+ *
+ * Request threads record into one pair of multi-writer recorders per
+ * endpoint, so recording takes no lock, and the memory taken does not grow
+ * with the number of threads; with a virtual thread per request, recorders
+ * of their own would pile up one pair per request. A {@link #snapshot()}
+ * collects what was recorded since the last one into the endpoint's running
+ * histograms. Values are kept in microseconds with two significant digits,
+ * up to a minute; an endpoint's recorders take some tens of kilobytes.
+ */
+public final class LoggingTimings {
+
+    /**
+     * Endpoint under which requests beyond {@code maxEndpoints} distinct ones are recorded.
+     */
+    public static final String OTHER_ENDPOINT = "other";
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final int maxEndpoints;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public LoggingTimings(int maxEndpoints) {
+        this.maxEndpoints = maxEndpoints;
+    }
+
+    /**
+     * Records one request to the endpoint, e.g. {@code POST /api/logs/standalone}.
+     */
+    public void record(String endpoint, long requestNanos, long loggingNanos, int loggingCalls) {
+        endpoint(endpoint).record(requestNanos, loggingNanos, loggingCalls);
+    }
+
+    private Endpoint endpoint(String name) {
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        if (endpoints.size() >= maxEndpoints) {
+            name = OTHER_ENDPOINT;
+        }
+        return endpoints.computeIfAbsent(name, key -> new Endpoint());
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Percentiles per endpoint since startup, the endpoint spending the most
+     * time in logging calls first.
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        List<Map.Entry<String, Endpoint>> sorted = new ArrayList<>(endpoints.entrySet());
+        sorted.sort(Comparator.comparingLong((Map.Entry<String, Endpoint> entry) -> entry.getValue().loggingNanos.sum())
+                .reversed());
+        Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, Endpoint> entry : sorted) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Number of recorders held, two per endpoint whatever the number of
+     * threads that have recorded.
+     */
+    int recorderCount() {
+        return endpoints.size() * 2;
+    }
+
+    /**
+     * Recorders, running totals and histograms of one endpoint.
+     */
+    private static final class Endpoint {
+
+        private final Recorder requestRecorder = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        private final Recorder loggingRecorder = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram request = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram logging = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder requestNanos = new LongAdder();
+        private final LongAdder loggingNanos = new LongAdder();
+        private final LongAdder loggingCalls = new LongAdder();
+        private Histogram requestInterval;
+        private Histogram loggingInterval;
+
+        void record(long requestNanos, long loggingNanos, int loggingCalls) {
+            requestRecorder.recordValue(micros(requestNanos));
+            loggingRecorder.recordValue(micros(loggingNanos));
+            this.requests.increment();
+            this.requestNanos.add(requestNanos);
+            this.loggingNanos.add(loggingNanos);
+            this.loggingCalls.add(loggingCalls);
+        }
+
+        synchronized Map<String, Object> snapshot() {
+            requestInterval = requestRecorder.getIntervalHistogram(requestInterval);
+            request.add(requestInterval);
+            loggingInterval = loggingRecorder.getIntervalHistogram(loggingInterval);
+            logging.add(loggingInterval);
+            long count = requests.sum();
+            long totalRequestNanos = requestNanos.sum();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("requests", count);
+            result.put("logging_share", totalRequestNanos == 0 ? 0.0
+                    : (double) loggingNanos.sum() / totalRequestNanos);
+            result.put("logging_calls_per_request", count == 0 ? 0.0 : (double) loggingCalls.sum() / count);
+            result.put("logging_us", percentiles(logging));
+            result.put("request_us", percentiles(request));
+            return result;
+        }
+
+        private static Map<String, Object> percentiles(Histogram histogram) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("p50", histogram.getValueAtPercentile(50));
+            result.put("p99", histogram.getValueAtPercentile(99));
+            result.put("p999", histogram.getValueAtPercentile(99.9));
+            result.put("max", histogram.getMaxValue());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.logbull.test.logging;
+
+/**
+ * What an {@link AsyncDispatcher} does with an event when its ring buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /** Wait for free space up to the configured block timeout, then drop the event. */
+    BLOCK,
+
+    /** Drop the event being logged. */
+    DROP_NEWEST,
+
+    /** Evict the oldest buffered event to make room. */
+    DROP_OLDEST,
+
+    /** Drop events below ERROR; ERROR and CRITICAL evict the oldest buffered event instead. */
+    DROP_BY_LEVEL
+}
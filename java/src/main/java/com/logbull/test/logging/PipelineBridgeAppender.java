@@ -0,0 +1,108 @@
+package com.logbull.test.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import com.logbull.core.LogLevel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Takes the Spring Boot Starter's place on the SLF4J path and forwards its
+ * events into a {@link PipelineLogger}, so the starter shares the standalone
+ * logger's ring buffer, drain thread and LogBullLogger client instead of
+ * running its own.
+ *
+ * Events keep what the starter sends: the formatted message, the MDC as
+ * fields and the SLF4J logger name as {@value #LOGGER_FIELD}, which is added
+ * through a shared context logger per name so the MDC map is passed on
+ * without a copy. A throwable adds {@code error_type} and {@code error_message}.
+ * Events from LogBull's own loggers are skipped, as the starter does.
+ *
+ * Like {@link PipelineAppender}, it appends without Logback's appender lock:
+ * the per-name loggers are in a concurrent map and the pipeline takes
+ * events from many threads, so logging threads do not queue on each other.
+ */
+public final class PipelineBridgeAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public static final String LOGGER_FIELD = "logger";
+
+    private final PipelineLogger pipelineLogger;
+    private final LogLevel threshold;
+    private final Map<String, PipelineLogger> loggers = new ConcurrentHashMap<>();
+
+    /**
+     * @param threshold lowest level forwarded, the starter's logbull.log-level
+     */
+    public PipelineBridgeAppender(PipelineLogger pipelineLogger, LogLevel threshold) {
+        this.pipelineLogger = pipelineLogger;
+        this.threshold = threshold;
+        setName("LOGBULL_BRIDGE");
+    }
+
+    /**
+     * Timed as a whole, like {@link PipelineAppender#doAppend}; the
+     * {@link PipelineLogger} calls it makes are not counted a second time.
+     */
+    @Override
+    public void doAppend(ILoggingEvent event) {
+        long start = LoggingTime.begin();
+        try {
+            super.doAppend(event);
+        } finally {
+            LoggingTime.end(start);
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String loggerName = event.getLoggerName();
+        if (loggerName.startsWith("com.logbull.") && !loggerName.startsWith("com.logbull.test.")) {
+            return;
+        }
+        LogLevel level = levelOf(event.getLevel());
+        if (level.ordinal() < threshold.ordinal()) {
+            return;
+        }
+        PipelineLogger logger = loggers.computeIfAbsent(loggerName,
+                name -> pipelineLogger.withSharedContext(Map.of(LOGGER_FIELD, name)));
+        if (!logger.isEnabled(level)) {
+            return;
+        }
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        IThrowableProxy throwable = event.getThrowableProxy();
+        Map<String, Object> fields;
+        if (throwable != null) {
+            fields = new HashMap<>(mdc);
+            fields.put("error_type", simpleName(throwable.getClassName()));
+            fields.put("error_message", throwable.getMessage());
+        } else {
+            fields = mdc.isEmpty() ? null : Collections.unmodifiableMap(mdc);
+        }
+        String message = event.getFormattedMessage();
+        switch (level) {
+            case DEBUG -> logger.debug(message, fields);
+            case INFO -> logger.info(message, fields);
+            case WARNING -> logger.warning(message, fields);
+            default -> logger.error(message, fields);
+        }
+    }
+
+    static LogLevel levelOf(Level level) {
+        return switch (level.toInt()) {
+            case Level.ERROR_INT -> LogLevel.ERROR;
+            case Level.WARN_INT -> LogLevel.WARNING;
+            case Level.INFO_INT -> LogLevel.INFO;
+            default -> LogLevel.DEBUG;
+        };
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,794 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Front end for a LogBullLogger that routes events through this app's
+ * logging pipeline.
+ *
+ * With an async buffer configured, log calls only capture the event into a
+ * bounded ring buffer and return; a drain thread hands events to LogBullLogger.
+ * Without one, calls go straight to LogBullLogger on the caller's thread.
+ * Context loggers created with {@link #withContext(Map)} share the pipeline.
+ *
+ * Calls below the logger's level return before allocating anything. Fields
+ * that are costly to build can be passed as a {@link Supplier}, which is only
+ * called when the level is enabled; {@link #isDebugEnabled()} and friends
+ * guard whole blocks. Fields can also be passed as a record, e.g.
+ * {@code PaymentEvent(String paymentMethod, double amount)}; it travels
+ * through the pipeline unboxed as {@link RecordFields} and is written by a
+ * {@link RecordSerializer} cached per record type.
+ * With a meter registry configured, the pipeline is instrumented by
+ * {@link PipelineMeters}. With a {@link Spooler} configured, events are
+ * spooled to disk while the LogBull host is unreachable or the buffer overflows.
+ * With a {@link HostMonitor} configured, its circuit breaker decides when the
+ * host is unreachable; events it holds back are spooled, or dropped when
+ * there is no spooler. With {@link RecentEvents} configured, every event
+ * handed on is also kept there, whether the host takes it or not. With a
+ * lazy logger configured, the LogBullLogger client is only built once the
+ * first event is handed on, and events are buffered until it is ready.
+ * With sampling configured, an {@link EventSampler} rate-limits events per
+ * key and kept events carry {@value #SUPPRESSED_COUNT_FIELD}. With
+ * aggregation configured, an {@link ErrorAggregator} collapses repeated
+ * errors into one summary event per window. Log calls made while a request
+ * is measured by {@link LoggingTime} add to its logging time.
+ */
+public final class PipelineLogger implements AutoCloseable {
+
+    /**
+     * Field added to a kept event with the number of events suppressed for its key before it.
+     */
+    public static final String SUPPRESSED_COUNT_FIELD = "suppressed_count";
+
+    private final LogBullLogger delegate;
+    private final LogContext context;
+    private final Pipeline pipeline;
+
+    private PipelineLogger(LogBullLogger delegate, LogContext context, Pipeline pipeline) {
+        this.delegate = delegate;
+        this.context = context;
+        this.pipeline = pipeline;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a logger that adds the given context to every event.
+     */
+    public PipelineLogger withContext(Map<String, Object> context) {
+        long start = LoggingTime.begin();
+        try {
+            return new PipelineLogger(delegate == null ? null : delegate.withContext(context),
+                    new LogContext(this.context, context), pipeline);
+        } finally {
+            LoggingTime.end(start);
+        }
+    }
+
+    /**
+     * Like {@link #withContext(Map)}, for contexts that repeat across calls
+     * (e.g. {@code service=order_processing}); the underlying context logger
+     * and the context link, with its serialized JSON, are taken from the
+     * bounded context cache.
+     */
+    public PipelineLogger withSharedContext(Map<String, Object> context) {
+        long start = LoggingTime.begin();
+        try {
+            return new PipelineLogger(delegate == null ? null : pipeline.contexts.withContext(delegate, context),
+                    pipeline.contexts.context(this.context, context), pipeline);
+        } finally {
+            LoggingTime.end(start);
+        }
+    }
+
+    /**
+     * True if events at the given level are logged.
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= pipeline.level.ordinal();
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public boolean isInfoEnabled() {
+        return isEnabled(LogLevel.INFO);
+    }
+
+    public boolean isWarningEnabled() {
+        return isEnabled(LogLevel.WARNING);
+    }
+
+    public boolean isErrorEnabled() {
+        return isEnabled(LogLevel.ERROR);
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message, null);
+    }
+
+    public void debug(String message, Map<String, Object> fields) {
+        log(LogLevel.DEBUG, message, fields);
+    }
+
+    public void debug(String message, Supplier<Map<String, Object>> fields) {
+        logLazily(LogLevel.DEBUG, message, fields);
+    }
+
+    public void debug(String message, Record event) {
+        logTyped(LogLevel.DEBUG, message, event);
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message, null);
+    }
+
+    public void info(String message, Map<String, Object> fields) {
+        log(LogLevel.INFO, message, fields);
+    }
+
+    public void info(String message, Supplier<Map<String, Object>> fields) {
+        logLazily(LogLevel.INFO, message, fields);
+    }
+
+    public void info(String message, Record event) {
+        logTyped(LogLevel.INFO, message, event);
+    }
+
+    public void warning(String message) {
+        log(LogLevel.WARNING, message, null);
+    }
+
+    public void warning(String message, Map<String, Object> fields) {
+        log(LogLevel.WARNING, message, fields);
+    }
+
+    public void warning(String message, Supplier<Map<String, Object>> fields) {
+        logLazily(LogLevel.WARNING, message, fields);
+    }
+
+    public void warning(String message, Record event) {
+        logTyped(LogLevel.WARNING, message, event);
+    }
+
+    public void error(String message) {
+        log(LogLevel.ERROR, message, null);
+    }
+
+    public void error(String message, Map<String, Object> fields) {
+        log(LogLevel.ERROR, message, fields);
+    }
+
+    public void error(String message, Supplier<Map<String, Object>> fields) {
+        logLazily(LogLevel.ERROR, message, fields);
+    }
+
+    public void error(String message, Record event) {
+        logTyped(LogLevel.ERROR, message, event);
+    }
+
+    public void critical(String message) {
+        log(LogLevel.CRITICAL, message, null);
+    }
+
+    public void critical(String message, Map<String, Object> fields) {
+        log(LogLevel.CRITICAL, message, fields);
+    }
+
+    public void critical(String message, Supplier<Map<String, Object>> fields) {
+        logLazily(LogLevel.CRITICAL, message, fields);
+    }
+
+    public void critical(String message, Record event) {
+        logTyped(LogLevel.CRITICAL, message, event);
+    }
+
+    private void logLazily(LogLevel level, String message, Supplier<Map<String, Object>> fields) {
+        if (isEnabled(level)) {
+            long start = LoggingTime.begin();
+            try {
+                log(level, message, fields.get());
+            } finally {
+                LoggingTime.end(start);
+            }
+        }
+    }
+
+    private void logTyped(LogLevel level, String message, Record event) {
+        if (isEnabled(level)) {
+            long start = LoggingTime.begin();
+            try {
+                log(level, message, RecordFields.of(event));
+            } finally {
+                LoggingTime.end(start);
+            }
+        }
+    }
+
+    /**
+     * Logs at the given level and, when the async buffer is full, waits for
+     * space instead of applying the overflow policy, so a caller that can
+     * slow down (e.g. one forwarding a streamed upload) is throttled by
+     * delivery rather than losing events.
+     */
+    public void logBlocking(LogLevel level, String message, Map<String, Object> fields)
+            throws InterruptedException {
+        long start = LoggingTime.begin();
+        try {
+            LogEvent event = prepare(level, message, fields);
+            if (event == null) {
+                return;
+            }
+            if (pipeline.dispatcher != null && pipeline.batch == null) {
+                pipeline.dispatcher.put(event);
+            } else {
+                pipeline.emit(event);
+            }
+        } finally {
+            LoggingTime.end(start);
+        }
+    }
+
+    private void log(LogLevel level, String message, Map<String, Object> fields) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        long start = LoggingTime.begin();
+        try {
+            LogEvent event = prepare(level, message, fields);
+            if (event != null) {
+                pipeline.emit(event);
+            }
+        } finally {
+            LoggingTime.end(start);
+        }
+    }
+
+    /**
+     * Runs level gating, sampling and aggregation; returns the event to
+     * emit, or null if there is nothing to emit now.
+     */
+    private LogEvent prepare(LogLevel level, String message, Map<String, Object> fields) {
+        if (!isEnabled(level)) {
+            return null;
+        }
+        LogEvent event = new LogEvent(delegate, level, message, fields, context, System.currentTimeMillis());
+        if (pipeline.sampler != null) {
+            long suppressed = pipeline.sampler.sample(event);
+            if (suppressed == EventSampler.SUPPRESSED) {
+                pipeline.listener.suppressed(event);
+                return null;
+            }
+            if (suppressed > 0) {
+                event = event.withField(SUPPRESSED_COUNT_FIELD, suppressed);
+            }
+        }
+        if (pipeline.aggregator != null && !pipeline.aggregator.offer(event)) {
+            return null;
+        }
+        return event;
+    }
+
+
+    /**
+     * Starts a batch: events logged through {@link Batch#logger()} and its
+     * context loggers, from any thread, are held until the batch is closed
+     * and then enqueued as one run with {@link AsyncDispatcher#offerAll}.
+     */
+    public Batch batch() {
+        return new Batch(this);
+    }
+
+    /**
+     * The async dispatcher, or null when logging synchronously.
+     */
+    public AsyncDispatcher<LogEvent> dispatcher() {
+        return pipeline.dispatcher;
+    }
+
+    /**
+     * The spooler, or null when spooling is off.
+     */
+    public Spooler spooler() {
+        return pipeline.delivery.spooler();
+    }
+
+    /**
+     * False until a lazy logger's LogBullLogger client has been built; always
+     * true for a logger given at build time.
+     */
+    public boolean transportStarted() {
+        return pipeline.delivery.transport() == null || pipeline.delivery.transport().started();
+    }
+
+    /**
+     * The host monitor whose breaker gates delivery, or null when there is none.
+     */
+    public HostMonitor hostMonitor() {
+        return pipeline.delivery.monitor();
+    }
+
+    /**
+     * Delivers buffered events, stops the drain and replay threads, waits
+     * for a lazy logger's client still being built, then runs the
+     * {@link Builder#onClose(Runnable) close action}.
+     */
+    @Override
+    public void close() {
+        if (pipeline.aggregator != null) {
+            pipeline.aggregator.close();
+        }
+        if (pipeline.dispatcher != null) {
+            pipeline.dispatcher.close();
+        }
+        if (pipeline.delivery.spooler() != null) {
+            pipeline.delivery.spooler().close();
+        }
+        if (pipeline.delivery.monitor() != null) {
+            pipeline.delivery.monitor().close();
+        }
+        if (pipeline.delivery.transport() != null) {
+            pipeline.delivery.transport().close(Duration.ofSeconds(5));
+        }
+        if (pipeline.delivery.onClose() != null) {
+            pipeline.delivery.onClose().run();
+        }
+    }
+
+    /**
+     * Parts shared by a root logger and all its context loggers.
+     */
+    private record Pipeline(
+            LogLevel level,
+            ContextLoggerCache contexts,
+            AsyncDispatcher<LogEvent> dispatcher,
+            DispatchListener<LogEvent> listener,
+            Delivery delivery,
+            EventSampler<LogEvent> sampler,
+            ErrorAggregator<LogEvent> aggregator,
+            Queue<LogEvent> batch) {
+
+        Pipeline collectingInto(Queue<LogEvent> batch) {
+            return new Pipeline(level, contexts, dispatcher, listener, delivery, sampler, aggregator, batch);
+        }
+
+        /**
+         * Queues the event, or delivers it on the caller's thread when logging synchronously.
+         */
+        void emit(LogEvent event) {
+            if (batch != null) {
+                batch.add(event);
+                return;
+            }
+            if (dispatcher != null) {
+                dispatcher.offer(event);
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                delivery.deliver(event);
+            } catch (RuntimeException e) {
+                listener.failed(event);
+                throw e;
+            }
+            listener.delivered(event, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The last step of the pipeline, shared by the drain thread and
+     * synchronous callers.
+     */
+    private record Delivery(String name, HostMonitor monitor, Spooler spooler, RecentEvents recent,
+            LazyTransport transport, Runnable onClose) {
+
+        /**
+         * Hands the event to LogBullLogger, or while the host is unreachable
+         * to the spool, or nowhere when the breaker is open and there is no
+         * spool; keeps it in the recent events either way.
+         */
+        void deliver(LogEvent event) {
+            if (recent != null) {
+                recent.record(event.timestamp(), event.level(), event.message(), event.context(),
+                        event.fields(), name);
+            }
+            if (monitor != null && !monitor.admit()) {
+                if (spooler != null) {
+                    spooler.write(event);
+                }
+                return;
+            }
+            if (transport != null && event.target() == null) {
+                transport.send(event);
+            } else {
+                event.deliver();
+            }
+        }
+    }
+
+    /**
+     * Events of one unit of work, such as a bulk request, held back so they
+     * are enqueued together. Closing the batch enqueues them; without an
+     * async buffer they are delivered on the closing thread.
+     */
+    public static final class Batch implements AutoCloseable {
+
+        private final Queue<LogEvent> events = new ConcurrentLinkedQueue<>();
+        private final Pipeline pipeline;
+        private final PipelineLogger logger;
+
+        private Batch(PipelineLogger parent) {
+            this.pipeline = parent.pipeline;
+            this.logger = new PipelineLogger(parent.delegate, parent.context, pipeline.collectingInto(events));
+        }
+
+        /**
+         * Logger whose events, and those of its context loggers, go into this batch.
+         */
+        public PipelineLogger logger() {
+            return logger;
+        }
+
+        /**
+         * Enqueues the events collected so far.
+         */
+        @Override
+        public void close() {
+            long start = LoggingTime.begin();
+            try {
+                List<LogEvent> collected = new ArrayList<>(events.size());
+                for (LogEvent event; (event = events.poll()) != null;) {
+                    collected.add(event);
+                }
+                if (pipeline.dispatcher != null) {
+                    pipeline.dispatcher.offerAll(collected);
+                } else {
+                    collected.forEach(pipeline::emit);
+                }
+            } finally {
+                LoggingTime.end(start);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link PipelineLogger}.
+     */
+    public static final class Builder {
+
+        private LogBullLogger logger;
+        private Supplier<LogBullLogger> lazyLogger;
+        private Consumer<LogBullLogger> lazyRelease;
+        private int lazyMaxPending;
+        private String name = "standalone";
+        private MeterRegistry meterRegistry;
+        private LogLevel level = LogLevel.DEBUG;
+        private int contextCacheSize = 256;
+        private int asyncCapacity;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private Duration blockTimeout = Duration.ofMillis(50);
+        private int priorityCapacity;
+        private ThreadFactory drainThreadFactory;
+        private LogBullLogger priorityLogger;
+        private Spooler spooler;
+        private HostMonitor hostMonitor;
+        private RecentEvents recentEvents;
+        private Runnable onClose;
+        private String samplingKey;
+        private int samplingMaxPerKey;
+        private Duration samplingWindow = Duration.ofSeconds(1);
+        private Duration aggregationWindow = Duration.ZERO;
+        private List<String> aggregationSampleFields = List.of();
+        private int aggregationReservoirSize = 5;
+        private int aggregationMaxFingerprints = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * LogBullLogger that finally receives the events.
+         */
+        public Builder logger(LogBullLogger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Builds the LogBullLogger that finally receives the events on the
+         * first event handed on, instead of taking one built at startup;
+         * up to {@code maxPending} events are buffered until it is ready.
+         * A client only built after this logger has closed is shut down.
+         */
+        public Builder lazyLogger(Supplier<LogBullLogger> factory, int maxPending) {
+            return lazyLogger(factory, maxPending, LogBullLogger::shutdown);
+        }
+
+        /**
+         * As {@link #lazyLogger(Supplier, int)}, letting go of a client only
+         * built after this logger has closed with {@code release} instead.
+         */
+        public Builder lazyLogger(Supplier<LogBullLogger> factory, int maxPending, Consumer<LogBullLogger> release) {
+            this.lazyLogger = factory;
+            this.lazyMaxPending = maxPending;
+            this.lazyRelease = release;
+            return this;
+        }
+
+        /**
+         * Name used for the drain thread and the {@code logger} meter tag.
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Registry for pipeline metrics; none are recorded when unset.
+         */
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * Lowest level that is logged; calls below it return immediately.
+         */
+        public Builder level(LogLevel level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Maximum number of context cache entries, least recently used evicted
+         * first; a shared context takes one for its logger and one for its
+         * context link. 0 disables the cache.
+         */
+        public Builder contextCacheSize(int contextCacheSize) {
+            this.contextCacheSize = contextCacheSize;
+            return this;
+        }
+
+        /**
+         * Capacity of the async ring buffer; 0 (the default) logs synchronously.
+         */
+        public Builder asyncCapacity(int asyncCapacity) {
+            this.asyncCapacity = asyncCapacity;
+            return this;
+        }
+
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * How long {@link OverflowPolicy#BLOCK} waits for buffer space.
+         */
+        public Builder blockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+            return this;
+        }
+
+        /**
+         * Creates the async buffer's drain thread, e.g. a virtual thread
+         * factory; defaults to a daemon platform thread.
+         */
+        public Builder drainThreadFactory(ThreadFactory drainThreadFactory) {
+            this.drainThreadFactory = drainThreadFactory;
+            return this;
+        }
+
+        /**
+         * Capacity of the async buffer's lane for ERROR and CRITICAL events,
+         * which are delivered ahead of and without waiting for bulk batches;
+         * 0 (the default) keeps them in the one buffer.
+         */
+        public Builder priorityCapacity(int priorityCapacity) {
+            this.priorityCapacity = priorityCapacity;
+            return this;
+        }
+
+        /**
+         * Separate LogBullLogger client for the priority lane. The client
+         * queues events for its sender thread, so under a flood ERROR and
+         * CRITICAL events would otherwise wait behind the bulk backlog in
+         * that queue; with their own client they only wait for its next send.
+         * Context is merged into the fields of events sent through it.
+         */
+        public Builder priorityLogger(LogBullLogger priorityLogger) {
+            this.priorityLogger = priorityLogger;
+            return this;
+        }
+
+        /**
+         * Run last in {@link PipelineLogger#close()}, once buffered events
+         * have been handed to the LogBullLogger clients, to shut those
+         * clients down or release them to {@link SharedTransports}. Clients
+         * are left running when unset.
+         */
+        public Builder onClose(Runnable onClose) {
+            this.onClose = onClose;
+            return this;
+        }
+
+        /**
+         * On-disk spool for outages and overflow; none when unset.
+         */
+        public Builder spooler(Spooler spooler) {
+            this.spooler = spooler;
+            return this;
+        }
+
+        /**
+         * Host monitor whose circuit breaker gates delivery; defaults to the
+         * spooler's monitor, or none without a spooler. Closed with the logger.
+         */
+        public Builder hostMonitor(HostMonitor hostMonitor) {
+            this.hostMonitor = hostMonitor;
+            return this;
+        }
+
+        /**
+         * In-process ring of recent events to keep a copy of every event in; none when unset.
+         */
+        public Builder recentEvents(RecentEvents recentEvents) {
+            this.recentEvents = recentEvents;
+            return this;
+        }
+
+        /**
+         * Field to rate-limit by, combined with the message; events without
+         * it are limited by message alone. Defaults to the message alone.
+         */
+        public Builder samplingKey(String samplingKey) {
+            this.samplingKey = samplingKey;
+            return this;
+        }
+
+        /**
+         * Events kept per key in each sampling window; 0 (the default) disables sampling.
+         */
+        public Builder samplingMaxPerKey(int samplingMaxPerKey) {
+            this.samplingMaxPerKey = samplingMaxPerKey;
+            return this;
+        }
+
+        public Builder samplingWindow(Duration samplingWindow) {
+            this.samplingWindow = samplingWindow;
+            return this;
+        }
+
+        /**
+         * Window in which repeated ERROR and CRITICAL events are collapsed into
+         * one summary; zero (the default) disables aggregation.
+         */
+        public Builder aggregationWindow(Duration aggregationWindow) {
+            this.aggregationWindow = aggregationWindow;
+            return this;
+        }
+
+        /**
+         * Fields whose distinct values are kept in aggregation summaries.
+         */
+        public Builder aggregationSampleFields(List<String> aggregationSampleFields) {
+            this.aggregationSampleFields = aggregationSampleFields;
+            return this;
+        }
+
+        /**
+         * Distinct values kept per sample field.
+         */
+        public Builder aggregationReservoirSize(int aggregationReservoirSize) {
+            this.aggregationReservoirSize = aggregationReservoirSize;
+            return this;
+        }
+
+        /**
+         * Maximum errors aggregated at once; others pass through unaggregated.
+         */
+        public Builder aggregationMaxFingerprints(int aggregationMaxFingerprints) {
+            this.aggregationMaxFingerprints = aggregationMaxFingerprints;
+            return this;
+        }
+
+        public PipelineLogger build() {
+            if ((logger == null) == (lazyLogger == null)) {
+                throw new IllegalStateException("either logger or lazyLogger is required");
+            }
+            PipelineMeters<LogEvent> meters = meterRegistry == null ? null
+                    : new PipelineMeters<>(meterRegistry, name, event -> event.level().name());
+            DispatchListener<LogEvent> listener = meters == null ? DispatchListener.none() : meters;
+
+            HostMonitor monitor = hostMonitor != null ? hostMonitor
+                    : spooler != null ? spooler.monitor() : null;
+            LazyTransport transport = lazyLogger == null ? null
+                    : new LazyTransport(lazyLogger, lazyRelease, name, lazyMaxPending);
+            Delivery delivery = new Delivery(name, monitor, spooler, recentEvents, transport, onClose);
+            AsyncDispatcher<LogEvent> dispatcher = null;
+            if (asyncCapacity > 0) {
+                LogBullLogger priorityClient = priorityLogger;
+                dispatcher = AsyncDispatcher.<LogEvent>builder(delivery::deliver)
+                        .name(name)
+                        .capacity(asyncCapacity)
+                        .overflowPolicy(overflowPolicy)
+                        .blockTimeout(blockTimeout)
+                        .keepOnOverflow(LogEvent::isHighSeverity)
+                        .spill(spooler == null ? event -> false : spooler::write)
+                        .priority(LogEvent::isHighSeverity)
+                        .priorityCapacity(priorityCapacity)
+                        .prioritySink(priorityClient == null ? null
+                                : event -> delivery.deliver(event.retarget(priorityClient)))
+                        .listener(listener)
+                        .threadFactory(drainThreadFactory)
+                        .build();
+                if (meters != null) {
+                    meters.bindQueue(dispatcher);
+                }
+            }
+            if (meters != null && spooler != null) {
+                meters.bindSpooler(spooler);
+            }
+            if (meters != null && monitor != null) {
+                meters.bindBreaker(monitor);
+            }
+            if (meters != null && transport != null) {
+                meters.bindTransport(transport);
+            }
+            EventSampler<LogEvent> sampler = samplingMaxPerKey <= 0 ? null
+                    : EventSampler.<LogEvent>builder(samplingKeyHash(samplingKey))
+                            .maxPerKey(samplingMaxPerKey)
+                            .window(samplingWindow)
+                            .alwaysKeep(LogEvent::isHighSeverity)
+                            .build();
+            ErrorAggregator<LogEvent> aggregator = aggregationWindow.isZero() ? null
+                    : ErrorAggregator.<LogEvent>builder(Builder::fingerprint,
+                                    (event, summary) -> event.withFields(summary.fields()))
+                            .aggregate(LogEvent::isHighSeverity)
+                            .sampleFields(aggregationSampleFields, LogEvent::field)
+                            .reservoirSize(aggregationReservoirSize)
+                            .maxFingerprints(aggregationMaxFingerprints)
+                            .window(aggregationWindow)
+                            .build();
+            Pipeline pipeline = new Pipeline(level, new ContextLoggerCache(logger, contextCacheSize),
+                    dispatcher, listener, delivery, sampler, aggregator, null);
+            if (aggregator != null) {
+                aggregator.start(name, pipeline::emit);
+            }
+            return new PipelineLogger(logger, null, pipeline);
+        }
+
+        /**
+         * Messages are passed pre-formatted, so the message is the template;
+         * the exception type comes from the {@code error_type} field.
+         */
+        private static ErrorAggregator.Fingerprint fingerprint(LogEvent event) {
+            return new ErrorAggregator.Fingerprint(event.level().name(), event.message(),
+                    Objects.toString(event.field("error_type"), null));
+        }
+
+        private static ToIntFunction<LogEvent> samplingKeyHash(String key) {
+            if (key == null || key.isEmpty()) {
+                return event -> event.message().hashCode();
+            }
+            return event -> 31 * Objects.hashCode(event.field(key)) + event.message().hashCode();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.logbull.test.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Micrometer meters for one logger's pipeline, tagged {@code logger=<name>}
+ * so the starter and standalone loggers can be told apart.
+ *
+ * <ul>
+ * <li>{@code logbull.pipeline.queue.depth} / {@code .queue.capacity} - ring buffer gauges</li>
+ * <li>{@code logbull.pipeline.events.enqueued|delivered|dropped|suppressed} - counters per level</li>
+ * <li>{@code logbull.pipeline.events.failed} - events whose delivery threw</li>
+ * <li>{@code logbull.pipeline.batch.size} - events delivered per drain wake-up</li>
+ * <li>{@code logbull.pipeline.handoff} - time spent handing an event to the LogBull client</li>
+ * <li>{@code logbull.pipeline.spool.*} - on-disk spool state, when a {@link Spooler} is bound</li>
+ * <li>{@code logbull.pipeline.breaker.*} - circuit breaker state, when a {@link HostMonitor} is bound</li>
+ * </ul>
+ *
+ * The LogBull client queues events and sends them over HTTP on its own
+ * thread, so the pipeline only sees the hand-off to that queue; HTTP send
+ * latency is not measured here.
+ *
+ * @param <E> event type
+ */
+public final class PipelineMeters<E> implements DispatchListener<E> {
+
+    private final MeterRegistry registry;
+    private final String logger;
+    private final Function<E, String> levelOf;
+    private final Map<String, Counter> enqueued = new ConcurrentHashMap<>();
+    private final Map<String, Counter> delivered = new ConcurrentHashMap<>();
+    private final Map<String, Counter> dropped = new ConcurrentHashMap<>();
+    private final Map<String, Counter> suppressed = new ConcurrentHashMap<>();
+    private final Counter failed;
+    private final DistributionSummary batchSize;
+    private final Timer handoff;
+
+    public PipelineMeters(MeterRegistry registry, String logger, Function<E, String> levelOf) {
+        this.registry = registry;
+        this.logger = logger;
+        this.levelOf = levelOf;
+        this.failed = Counter.builder("logbull.pipeline.events.failed")
+                .description("Events whose hand-off to the LogBull client threw")
+                .tag("logger", logger)
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("logbull.pipeline.batch.size")
+                .description("Events delivered per drain thread wake-up")
+                .tag("logger", logger)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.handoff = Timer.builder("logbull.pipeline.handoff")
+                .description("Time spent handing one event to the LogBull client's queue, not the HTTP send")
+                .tag("logger", logger)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Registers queue depth and capacity gauges for the given dispatcher,
+     * the depth and capacity covering both lanes.
+     */
+    public void bindQueue(AsyncDispatcher<E> dispatcher) {
+        Gauge.builder("logbull.pipeline.queue.depth", dispatcher, AsyncDispatcher::queueDepth)
+                .description("Events waiting in the ring buffer")
+                .tag("logger", logger)
+                .register(registry);
+        Gauge.builder("logbull.pipeline.queue.capacity", dispatcher, AsyncDispatcher::capacity)
+                .description("Ring buffer capacity")
+                .tag("logger", logger)
+                .register(registry);
+        if (dispatcher.priorityCapacity() > 0) {
+            Gauge.builder("logbull.pipeline.queue.priority.depth", dispatcher, AsyncDispatcher::priorityQueueDepth)
+                    .description("Events waiting in the ERROR/CRITICAL lane")
+                    .tag("logger", logger)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Registers spool gauges and counters for the given spooler.
+     */
+    public void bindSpooler(Spooler spooler) {
+        LogSpool spool = spooler.spool();
+        Gauge.builder("logbull.pipeline.spool.pending", spool, LogSpool::pendingCount)
+                .description("Events waiting in the spool for replay")
+                .tag("logger", logger)
+                .register(registry);
+        Gauge.builder("logbull.pipeline.spool.size", spool, LogSpool::sizeBytes)
+                .description("Disk space taken by spool segments")
+                .baseUnit("bytes")
+                .tag("logger", logger)
+                .register(registry);
+        Gauge.builder("logbull.pipeline.spool.host.reachable", spooler, s -> s.hostReachable() ? 1 : 0)
+                .description("1 while the last probe of the LogBull host succeeded")
+                .tag("logger", logger)
+                .register(registry);
+        FunctionCounter.builder("logbull.pipeline.spool.written", spool, LogSpool::writtenCount)
+                .description("Events written to the spool")
+                .tag("logger", logger)
+                .register(registry);
+        FunctionCounter.builder("logbull.pipeline.spool.replayed", spooler, Spooler::replayedCount)
+                .description("Spooled events replayed to the LogBull client")
+                .tag("logger", logger)
+                .register(registry);
+        FunctionCounter.builder("logbull.pipeline.spool.evicted", spool, LogSpool::evictedCount)
+                .description("Spooled events lost to oldest-segment eviction")
+                .tag("logger", logger)
+                .register(registry);
+    }
+
+    /**
+     * Registers circuit breaker gauges and counters for the given host monitor.
+     */
+    public void bindBreaker(HostMonitor monitor) {
+        Gauge.builder("logbull.pipeline.breaker.state", monitor, m -> m.state().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .tag("logger", logger)
+                .register(registry);
+        FunctionCounter.builder("logbull.pipeline.breaker.opened", monitor, HostMonitor::openedCount)
+                .description("Times the circuit breaker opened")
+                .tag("logger", logger)
+                .register(registry);
+        FunctionCounter.builder("logbull.pipeline.breaker.rejected", monitor, HostMonitor::rejectedCount)
+                .description("Events spooled or dropped instead of sent while the breaker was not closed")
+                .tag("logger", logger)
+                .register(registry);
+    }
+
+    /**
+     * Registers counters for a client built on the first event.
+     */
+    void bindTransport(LazyTransport transport) {
+        FunctionCounter.builder("logbull.pipeline.transport.build.failures", transport,
+                        LazyTransport::buildFailureCount)
+                .description("Times building the LogBull client on the first event failed")
+                .tag("logger", logger)
+                .register(registry);
+        FunctionCounter.builder("logbull.pipeline.transport.dropped", transport, LazyTransport::droppedCount)
+                .description("Events dropped while the LogBull client was not built")
+                .tag("logger", logger)
+                .register(registry);
+    }
+
+    @Override
+    public void enqueued(E event) {
+        counter(enqueued, "logbull.pipeline.events.enqueued", event).increment();
+    }
+
+    @Override
+    public void dropped(E event) {
+        counter(dropped, "logbull.pipeline.events.dropped", event).increment();
+    }
+
+    @Override
+    public void suppressed(E event) {
+        counter(suppressed, "logbull.pipeline.events.suppressed", event).increment();
+    }
+
+    @Override
+    public void delivered(E event, long nanos) {
+        counter(delivered, "logbull.pipeline.events.delivered", event).increment();
+        handoff.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void failed(E event) {
+        failed.increment();
+    }
+
+    @Override
+    public void drained(int size) {
+        batchSize.record(size);
+    }
+
+    /**
+     * Removes the pipeline meters tagged with this logger's name from the
+     * registry, for a pipeline that is taken down while the registry lives on.
+     */
+    public void remove() {
+        for (Meter meter : registry.getMeters()) {
+            Meter.Id id = meter.getId();
+            if (id.getName().startsWith("logbull.pipeline.") && logger.equals(id.getTag("logger"))) {
+                registry.remove(meter);
+            }
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, E event) {
+        return counters.computeIfAbsent(levelOf.apply(event), level -> Counter.builder(name)
+                .tag("logger", logger)
+                .tag("level", level)
+                .register(registry));
+    }
+}
@@ -0,0 +1,377 @@
+package com.logbull.test.logging;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.core.LogLevel;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The most recent events of this node, serialized into a fixed-size
+ * off-heap ring, so the last few minutes of logs can be looked at while the
+ * LogBull host is down or behind.
+ *
+ * The ring is a direct buffer of equal slots, each holding one event as
+ * JSON behind a small header. A writer claims the next sequence number from
+ * a counter and owns its slot through a per-slot seqlock: the slot's
+ * sequence is swapped for a writing marker, header and body are written,
+ * and the sequence is published last. Writers never wait; one that finds
+ * its slot still being written by a writer a whole lap behind skips its
+ * event. Readers copy a slot and discard it if its sequence changed.
+ *
+ * Secondary indexes on {@code request_id}, {@code session_id} and level are
+ * chains through the slots: a fixed table of bucket heads holds the newest
+ * sequence per key hash, and every slot links to the previous sequence in
+ * its buckets. Chains end where the ring has overwritten them, so the
+ * indexes take no memory beyond the table and the slot headers. Events
+ * larger than a slot are kept without their fields.
+ */
+public final class RecentEvents {
+
+    public static final String REQUEST_ID = "request_id";
+    public static final String SESSION_ID = "session_id";
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> EVENT_TYPE = new TypeReference<>() {
+    };
+
+    // Slot header; the sequence is 0 before the first write and WRITING while being written
+    private static final int SEQUENCE = 0;
+    private static final int TIMESTAMP = 8;
+    private static final int PREVIOUS_REQUEST = 16;
+    private static final int PREVIOUS_SESSION = 24;
+    private static final int PREVIOUS_LEVEL = 32;
+    private static final int REQUEST_HASH = 40;
+    private static final int SESSION_HASH = 44;
+    private static final int LEVEL = 48;
+    private static final int LENGTH = 52;
+    private static final int HEADER = 56;
+    // Body bytes a truncated event needs besides its message
+    private static final int MIN_ROOM = 192;
+    private static final long WRITING = -1;
+    // Reads of a slot caught mid-write are retried this many times before it is skipped
+    private static final int READ_RETRIES = 1000;
+
+    private static final byte[] TIMESTAMP_KEY = key("timestamp");
+    private static final byte[] LEVEL_KEY = key("level");
+    private static final byte[] MESSAGE_KEY = key("message");
+    private static final byte[] SOURCE_KEY = key("source");
+    private static final byte[] FIELDS_KEY = key("fields");
+    private static final byte[] TRUNCATED_KEY = key("truncated");
+
+    private final ByteBuffer ring;
+    private final int slotBytes;
+    private final int slotCount;
+    private final int bucketMask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLongArray requestHeads;
+    private final AtomicLongArray sessionHeads;
+    private final AtomicLongArray levelHeads = new AtomicLongArray(LogLevel.values().length);
+    private final ThreadLocal<JsonBuffer> buffers;
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * @param capacityBytes off-heap bytes for the ring
+     * @param slotBytes     bytes per event, header included
+     * @param indexBuckets  buckets per key index, rounded up to a power of two
+     */
+    public RecentEvents(long capacityBytes, int slotBytes, int indexBuckets) {
+        if (slotBytes < HEADER + 2 * MIN_ROOM || slotBytes % 8 != 0) {
+            throw new IllegalArgumentException(
+                    "slotBytes must be a multiple of 8 and at least " + (HEADER + 2 * MIN_ROOM));
+        }
+        long slots = capacityBytes / slotBytes;
+        if (slots < 1 || slots * slotBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacityBytes must hold 1 to 2 GiB of slots");
+        }
+        this.slotBytes = slotBytes;
+        this.slotCount = (int) slots;
+        this.ring = ByteBuffer.allocateDirect(slotCount * slotBytes).order(ByteOrder.nativeOrder());
+        int buckets = Integer.highestOneBit(Math.max(1, indexBuckets - 1)) << 1;
+        this.bucketMask = buckets - 1;
+        this.requestHeads = new AtomicLongArray(buckets);
+        this.sessionHeads = new AtomicLongArray(buckets);
+        this.buffers = ThreadLocal.withInitial(() -> new JsonBuffer(slotBytes));
+    }
+
+    /**
+     * Serializes one event into the ring.
+     *
+     * @param source which logger the event came from, e.g. {@code standalone} or {@code starter}
+     * @param fields event fields, context included, or null
+     */
+    public void record(long timestampMillis, LogLevel level, String message, Map<String, ?> fields, String source) {
+        record(timestampMillis, level, message, null, fields, source);
+    }
+
+    /**
+     * Like {@link #record(long, LogLevel, String, Map, String)}, for an event
+     * whose context is kept apart from its fields. The context is copied in
+     * as its cached JSON, ahead of the event fields; a name present in both
+     * is written twice and reads back with the event's value.
+     *
+     * @param context context chain of the event, or null
+     * @param fields  fields of the event alone, or null
+     */
+    public void record(long timestampMillis, LogLevel level, String message, LogContext context,
+            Map<String, ?> fields, String source) {
+        int room = slotBytes - HEADER;
+        JsonBuffer json = serialize(buffers.get().reset(), timestampMillis, level, message, context, fields, source,
+                true);
+        if (json.size() > room) {
+            // At most 6 bytes per char once escaped, plus the fixed keys
+            int maxChars = (room - MIN_ROOM) / 6;
+            String cut = message.length() > maxChars ? message.substring(0, maxChars) : message;
+            json = serialize(json.reset(), timestampMillis, level, cut, null, null, source, false);
+            if (json.size() > room) {
+                skipped.increment();
+                return;
+            }
+        }
+        String requestId = Objects.toString(field(context, fields, REQUEST_ID), null);
+        String sessionId = Objects.toString(field(context, fields, SESSION_ID), null);
+
+        long seq = sequence.incrementAndGet();
+        int base = offset(seq);
+        long previous = (long) LONGS.getVolatile(ring, base + SEQUENCE);
+        if (previous == WRITING || previous > seq || !LONGS.compareAndSet(ring, base + SEQUENCE, previous, WRITING)) {
+            skipped.increment();
+            return;
+        }
+        int requestHash = requestId == null ? 0 : hash(requestId);
+        int sessionHash = sessionId == null ? 0 : hash(sessionId);
+        ring.putLong(base + TIMESTAMP, timestampMillis);
+        ring.putInt(base + REQUEST_HASH, requestHash);
+        ring.putInt(base + SESSION_HASH, sessionHash);
+        ring.putInt(base + LEVEL, level.ordinal());
+        ring.putInt(base + LENGTH, json.size());
+        ring.put(base + HEADER, json.array(), 0, json.size());
+        ring.putLong(base + PREVIOUS_REQUEST,
+                requestId == null ? 0 : requestHeads.getAndSet(requestHash & bucketMask, seq));
+        ring.putLong(base + PREVIOUS_SESSION,
+                sessionId == null ? 0 : sessionHeads.getAndSet(sessionHash & bucketMask, seq));
+        ring.putLong(base + PREVIOUS_LEVEL, levelHeads.getAndSet(level.ordinal(), seq));
+        LONGS.setRelease(ring, base + SEQUENCE, seq);
+    }
+
+    /**
+     * Newest events first that match every given criterion; null criteria
+     * match anything. Follows the most selective index available and
+     * otherwise scans the ring.
+     */
+    public List<Map<String, Object>> query(String requestId, String sessionId, LogLevel level,
+            Instant from, Instant to, int limit) {
+        long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        int requestHash = requestId == null ? 0 : hash(requestId);
+        int sessionHash = sessionId == null ? 0 : hash(sessionId);
+
+        int link;
+        long seq;
+        if (requestId != null) {
+            link = PREVIOUS_REQUEST;
+            seq = requestHeads.get(requestHash & bucketMask);
+        } else if (sessionId != null) {
+            link = PREVIOUS_SESSION;
+            seq = sessionHeads.get(sessionHash & bucketMask);
+        } else if (level != null) {
+            link = PREVIOUS_LEVEL;
+            seq = levelHeads.get(level.ordinal());
+        } else {
+            link = -1;
+            seq = sequence.get();
+        }
+
+        List<Map<String, Object>> matches = new ArrayList<>();
+        long oldest = sequence.get() - slotCount;
+        Slot slot = new Slot();
+        while (seq > 0 && seq > oldest && matches.size() < limit) {
+            if (!read(seq, link, slot)) {
+                if (link >= 0) {
+                    // Overwritten, so is everything older in the chain
+                    break;
+                }
+                seq--;
+                continue;
+            }
+            if ((requestId == null || slot.requestHash == requestHash)
+                    && (sessionId == null || slot.sessionHash == sessionHash)
+                    && (level == null || slot.level == level.ordinal())
+                    && slot.timestamp >= fromMillis && slot.timestamp <= toMillis) {
+                Map<String, Object> event = decode(slot);
+                if (event != null && matches(event, REQUEST_ID, requestId) && matches(event, SESSION_ID, sessionId)) {
+                    matches.add(event);
+                }
+            }
+            seq = link >= 0 ? slot.previous : seq - 1;
+        }
+        return matches;
+    }
+
+    /**
+     * Copies slot {@code seq} into {@code slot}; false if the ring no longer holds it.
+     */
+    private boolean read(long seq, int link, Slot slot) {
+        int base = offset(seq);
+        for (int attempt = 0; attempt < READ_RETRIES; attempt++) {
+            long before = (long) LONGS.getAcquire(ring, base + SEQUENCE);
+            if (before == WRITING) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (before != seq) {
+                return false;
+            }
+            slot.timestamp = ring.getLong(base + TIMESTAMP);
+            slot.previous = link >= 0 ? ring.getLong(base + link) : 0;
+            slot.requestHash = ring.getInt(base + REQUEST_HASH);
+            slot.sessionHash = ring.getInt(base + SESSION_HASH);
+            slot.level = ring.getInt(base + LEVEL);
+            int length = Math.min(ring.getInt(base + LENGTH), slotBytes - HEADER);
+            if (slot.body.length < length) {
+                slot.body = new byte[slotBytes - HEADER];
+            }
+            ring.get(base + HEADER, slot.body, 0, length);
+            slot.length = length;
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getVolatile(ring, base + SEQUENCE) == seq) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Object> decode(Slot slot) {
+        try {
+            return MAPPER.readValue(slot.body, 0, slot.length, EVENT_TYPE);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean matches(Map<String, Object> event, String key, String expected) {
+        if (expected == null) {
+            return true;
+        }
+        return event.get("fields") instanceof Map<?, ?> fields
+                && expected.equals(Objects.toString(fields.get(key), null));
+    }
+
+    private static Object field(LogContext context, Map<String, ?> fields, String name) {
+        Object value = fields == null ? null : fields.get(name);
+        return value != null ? value : LogContext.find(context, name);
+    }
+
+    private static JsonBuffer serialize(JsonBuffer out, long timestampMillis, LogLevel level, String message,
+            LogContext context, Map<String, ?> fields, String source, boolean complete) {
+        out.writeByte('{');
+        out.writeRaw(TIMESTAMP_KEY);
+        out.writeString(Instant.ofEpochMilli(timestampMillis).toString());
+        out.writeByte(',');
+        out.writeRaw(LEVEL_KEY);
+        out.writeString(level.name());
+        out.writeByte(',');
+        out.writeRaw(MESSAGE_KEY);
+        out.writeString(message);
+        out.writeByte(',');
+        out.writeRaw(SOURCE_KEY);
+        out.writeString(source);
+        if (!complete) {
+            out.writeByte(',');
+            out.writeRaw(TRUNCATED_KEY);
+            out.writeBoolean(true);
+        } else if (fields != null || context != null) {
+            out.writeByte(',');
+            out.writeRaw(FIELDS_KEY);
+            writeFields(context, fields, out);
+        }
+        out.writeByte('}');
+        return out;
+    }
+
+    private static void writeFields(LogContext context, Map<String, ?> fields, JsonBuffer out) {
+        out.writeByte('{');
+        byte[] contextJson = context == null ? null : context.json();
+        boolean empty = contextJson == null || contextJson.length == 0;
+        if (!empty) {
+            out.writeRaw(contextJson);
+        }
+        if (fields != null && !fields.isEmpty()) {
+            if (!empty) {
+                out.writeByte(',');
+            }
+            if (fields instanceof RecordFields<?> typed) {
+                typed.writeMembers(out);
+            } else {
+                out.writeMembers(fields);
+            }
+        }
+        out.writeByte('}');
+    }
+
+    private int offset(long seq) {
+        return (int) ((seq - 1) % slotCount) * slotBytes;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        // Never 0, which marks a missing key
+        return (h ^ (h >>> 16)) | 1;
+    }
+
+    private static byte[] key(String name) {
+        JsonBuffer out = new JsonBuffer(32);
+        out.writeString(name);
+        out.writeByte(':');
+        return out.toByteArray();
+    }
+
+    /**
+     * Events the ring holds at most.
+     */
+    public int slotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Events recorded so far, including overwritten and skipped ones.
+     */
+    public long recordedCount() {
+        return sequence.get();
+    }
+
+    /**
+     * Events skipped because their slot was still being written a lap
+     * earlier, or because even without fields they did not fit a slot.
+     */
+    public long skippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * Reader-side copy of one slot.
+     */
+    private static final class Slot {
+        long timestamp;
+        long previous;
+        int requestHash;
+        int sessionHash;
+        int level;
+        int length;
+        byte[] body = new byte[0];
+    }
+}
@@ -0,0 +1,83 @@
+package com.logbull.test.logging;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields of a typed event: a read-only map view over a record.
+ *
+ * The record is carried through level gating, sampling and the async buffer
+ * as it is, so primitive components stay unboxed on the logging thread.
+ * Single lookups read one component; the boxed map that LogBullLogger
+ * iterates is only built when it asks for the entries, which with an async
+ * buffer happens on the drain thread.
+ *
+ * That map is built once per event on the way to the host: LogBullLogger
+ * only accepts {@code Map<String, Object>} fields and serializes them
+ * itself, so its wire format cannot use the {@link RecordSerializer}. The
+ * serializer is used where this app writes the JSON, such as
+ * {@link RecentEvents}.
+ *
+ * @param <R> record type
+ */
+public final class RecordFields<R extends Record> extends AbstractMap<String, Object> {
+
+    private final R record;
+    private final RecordSerializer<R> serializer;
+    private Map<String, Object> boxed;
+
+    private RecordFields(R record, RecordSerializer<R> serializer) {
+        this.record = record;
+        this.serializer = serializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> RecordFields<R> of(R record) {
+        return new RecordFields<>(record, RecordSerializer.of((Class<R>) record.getClass()));
+    }
+
+    public R record() {
+        return record;
+    }
+
+    /**
+     * Appends the fields as a JSON object, without building the map.
+     */
+    public void writeJson(JsonBuffer out) {
+        serializer.write(record, out);
+    }
+
+    /**
+     * Like {@link #writeJson(JsonBuffer)}, without the enclosing braces.
+     */
+    public void writeMembers(JsonBuffer out) {
+        serializer.writeMembers(record, out);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return serializer.value(record, key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return serializer.hasField(key);
+    }
+
+    @Override
+    public int size() {
+        return serializer.fieldCount();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> fields = boxed;
+        if (fields == null) {
+            // Unmodifiable wrapper, so publishing it without a lock is safe
+            fields = serializer.toMap(record);
+            boxed = fields;
+        }
+        return fields.entrySet();
+    }
+}
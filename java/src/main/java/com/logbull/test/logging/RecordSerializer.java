@@ -0,0 +1,261 @@
+package com.logbull.test.logging;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes the components of one record type as JSON fields, for typed events
+ * logged with e.g. {@code info("[java] Processing payment", new PaymentEvent("credit_card", 99.99))}.
+ *
+ * A serializer is built once per record type and cached in a
+ * {@link ClassValue}: field names are converted to snake_case
+ * ({@code paymentMethod} becomes {@code payment_method}) and pre-encoded
+ * with their quotes, and each accessor is bound to a method handle that
+ * returns primitives unboxed. Writing an event is then a walk over a fixed
+ * array into a caller-owned {@link JsonBuffer}, with no map and no boxing.
+ *
+ * @param <R> record type
+ */
+public final class RecordSerializer<R extends Record> {
+
+    private static final ClassValue<RecordSerializer<?>> SERIALIZERS = new ClassValue<>() {
+        @Override
+        protected RecordSerializer<?> computeValue(Class<?> type) {
+            return new RecordSerializer<>(type.asSubclass(Record.class));
+        }
+    };
+
+    private static final MethodType AS_LONG = MethodType.methodType(long.class, Record.class);
+    private static final MethodType AS_DOUBLE = MethodType.methodType(double.class, Record.class);
+    private static final MethodType AS_BOOLEAN = MethodType.methodType(boolean.class, Record.class);
+    private static final MethodType AS_OBJECT = MethodType.methodType(Object.class, Record.class);
+
+    private final Component[] components;
+
+    private RecordSerializer(Class<? extends Record> type) {
+        RecordComponent[] recordComponents = type.getRecordComponents();
+        this.components = new Component[recordComponents.length];
+        for (int i = 0; i < recordComponents.length; i++) {
+            components[i] = Component.of(recordComponents[i]);
+        }
+    }
+
+    /**
+     * The serializer for a record type, built on first use.
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> RecordSerializer<R> of(Class<R> type) {
+        return (RecordSerializer<R>) SERIALIZERS.get(type);
+    }
+
+    /**
+     * Appends the record as a JSON object.
+     */
+    public void write(R record, JsonBuffer out) {
+        out.writeByte('{');
+        writeMembers(record, out);
+        out.writeByte('}');
+    }
+
+    /**
+     * Appends the record's fields without the enclosing braces, for callers
+     * that write other members into the same object.
+     */
+    public void writeMembers(R record, JsonBuffer out) {
+        for (int i = 0; i < components.length; i++) {
+            if (i > 0) {
+                out.writeByte(',');
+            }
+            Component component = components[i];
+            out.writeRaw(component.key);
+            component.write(record, out);
+        }
+    }
+
+    /**
+     * Number of fields a record of this type has.
+     */
+    public int fieldCount() {
+        return components.length;
+    }
+
+    /**
+     * One field's value, boxed as declared, or null if the record has no
+     * such field. Characters, enums and other objects come back as strings,
+     * as they are written.
+     */
+    public Object value(R record, Object name) {
+        for (Component component : components) {
+            if (component.name.equals(name)) {
+                return component.value(record);
+            }
+        }
+        return null;
+    }
+
+    public boolean hasField(Object name) {
+        for (Component component : components) {
+            if (component.name.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The record's fields, boxed, in declaration order; for consumers that
+     * only take maps, such as LogBullLogger.
+     */
+    public Map<String, Object> toMap(R record) {
+        Map<String, Object> fields = new LinkedHashMap<>(components.length * 2);
+        for (Component component : components) {
+            fields.put(component.name, component.value(record));
+        }
+        return Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * {@code paymentMethod} to {@code payment_method}; runs of capitals stay
+     * together, so {@code httpURL} becomes {@code http_url}.
+     */
+    static String snakeCase(String name) {
+        StringBuilder snake = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                boolean afterLower = i > 0 && !Character.isUpperCase(name.charAt(i - 1));
+                boolean endsRun = i > 0 && i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1));
+                if (afterLower || endsRun) {
+                    snake.append('_');
+                }
+                snake.append(Character.toLowerCase(c));
+            } else {
+                snake.append(c);
+            }
+        }
+        return snake.toString();
+    }
+
+    private enum Kind {
+        INTEGRAL, FLOATING, BOOLEAN, CHAR, STRING, NUMBER, ENUM, OTHER
+    }
+
+    /**
+     * One record component: its pre-encoded key and an accessor typed to its kind.
+     */
+    private record Component(String name, byte[] key, Kind kind, MethodHandle accessor, MethodHandle boxed) {
+
+        static Component of(RecordComponent recordComponent) {
+            String name = snakeCase(recordComponent.getName());
+            byte[] key = ("\"" + name + "\":").getBytes(StandardCharsets.UTF_8);
+            Class<?> type = recordComponent.getType();
+            Kind kind = kindOf(type);
+            MethodHandle accessor;
+            try {
+                recordComponent.getAccessor().setAccessible(true);
+                accessor = MethodHandles.lookup().unreflect(recordComponent.getAccessor());
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Cannot read " + recordComponent.getDeclaringRecord().getName()
+                        + "." + recordComponent.getName(), e);
+            }
+            MethodType accessorType = switch (kind) {
+                case INTEGRAL, CHAR -> AS_LONG;
+                case FLOATING -> AS_DOUBLE;
+                case BOOLEAN -> AS_BOOLEAN;
+                default -> AS_OBJECT;
+            };
+            return new Component(name, key, kind, accessor.asType(accessorType), accessor.asType(AS_OBJECT));
+        }
+
+        private static Kind kindOf(Class<?> type) {
+            if (type == int.class || type == long.class || type == short.class || type == byte.class) {
+                return Kind.INTEGRAL;
+            }
+            if (type == double.class || type == float.class) {
+                return Kind.FLOATING;
+            }
+            if (type == boolean.class) {
+                return Kind.BOOLEAN;
+            }
+            if (type == char.class) {
+                return Kind.CHAR;
+            }
+            if (CharSequence.class.isAssignableFrom(type)) {
+                return Kind.STRING;
+            }
+            if (Number.class.isAssignableFrom(type)) {
+                return Kind.NUMBER;
+            }
+            if (type.isEnum()) {
+                return Kind.ENUM;
+            }
+            return Kind.OTHER;
+        }
+
+        void write(Record record, JsonBuffer out) {
+            try {
+                switch (kind) {
+                    case INTEGRAL -> out.writeLong((long) accessor.invokeExact(record));
+                    case FLOATING -> out.writeDouble((double) accessor.invokeExact(record));
+                    case BOOLEAN -> out.writeBoolean((boolean) accessor.invokeExact(record));
+                    case CHAR -> out.writeString(String.valueOf((char) (long) accessor.invokeExact(record)));
+                    case STRING -> out.writeString((CharSequence) (Object) accessor.invokeExact(record));
+                    case NUMBER -> writeNumber((Number) (Object) accessor.invokeExact(record), out);
+                    case ENUM -> {
+                        Enum<?> value = (Enum<?>) (Object) accessor.invokeExact(record);
+                        out.writeString(value == null ? null : value.name());
+                    }
+                    default -> {
+                        Object value = (Object) accessor.invokeExact(record);
+                        out.writeString(value == null ? null : value.toString());
+                    }
+                }
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        Object value(Record record) {
+            try {
+                Object value = boxed.invokeExact(record);
+                return switch (kind) {
+                    case INTEGRAL, FLOATING, BOOLEAN, NUMBER -> value;
+                    case ENUM -> value == null ? null : ((Enum<?>) value).name();
+                    default -> value == null ? null : value.toString();
+                };
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        private static void writeNumber(Number value, JsonBuffer out) {
+            if (value == null) {
+                out.writeNull();
+            } else if (value instanceof Double || value instanceof Float) {
+                out.writeDouble(value.doubleValue());
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte) {
+                out.writeLong(value.longValue());
+            } else {
+                // BigDecimal, BigInteger and friends print as JSON numbers already
+                out.writeRaw(value.toString().getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+
+        private static RuntimeException rethrow(Throwable e) {
+            if (e instanceof RuntimeException runtime) {
+                return runtime;
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+            return new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.logbull.test.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer ring buffer.
+ *
+ * Each slot carries a sequence number that tells producers and consumers
+ * whether the slot is free for the current lap, so claiming a slot is a
+ * single CAS on the producer or consumer cursor and no lock is ever taken.
+ * Capacity is rounded up to a power of two.
+ */
+public final class RingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final AtomicLong consumerCursor = new AtomicLong();
+
+    public RingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element, returning false without waiting when the buffer is full.
+     */
+    public boolean offer(E element) {
+        long position = producerCursor.get();
+        int index;
+        for (;;) {
+            index = (int) (position & mask);
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (producerCursor.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = producerCursor.get();
+            } else if (lag < 0) {
+                return false;
+            } else {
+                position = producerCursor.get();
+            }
+        }
+        slots.set(index, element);
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Adds elements from {@code from} onwards as one contiguous run, claimed
+     * with a single CAS, so no other producer's element lands in between.
+     * Claims as many as there are free slots.
+     *
+     * @return number of elements added, 0 when the buffer is full
+     */
+    public int offerAll(List<? extends E> elements, int from) {
+        int wanted = elements.size() - from;
+        if (wanted <= 0) {
+            return 0;
+        }
+        long position = producerCursor.get();
+        int run;
+        for (;;) {
+            long lag = sequences.get((int) (position & mask)) - position;
+            if (lag < 0) {
+                return 0;
+            }
+            if (lag > 0) {
+                position = producerCursor.get();
+                continue;
+            }
+            // Slots ahead of the cursor only ever become free, so a run seen free stays free until claimed
+            run = 1;
+            while (run < wanted && sequences.get((int) ((position + run) & mask)) == position + run) {
+                run++;
+            }
+            if (producerCursor.compareAndSet(position, position + run)) {
+                break;
+            }
+            position = producerCursor.get();
+        }
+        for (int i = 0; i < run; i++) {
+            int index = (int) ((position + i) & mask);
+            slots.set(index, elements.get(from + i));
+            sequences.set(index, position + i + 1);
+        }
+        return run;
+    }
+
+    /**
+     * Removes the oldest element, or returns null when the buffer is empty.
+     */
+    public E poll() {
+        long position = consumerCursor.get();
+        int index;
+        for (;;) {
+            index = (int) (position & mask);
+            long lag = sequences.get(index) - (position + 1);
+            if (lag == 0) {
+                if (consumerCursor.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = consumerCursor.get();
+            } else if (lag < 0) {
+                return null;
+            } else {
+                position = consumerCursor.get();
+            }
+        }
+        E element = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + mask + 1);
+        return element;
+    }
+
+    /**
+     * Approximate number of elements; exact when no producer or consumer is active.
+     */
+    public int size() {
+        long size = producerCursor.get() - consumerCursor.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
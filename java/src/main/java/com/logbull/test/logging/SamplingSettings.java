@@ -0,0 +1,18 @@
+package com.logbull.test.logging;
+
+import java.time.Duration;
+
+/**
+ * Per-key sampling settings shared by the standalone logger and the starter's appender.
+ *
+ * @param enabled   whether events are rate-limited per key
+ * @param key       field (standalone) or MDC key (starter) to limit by, combined with the message template
+ * @param maxPerKey events kept per key in each window
+ * @param window    length of one rate-limit window
+ */
+public record SamplingSettings(
+        boolean enabled,
+        String key,
+        int maxPerKey,
+        Duration window) {
+}
@@ -0,0 +1,124 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * One LogBullLogger client per LogBull host, project and lane in the JVM.
+ *
+ * Each client owns its HTTP connections, sender thread and send queue, so
+ * every logger that builds its own pays for them again. Loggers that take
+ * their client from here share one; they keep their attribution by logging
+ * through {@link LogBullLogger#withContext(Map) context loggers}, which
+ * share the parent's sender.
+ *
+ * The first caller for a host and project builds the client, so its API key
+ * and level apply to all; build shared clients at the lowest level and gate
+ * in the front ends. Clients are reference-counted: every
+ * {@link #acquire acquire} is paired with a {@link #release release}, and
+ * the last release shuts the client down, so a closed application context
+ * does not leave its sender thread behind.
+ */
+public final class SharedTransports {
+
+    /**
+     * Lane of the client most events go through.
+     */
+    public static final String BULK = "bulk";
+
+    /**
+     * Lane of the client that only ERROR and CRITICAL events go through,
+     * kept apart so they do not queue behind the bulk client's backlog.
+     */
+    public static final String PRIORITY = "priority";
+
+    private static final Map<Key, Lease> CLIENTS = new ConcurrentHashMap<>();
+
+    private SharedTransports() {
+    }
+
+    /**
+     * The shared bulk client for the host and project, built with
+     * {@code factory} on first use.
+     */
+    public static LogBullLogger acquire(String host, String projectId, Supplier<LogBullLogger> factory) {
+        return acquire(host, projectId, BULK, factory);
+    }
+
+    /**
+     * The shared client for the host, project and lane, built with
+     * {@code factory} on first use.
+     *
+     * @throws IllegalArgumentException if the host is not an absolute http or https URL
+     */
+    public static LogBullLogger acquire(String host, String projectId, String lane, Supplier<LogBullLogger> factory) {
+        return CLIENTS.compute(Key.of(host, projectId, lane), (key, lease) -> {
+            Lease acquired = lease != null ? lease : new Lease(factory.get());
+            acquired.references++;
+            return acquired;
+        }).client;
+    }
+
+    /**
+     * Gives back a client from {@link #acquire}; the last holder's release
+     * shuts it down. Clients this class did not hand out are ignored.
+     */
+    public static void release(LogBullLogger client) {
+        for (Map.Entry<Key, Lease> entry : CLIENTS.entrySet()) {
+            if (entry.getValue().client != client) {
+                continue;
+            }
+            Lease remaining = CLIENTS.computeIfPresent(entry.getKey(),
+                    (key, lease) -> lease.client != client || --lease.references > 0 ? lease : null);
+            if (remaining == null) {
+                client.shutdown();
+            }
+            return;
+        }
+    }
+
+    /**
+     * Number of distinct clients currently handed out.
+     */
+    public static int clientCount() {
+        return CLIENTS.size();
+    }
+
+    /**
+     * A shared client and the number of holders; only changed inside the
+     * map's compute calls.
+     */
+    private static final class Lease {
+
+        final LogBullLogger client;
+        int references;
+
+        Lease(LogBullLogger client) {
+            this.client = client;
+        }
+    }
+
+    /**
+     * Host, project and lane a client sends to; {@code http://Host:80/} and
+     * {@code http://host} are the same host.
+     */
+    private record Key(String host, String projectId, String lane) {
+
+        static Key of(String host, String projectId, String lane) {
+            URI uri = URI.create(host.strip());
+            String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            // Without a scheme, "localhost:4005" parses with "localhost" as the scheme
+            if (!scheme.equals("http") && !scheme.equals("https") || uri.getHost() == null) {
+                throw new IllegalArgumentException(
+                        "LogBull host must be an absolute http or https URL such as http://localhost:4005, was: " + host);
+            }
+            int port = uri.getPort() != -1 ? uri.getPort() : scheme.equals("https") ? 443 : 80;
+            return new Key(scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + ":" + port, projectId, lane);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.logbull.test.logging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Keeps events on disk while the LogBull host is unreachable, and replays
+ * them once it is back.
+ *
+ * Whether the host is up comes from a {@link HostMonitor}, either the one
+ * the pipeline's circuit breaker uses or, when none is given, one of the
+ * spooler's own that opens on the first failed probe and probes again every
+ * probe interval. While it is unavailable, {@link PipelineLogger} writes
+ * events to a {@link LogSpool} instead of handing them to LogBullLogger,
+ * which would otherwise lose them; the async buffer also spills overflow
+ * here. When the host is available again, a background thread replays
+ * spooled events oldest first through the root LogBullLogger, at no more
+ * than the configured rate so a recovering server is not flooded.
+ *
+ * Replayed events keep their order among themselves but arrive after live
+ * events logged since the host came back. The client stamps them with the
+ * time they are replayed, so the time they were logged is kept in the spool
+ * and sent as the {@value #LOGGED_AT_FIELD} field, an ISO-8601 instant. Events already handed to the
+ * LogBull client before the outage was detected are not covered.
+ */
+public final class Spooler implements AutoCloseable {
+
+    /**
+     * Field carrying the time a replayed event was logged.
+     */
+    public static final String LOGGED_AT_FIELD = "logged_at";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LogSpool spool;
+    private final Supplier<LogBullLogger> target;
+    private final HostMonitor monitor;
+    private final boolean ownsMonitor;
+    private final long probeIntervalNanos;
+    private final long replayIntervalNanos;
+    private final Thread replayer;
+
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile boolean running = true;
+
+    private Spooler(Builder builder) {
+        this.spool = LogSpool.open(builder.directory, builder.maxBytes, builder.segmentBytes);
+        this.target = builder.target;
+        this.ownsMonitor = builder.monitor == null;
+        this.monitor = ownsMonitor ? HostMonitor.builder()
+                .name("spool-" + builder.name)
+                .host(builder.host)
+                .projectId(builder.projectId)
+                .apiKey(builder.apiKey)
+                .failureThreshold(1)
+                .probeInterval(builder.probeInterval)
+                .probeTimeout(Duration.ofMillis(Math.max(1, Math.min(builder.probeInterval.toMillis(), 1000))))
+                .initialBackoff(builder.probeInterval)
+                .maxBackoff(builder.probeInterval)
+                .build() : builder.monitor;
+        this.probeIntervalNanos = builder.probeInterval.toNanos();
+        this.replayIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, builder.replayRate);
+        this.replayer = new Thread(this::run, "logbull-spool-" + builder.name);
+        this.replayer.setDaemon(true);
+        this.replayer.start();
+    }
+
+    public static Builder builder(LogBullLogger target) {
+        return new Builder(() -> target);
+    }
+
+    /**
+     * Builder for a spooler that replays through a client built on first
+     * use, for pipelines whose LogBullLogger is built lazily.
+     */
+    public static Builder builder(Supplier<LogBullLogger> target) {
+        return new Builder(target);
+    }
+
+    /**
+     * False while the host monitor's breaker is not closed.
+     */
+    public boolean hostReachable() {
+        return monitor.available();
+    }
+
+    public HostMonitor monitor() {
+        return monitor;
+    }
+
+    /**
+     * Writes the event, with its context, to the spool.
+     *
+     * @return false if the event could not be serialized or is larger than a segment
+     */
+    public boolean write(LogEvent event) {
+        try {
+            byte[] record = MAPPER.writeValueAsBytes(
+                    new SpooledEvent(event.level().name(), event.message(), event.allFields(), event.timestamp()));
+            if (spool.append(record)) {
+                return true;
+            }
+        } catch (JsonProcessingException e) {
+            // Field values Jackson cannot write; counted below
+        }
+        rejected.increment();
+        return false;
+    }
+
+    private void run() {
+        while (running) {
+            if (monitor.available() && spool.pendingCount() > 0) {
+                replayWhileReachable();
+            } else {
+                LockSupport.parkNanos(probeIntervalNanos);
+            }
+        }
+    }
+
+    private void replayWhileReachable() {
+        long next = System.nanoTime();
+        while (running && monitor.available()) {
+            byte[] record = spool.poll();
+            if (record == null) {
+                return;
+            }
+            replay(record);
+
+            next += replayIntervalNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                // Behind schedule; do not burst to catch up
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    private void replay(byte[] record) {
+        try {
+            SpooledEvent spooled = MAPPER.readValue(record, SpooledEvent.class);
+            Map<String, Object> fields = spooled.fields() == null ? new LinkedHashMap<>()
+                    : new LinkedHashMap<>(spooled.fields());
+            // Records spooled before the time was kept have none
+            if (spooled.timestamp() > 0) {
+                fields.put(LOGGED_AT_FIELD, Instant.ofEpochMilli(spooled.timestamp()).toString());
+            }
+            new LogEvent(target.get(), LogLevel.valueOf(spooled.level()), spooled.message(), fields, null,
+                    spooled.timestamp()).deliver();
+            replayed.increment();
+        } catch (IOException | RuntimeException e) {
+            rejected.increment();
+        }
+    }
+
+    public LogSpool spool() {
+        return spool;
+    }
+
+    public long replayedCount() {
+        return replayed.sum();
+    }
+
+    /**
+     * Events that could not be spooled or replayed.
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Stops probing and replaying. Events still in the spool are kept on disk
+     * and replayed by the next run.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(replayer);
+        try {
+            replayer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (ownsMonitor) {
+            monitor.close();
+        }
+        spool.close();
+    }
+
+    /**
+     * What a spool record holds: the event with its context already merged
+     * in, and the epoch millis it was logged at.
+     */
+    private record SpooledEvent(String level, String message, Map<String, Object> fields, long timestamp) {
+    }
+
+    /**
+     * Builder for {@link Spooler}.
+     */
+    public static final class Builder {
+
+        private final Supplier<LogBullLogger> target;
+        private String name = "standalone";
+        private String host;
+        private String projectId;
+        private String apiKey;
+        private Path directory;
+        private long maxBytes = 256L * 1024 * 1024;
+        private int segmentBytes = 16 * 1024 * 1024;
+        private int replayRate = 2000;
+        private Duration probeInterval = Duration.ofSeconds(1);
+        private HostMonitor monitor;
+
+        private Builder(Supplier<LogBullLogger> target) {
+            this.target = target;
+        }
+
+        /**
+         * Name used for the replay thread.
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * LogBull host URL to probe, e.g. {@code http://localhost:4005}.
+         */
+        public Builder host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * Project whose ingest endpoint the spooler's own monitor probes.
+         */
+        public Builder projectId(String projectId) {
+            this.projectId = projectId;
+            return this;
+        }
+
+        /**
+         * API key for the spooler's own monitor's probes; none when unset.
+         */
+        public Builder apiKey(String apiKey) {
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        public Builder directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Upper bound for the spool on disk; the oldest segments are evicted beyond it.
+         */
+        public Builder maxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        public Builder segmentBytes(int segmentBytes) {
+            this.segmentBytes = segmentBytes;
+            return this;
+        }
+
+        /**
+         * Maximum events replayed per second once the host is back.
+         */
+        public Builder replayRate(int replayRate) {
+            this.replayRate = replayRate;
+            return this;
+        }
+
+        /**
+         * How often the spooler's own monitor probes the host, and how often
+         * an idle spooler checks for events to replay.
+         */
+        public Builder probeInterval(Duration probeInterval) {
+            this.probeInterval = probeInterval;
+            return this;
+        }
+
+        /**
+         * Host monitor to follow instead of probing on its own, e.g. the one
+         * the pipeline's circuit breaker uses; it is not closed with the spooler.
+         */
+        public Builder monitor(HostMonitor monitor) {
+            this.monitor = monitor;
+            return this;
+        }
+
+        public Spooler build() {
+            if (((host == null || projectId == null) && monitor == null) || directory == null) {
+                throw new IllegalStateException("host and projectId or monitor, and directory are required");
+            }
+            return new Spooler(this);
+        }
+    }
+}
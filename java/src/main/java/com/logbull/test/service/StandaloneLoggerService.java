@@ -1,51 +1,112 @@
 package com.logbull.test.service;
 
-import com.logbull.LogBullLogger;
+import com.logbull.test.logging.PipelineLogger;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Service demonstrating standalone LogBullLogger usage.
+ * Logs through {@link PipelineLogger}, which hands events to the
+ * configured LogBullLogger bean.
  */
 @Service
 public class StandaloneLoggerService {
 
-        private final LogBullLogger logger;
-
-        public StandaloneLoggerService(LogBullLogger logger) {
+        // Fields that never change are built once instead of per log call
+        private static final Map<String, Object> ORDER_PROCESSING_CONTEXT = Map.of(
+                        "service", "order_processing");
+        private static final ValidationEvent VALIDATION = new ValidationEvent("check_inventory");
+        private static final PaymentEvent PAYMENT = new PaymentEvent("credit_card", 99.99);
+        private static final CompletionEvent COMPLETION = new CompletionEvent("completed", 1250);
+        private static final Map<String, Object> CHAINED_CONTEXT = Map.of(
+                        "feature", "context_chaining",
+                        "level", "nested");
+        private static final Map<String, Object> WARNING_FIELDS = Map.of(
+                        "warning_code", "W001",
+                        "warning_type", "demonstration");
+
+        private final PipelineLogger logger;
+        private final PipelineLogger orderProcessingLogger;
+        private final ForkJoinPool bulkPool;
+
+        public StandaloneLoggerService(PipelineLogger logger,
+                        @Value("${logbull.bulk.parallelism:4}") int bulkParallelism) {
                 this.logger = logger;
+                this.orderProcessingLogger = logger.withSharedContext(ORDER_PROCESSING_CONTEXT);
+                this.bulkPool = new ForkJoinPool(bulkParallelism);
+        }
+
+        /**
+         * An order of a bulk request.
+         */
+        public record Order(String orderId, String userId) {
+        }
+
+        /**
+         * Fields of the order validation event, logged as {@code validation_step}.
+         */
+        public record ValidationEvent(String validationStep) {
+        }
+
+        /**
+         * Fields of the payment event, logged as {@code payment_method} and {@code amount}.
+         */
+        public record PaymentEvent(String paymentMethod, double amount) {
+        }
+
+        /**
+         * Fields of the order completion event, logged as {@code status} and {@code processing_time_ms}.
+         */
+        public record CompletionEvent(String status, int processingTimeMs) {
         }
 
         /**
          * Process an order and log with standalone logger.
          */
         public void processOrder(String orderId, String userId) {
-                // Create a logger with context for this transaction
-                LogBullLogger transactionLogger = logger.withContext(Map.of(
+                processOrder(orderProcessingLogger, orderId, userId);
+        }
+
+        /**
+         * Process orders in parallel on the bounded bulk pool. The events of
+         * all orders are collected and enqueued as one batch once every
+         * order is done, instead of one at a time.
+         */
+        public void processOrders(List<Order> orders) {
+                try (PipelineLogger.Batch batch = logger.batch()) {
+                        PipelineLogger bulkLogger = batch.logger().withSharedContext(ORDER_PROCESSING_CONTEXT);
+                        bulkPool.submit(() -> orders.parallelStream()
+                                        .forEach(order -> processOrder(bulkLogger, order.orderId(), order.userId())))
+                                        .join();
+                }
+        }
+
+        private void processOrder(PipelineLogger serviceLogger, String orderId, String userId) {
+                // Create a logger with context for this transaction, adding only
+                // the per-order fields on top of the shared service context
+                PipelineLogger transactionLogger = serviceLogger.withContext(Map.of(
                                 "order_id", orderId,
-                                "user_id", userId,
-                                "service", "order_processing"));
+                                "user_id", userId));
 
                 transactionLogger.info("[java] Starting order processing");
 
                 try {
                         // Simulate order validation
-                        transactionLogger.debug("[java] Validating order", Map.of(
-                                        "validation_step", "check_inventory"));
+                        transactionLogger.debug("[java] Validating order", VALIDATION);
 
                         // Simulate payment processing
-                        transactionLogger.info("[java] Processing payment", Map.of(
-                                        "payment_method", "credit_card",
-                                        "amount", 99.99));
+                        transactionLogger.info("[java] Processing payment", PAYMENT);
 
                         // Simulate order completion
-                        transactionLogger.info("[java] Order processed successfully", Map.of(
-                                        "status", "completed",
-                                        "processing_time_ms", 1250));
+                        transactionLogger.info("[java] Order processed successfully", COMPLETION);
 
                 } catch (Exception e) {
-                        transactionLogger.error("[java] Order processing failed", Map.of(
+                        transactionLogger.error("[java] Order processing failed", () -> Map.of(
                                         "error_type", e.getClass().getSimpleName(),
                                         "error_message", e.getMessage()));
                 }
@@ -56,30 +117,32 @@ public class StandaloneLoggerService {
          */
         public void logCombinedTest(String sessionId) {
                 // Create session logger
-                LogBullLogger sessionLogger = logger.withContext(Map.of(
+                PipelineLogger sessionLogger = logger.withContext(Map.of(
                                 "session_id", sessionId,
                                 "test_type", "combined"));
 
                 sessionLogger.info("[java] Combined test - Using Standalone Logger");
 
                 // Add more context
-                LogBullLogger detailedLogger = sessionLogger.withContext(Map.of(
-                                "feature", "context_chaining",
-                                "level", "nested"));
+                PipelineLogger detailedLogger = sessionLogger.withContext(CHAINED_CONTEXT);
 
                 detailedLogger.debug("[java] Demonstrating context chaining");
-                detailedLogger.warning("[java] This is a warning with chained context", Map.of(
-                                "warning_code", "W001",
-                                "warning_type", "demonstration"));
+                detailedLogger.warning("[java] This is a warning with chained context", WARNING_FIELDS);
         }
 
         /**
          * Demonstrates critical logging.
          */
         public void logCriticalEvent(String eventType, Map<String, Object> eventData) {
-                logger.critical("[java] Critical event occurred", Map.of(
+                // Fields are built, and eventData rendered, only if CRITICAL is enabled
+                logger.critical("[java] Critical event occurred", () -> Map.of(
                                 "event_type", eventType,
                                 "event_data", eventData.toString(),
                                 "requires_immediate_attention", true));
         }
+
+        @PreDestroy
+        void shutdownBulkPool() {
+                bulkPool.shutdown();
+        }
 }
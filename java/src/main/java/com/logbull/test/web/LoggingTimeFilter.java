@@ -0,0 +1,64 @@
+package com.logbull.test.web;
+
+import com.logbull.test.logging.LoggingTime;
+import com.logbull.test.logging.LoggingTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Measures, for every /api/logs/* request, how long the request took and how
+ * much of that its thread spent in logging calls, and records both in
+ * {@link LoggingTimings} under the handler's method and route pattern, e.g.
+ * {@code POST /api/logs/standalone}. On with logbull.logging-time.enabled=true.
+ *
+ * Runs right after {@link MdcRequestFilter}, so the MDC work is counted as
+ * request time, not logging time.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "logbull.logging-time.enabled", havingValue = "true")
+public class LoggingTimeFilter extends OncePerRequestFilter {
+
+    private static final String PATH_PREFIX = "/api/logs/";
+
+    private final LoggingTimings timings;
+
+    public LoggingTimeFilter(LoggingTimings loggingTimings) {
+        this.timings = loggingTimings;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith(PATH_PREFIX) || path.equals(PATH_PREFIX + "logging-time");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LoggingTime.open();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long requestNanos = System.nanoTime() - start;
+            long loggingNanos = LoggingTime.close();
+            timings.record(endpoint(request), requestNanos, loggingNanos, LoggingTime.calls());
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmatched");
+    }
+}
@@ -0,0 +1,45 @@
+package com.logbull.test.web;
+
+import com.logbull.test.logging.LoggingTime;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Adds the logging time measured by {@link LoggingTimeFilter} so far to
+ * response bodies as {@code Server-Timing: logging;dur=<ms>;desc="<n> calls"},
+ * with logbull.logging-time.enabled=true and logbull.logging-time.header=true.
+ *
+ * The header is added just before the body is written, so it covers the
+ * handler's logging calls but not anything logged after the response is
+ * committed.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = {"logbull.logging-time.enabled", "logbull.logging-time.header"}, havingValue = "true")
+public class LoggingTimeHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (LoggingTime.measuring()) {
+            response.getHeaders().add(HEADER, String.format(Locale.ROOT, "logging;dur=%.3f;desc=\"%d calls\"",
+                    LoggingTime.nanos() / 1_000_000.0, LoggingTime.calls()));
+        }
+        return body;
+    }
+}
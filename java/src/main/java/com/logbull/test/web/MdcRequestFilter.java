@@ -0,0 +1,92 @@
+package com.logbull.test.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sets the request-scoped MDC once per request, so handlers no longer put
+ * and clear {@code request_id} themselves.
+ *
+ * {@value #REQUEST_ID_KEY} is taken from the request id header when the
+ * caller sends a usable one, generated otherwise, and echoed in the response.
+ * Headers listed in logbull.mdc.headers as {@code Header=mdc_key} are copied
+ * to the MDC when present.
+ *
+ * When the request completes, the filter removes the keys it set rather than
+ * clearing the MDC, so a pooled thread keeps reusing its MDC map instead of
+ * allocating a new one per request. Handlers that put keys of their own
+ * remove them the same way, or they would carry over to the thread's next request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MdcRequestFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_KEY = "request_id";
+
+    private static final int MAX_REQUEST_ID_LENGTH = 128;
+
+    private final String requestIdHeader;
+    private final String[] headerNames;
+    private final String[] mdcKeys;
+
+    public MdcRequestFilter(
+            @Value("${logbull.mdc.request-id-header:X-Request-Id}") String requestIdHeader,
+            @Value("${logbull.mdc.headers:}") List<String> headers) {
+        this.requestIdHeader = requestIdHeader;
+        // Parsed once here so a request only does header lookups
+        List<String[]> mappings = headers.stream()
+                .map(String::trim)
+                .filter(mapping -> !mapping.isEmpty())
+                .map(mapping -> mapping.split("=", 2))
+                .toList();
+        this.headerNames = new String[mappings.size()];
+        this.mdcKeys = new String[mappings.size()];
+        for (int i = 0; i < mappings.size(); i++) {
+            String[] mapping = mappings.get(i);
+            if (mapping.length != 2 || mapping[0].isBlank() || mapping[1].isBlank()) {
+                throw new IllegalArgumentException("logbull.mdc.headers entries must be Header=mdc_key, got "
+                        + String.join("=", mapping));
+            }
+            headerNames[i] = mapping[0].trim();
+            mdcKeys[i] = mapping[1].trim();
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(requestIdHeader);
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(REQUEST_ID_KEY, requestId);
+        for (int i = 0; i < headerNames.length; i++) {
+            String value = request.getHeader(headerNames[i]);
+            if (value != null) {
+                MDC.put(mdcKeys[i], value);
+            }
+        }
+        response.setHeader(requestIdHeader, requestId);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_KEY);
+            for (String mdcKey : mdcKeys) {
+                MDC.remove(mdcKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.logbull.test;
+
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+import com.logbull.test.load.LoadDriver;
+import com.logbull.test.load.LoadDriver.LoadResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares N single POST /api/logs/standalone requests with the same N
+ * orders sent as POST /api/logs/standalone/bulk requests: order throughput,
+ * request latency and the number of HTTP sends that reach the ingest stand-in.
+ *
+ * Run with: ./gradlew loadTest --tests '*BulkOrdersLoadTests' [-Dloadtest.bulk.orders=5000 -Dloadtest.bulk.size=250]
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BulkOrdersLoadTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final int ORDERS = Integer.getInteger("loadtest.bulk.orders", 2000);
+    private static final int BULK_SIZE = Integer.getInteger("loadtest.bulk.size", 100);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(Long.getLong("loadtest.drain-seconds", 30));
+
+    // processOrder logs start, validation (DEBUG), payment and completion
+    private static final int EVENTS_PER_ORDER = 4;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> "12345678-1234-1234-1234-123456789012");
+        registry.add("logbull.log-level", () -> "INFO");
+        registry.add("logbull.async.enabled", () -> "true");
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Bulk - N single requests versus N/size bulk requests")
+    void comparesSingleAndBulk() {
+        BulkResult single = measure("single", ORDERS, index -> {
+            String orderId = "single_order_" + index;
+            post("/api/logs/standalone", order(orderId, index));
+            return orderId;
+        });
+
+        int bulkRequests = ORDERS / BULK_SIZE;
+        BulkResult bulk = measure("bulk-" + BULK_SIZE, bulkRequests, index -> {
+            StringJoiner orders = new StringJoiner(",", "[", "]");
+            for (int i = 0; i < BULK_SIZE; i++) {
+                int order = index * BULK_SIZE + i;
+                orders.add(order("bulk_order_" + order, order));
+            }
+            post("/api/logs/standalone/bulk", orders.toString());
+            return null;
+        });
+
+        System.out.println("[load] " + single);
+        System.out.println("[load] " + bulk);
+        assertThat(single.load().failures()).isZero();
+        assertThat(bulk.load().failures()).isZero();
+        assertThat(single.events()).isEqualTo(ORDERS * EVENTS_PER_ORDER);
+        assertThat(bulk.events()).isEqualTo(bulkRequests * BULK_SIZE * EVENTS_PER_ORDER);
+    }
+
+    private BulkResult measure(String name, int requests, LoadDriver.Call call) {
+        INGEST.reset();
+        LoadResult load = LoadDriver.run(name, CONCURRENCY, requests, call);
+        int orders = name.equals("single") ? requests : requests * BULK_SIZE;
+        List<ReceivedLog> logs = INGEST.awaitEvents(log -> log.field("order_id") != null,
+                orders * EVENTS_PER_ORDER, DRAIN_TIMEOUT);
+        return new BulkResult(load, orders, logs.size(), INGEST.requestCount());
+    }
+
+    private static String order(String orderId, int index) {
+        return "{\"order_id\":\"" + orderId + "\",\"user_id\":\"load_user_" + index % 100 + "\"}";
+    }
+
+    private void post(String path, String json) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+    }
+
+    private record BulkResult(LoadResult load, int orders, int events, long ingestRequests) {
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%-10s requests=%d orders=%d throughput=%.0f orders/s latency p50=%.2fms p99=%.2fms"
+                            + " events=%d ingest-requests=%d",
+                    load.name(), load.requests(), orders,
+                    orders * (double) TimeUnit.SECONDS.toNanos(1) / load.elapsedNanos(),
+                    load.latencyPercentileMillis(50), load.latencyPercentileMillis(99),
+                    events, ingestRequests);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.logbull.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.load.LoadDriver;
+import com.logbull.test.load.LoadDriver.DeliveryReport;
+import com.logbull.test.load.LoadDriver.LoadResult;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load tests for the /api/logs endpoints against the in-process ingest stand-in.
+ *
+ * Run with: ./gradlew loadTest [-Dloadtest.concurrency=32 -Dloadtest.requests=5000]
+ *
+ * Each test reports request throughput and latency, log delivery latency
+ * (request start to arrival at the stand-in) and the loss rate.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LogEndpointsLoadTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 2000);
+    private static final double MAX_LOSS = Double.parseDouble(System.getProperty("loadtest.max-loss", "0.0"));
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(Long.getLong("loadtest.drain-seconds", 30));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> "12345678-1234-1234-1234-123456789012");
+        registry.add("logbull.log-level", () -> "INFO");
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @BeforeEach
+    void resetIngest() {
+        INGEST.reset();
+    }
+
+    @Test
+    @DisplayName("Load - Spring Boot Starter endpoint")
+    void springBootStarterUnderLoad() {
+        LoadResult load = LoadDriver.run("spring-boot-starter", CONCURRENCY, REQUESTS, index -> {
+            JsonNode response = get("/api/logs/spring-boot-starter?username=load_user_" + index);
+            return response.get("request_id").asText();
+        });
+
+        // INFO "Request received" and INFO "Request processed successfully"
+        assertDelivered(load.deliveredTo(INGEST, "request_id", 2, DRAIN_TIMEOUT));
+    }
+
+    @Test
+    @DisplayName("Load - Standalone logger endpoint")
+    void standaloneUnderLoad() {
+        LoadResult load = LoadDriver.run("standalone", CONCURRENCY, REQUESTS, index -> {
+            String orderId = "load_order_" + index;
+            post("/api/logs/standalone", "{\"order_id\":\"" + orderId + "\",\"user_id\":\"load_user_" + index + "\"}");
+            return orderId;
+        });
+
+        // processOrder logs start, validation (DEBUG), payment and completion
+        assertDelivered(load.deliveredTo(INGEST, "order_id", 4, DRAIN_TIMEOUT));
+    }
+
+    @Test
+    @DisplayName("Load - Combined endpoint")
+    void combinedUnderLoad() {
+        LoadResult load = LoadDriver.run("combined", CONCURRENCY, REQUESTS,
+                index -> get("/api/logs/combined").get("session_id").asText());
+
+        // One starter event plus info, debug and warning from logCombinedTest
+        assertDelivered(load.deliveredTo(INGEST, "session_id", 4, DRAIN_TIMEOUT));
+    }
+
+    private void assertDelivered(DeliveryReport report) {
+        System.out.println("[load] " + report);
+        assertThat(report.load().failures()).isZero();
+        assertThat(report.lossRate()).isLessThanOrEqualTo(MAX_LOSS);
+    }
+
+    private JsonNode get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET().build());
+    }
+
+    private JsonNode post(String path, String json) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    private JsonNode send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,96 @@
+package com.logbull.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the NDJSON streaming endpoint, delivering to the in-process ingest stand-in.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LogStreamControllerTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(10);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> "12345678-1234-1234-1234-123456789012");
+        registry.add("logbull.async.enabled", () -> "true");
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @BeforeEach
+    void resetIngest() {
+        INGEST.reset();
+    }
+
+    @Test
+    @DisplayName("Stream - forwards valid lines and counts the rest as rejected")
+    void testForwardsLines() throws Exception {
+        String body = """
+                {"level":"INFO","message":"[edge] request served","fields":{"edge_id":"edge_1","status":200}}
+                {"level":"warn","message":"[edge] slow upstream","fields":{"edge_id":"edge_1"}}
+                {"level":"TRACE","message":"[edge] unknown level"}
+                {"level":"ERROR","message":"[edge] wrong shape","fields":"not an object"}
+                {"level":"ERROR"}
+                {"level":"ERROR","message":"[edge] upstream failed","fields":{"edge_id":"edge_1"}}
+                """;
+
+        HttpResponse<String> response = post(body);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode result = MAPPER.readTree(response.body());
+        assertThat(result.get("accepted").asLong()).isEqualTo(3);
+        assertThat(result.get("rejected").asLong()).isEqualTo(3);
+
+        List<ReceivedLog> logs = INGEST.awaitEvents(log -> "edge_1".equals(log.field("edge_id")), 3, DELIVERY_TIMEOUT);
+        assertThat(logs).extracting(ReceivedLog::level).containsExactlyInAnyOrder("INFO", "WARNING", "ERROR");
+        assertThat(logs).allSatisfy(log -> assertThat(log.field("source")).isEqualTo("ndjson_stream"));
+    }
+
+    @Test
+    @DisplayName("Stream - a body that is not JSON is rejected with 400")
+    void testMalformedBody() throws Exception {
+        HttpResponse<String> response = post("{\"level\":\"INFO\",\"message\":\"ok\"}\n{not json\n");
+
+        assertThat(response.statusCode()).isEqualTo(400);
+    }
+
+    private HttpResponse<String> post(String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/logs/stream"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,190 @@
+package com.logbull.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.logging.AsyncDispatcher;
+import com.logbull.test.logging.LogEvent;
+import com.logbull.test.logging.PipelineLogger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams millions of NDJSON lines through POST /api/logs/stream to the
+ * ingest stand-in as one chunked upload, and checks that nothing is lost
+ * and the heap does not grow with the upload.
+ *
+ * A small async buffer makes the request thread wait on delivery, so the
+ * upload is throttled rather than buffered. LogBullLogger's own sender queue
+ * is not visible to the pipeline, so the peak heap includes whatever backlog
+ * the client builds up; the assertion is on heap retained once the stand-in
+ * has caught up.
+ *
+ * Run with: ./gradlew loadTest --tests '*LogStreamLoadTests' [-Dloadtest.stream.lines=5000000]
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LogStreamLoadTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.ACCEPT);
+
+    private static final long LINES = Long.getLong("loadtest.stream.lines", 2_000_000);
+    private static final long MAX_HEAP_GROWTH_MB = Long.getLong("loadtest.stream.max-heap-growth-mb", 64);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(Long.getLong("loadtest.stream.drain-seconds", 180));
+    private static final long QUIET_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PipelineLogger pipelineLogger;
+
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> "12345678-1234-1234-1234-123456789012");
+        registry.add("logbull.async.enabled", () -> "true");
+        registry.add("logbull.async.capacity", () -> "1024");
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Stream - millions of lines with flat memory")
+    void streamsMillionsOfLines() throws Exception {
+        AsyncDispatcher<LogEvent> dispatcher = pipelineLogger.dispatcher();
+        long deliveredBefore = dispatcher.deliveredCount();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 50, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/logs/stream"))
+                            .header("Content-Type", "application/x-ndjson")
+                            .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new NdjsonLines(LINES)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } finally {
+            sampler.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        awaitIngestQuiet(dispatcher, deliveredBefore);
+        System.gc();
+        long heapGrowth = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+
+        System.out.printf("[load] stream lines=%d throughput=%.0f lines/s body=%.0fMB ingest-requests=%d"
+                        + " peak-heap=%dMB retained-growth=%dMB%n",
+                LINES, LINES * (double) TimeUnit.SECONDS.toNanos(1) / elapsed,
+                NdjsonLines.LINE_BYTES * LINES / 1024.0 / 1024.0, INGEST.requestCount(),
+                peakHeap.get() / (1024 * 1024), heapGrowth / (1024 * 1024));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode result = MAPPER.readTree(response.body());
+        assertThat(result.get("accepted").asLong()).isEqualTo(LINES);
+        assertThat(dispatcher.deliveredCount() - deliveredBefore).isEqualTo(LINES);
+        assertThat(dispatcher.droppedCount()).isZero();
+        assertThat(heapGrowth).isLessThan(MAX_HEAP_GROWTH_MB * 1024 * 1024);
+    }
+
+    /**
+     * Waits until the pipeline has delivered every line and the stand-in has
+     * seen no new request for a second, i.e. the client's backlog is sent.
+     */
+    private static void awaitIngestQuiet(AsyncDispatcher<LogEvent> dispatcher, long deliveredBefore)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        long lastRequests = -1;
+        long quietSince = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            long requests = INGEST.requestCount();
+            if (requests != lastRequests) {
+                lastRequests = requests;
+                quietSince = System.nanoTime();
+            } else if (dispatcher.deliveredCount() - deliveredBefore >= LINES
+                    && System.nanoTime() - quietSince > QUIET_NANOS) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Generates NDJSON lines on demand, so the client never holds the body either.
+     */
+    private static final class NdjsonLines extends InputStream {
+
+        private static final byte[] LINE = ("{\"level\":\"INFO\",\"message\":\"[edge] request served\","
+                + "\"fields\":{\"edge_id\":\"edge_1\",\"status\":200,\"duration_ms\":12}}\n")
+                .getBytes(StandardCharsets.UTF_8);
+        static final int LINE_BYTES = LINE.length;
+
+        private long remaining;
+        private int offset;
+
+        NdjsonLines(long lines) {
+            this.remaining = lines;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0];
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int written = 0;
+            while (written < len && remaining > 0) {
+                int chunk = Math.min(len - written, LINE.length - offset);
+                System.arraycopy(LINE, offset, buffer, off + written, chunk);
+                written += chunk;
+                offset += chunk;
+                if (offset == LINE.length) {
+                    offset = 0;
+                    remaining--;
+                }
+            }
+            return written;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.logbull.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.test.ingest.LocalIngestServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for GET /api/logs/logging-time and the Server-Timing header with
+ * logbull.logging-time.enabled=true.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoggingTimeControllerTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.DISCARD);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> "12345678-1234-1234-1234-123456789012");
+        registry.add("logbull.logging-time.enabled", () -> "true");
+        registry.add("logbull.logging-time.header", () -> "true");
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Logging time - per-endpoint percentiles and a Server-Timing header for each request")
+    void testLoggingTimePerEndpoint() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/logs/standalone"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"order_id\":\"order_" + i + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.headers().firstValue("Server-Timing"))
+                    .hasValueSatisfying(value -> assertThat(value).matches("logging;dur=\\d+\\.\\d{3};desc=\"\\d+ calls\""));
+        }
+        assertThat(client.send(HttpRequest.newBuilder(uri("/api/logs/combined")).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/logs/logging-time")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode endpoints = MAPPER.readTree(response.body()).get("endpoints");
+
+        JsonNode standalone = endpoints.get("POST /api/logs/standalone");
+        assertThat(standalone.get("requests").asLong()).isEqualTo(3);
+        assertThat(standalone.get("logging_calls_per_request").asDouble()).isGreaterThanOrEqualTo(4);
+        assertThat(standalone.get("logging_share").asDouble()).isBetween(0.0, 1.0);
+        assertThat(standalone.get("logging_us").get("p999").asLong())
+                .isLessThanOrEqualTo(standalone.get("request_us").get("p999").asLong());
+        assertThat(endpoints.has("GET /api/logs/combined")).isTrue();
+        assertThat(endpoints.has("GET /api/logs/logging-time")).isFalse();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,151 @@
+package com.logbull.test;
+
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+import com.logbull.test.logging.OverflowPolicy;
+import com.logbull.test.logging.PipelineLogger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures how long CRITICAL events take to reach the ingest stand-in while
+ * a DEBUG flood runs faster than the LogBull client can send, once with a
+ * single lane and once with the ERROR/CRITICAL priority lane and its own client.
+ *
+ * In a single lane the critical events queue behind the flood's backlog;
+ * in the priority lane they should arrive within about one client send interval.
+ *
+ * Run with: ./gradlew loadTest --tests '*PriorityLaneLoadTests' [-Dloadtest.priority.flood-rate=80000]
+ */
+@Tag("load")
+class PriorityLaneLoadTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+
+    private static final String PROJECT_ID = "12345678-1234-1234-1234-123456789012";
+    private static final int FLOOD_RATE = Integer.getInteger("loadtest.priority.flood-rate", 40_000);
+    private static final int FLOOD_THREADS = 4;
+    private static final Duration FLOOD_DURATION = Duration.ofSeconds(Long.getLong("loadtest.priority.seconds", 5));
+    private static final int CRITICAL_EVENTS = 50;
+    private static final long MAX_PRIORITY_P99_MILLIS = Long.getLong("loadtest.priority.max-p99-ms", 1000);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Priority lane - CRITICAL latency stays low during a DEBUG flood")
+    void criticalLatencyDuringFlood() throws Exception {
+        LaneResult singleLane = measure("single-lane", 0);
+        LaneResult priorityLane = measure("priority-lane", 1024);
+
+        System.out.println("[load] " + singleLane);
+        System.out.println("[load] " + priorityLane);
+        // A single lane may drop critical events behind the flood; the priority lane must not
+        assertThat(singleLane.latencies()).isNotEmpty();
+        assertThat(priorityLane.latencies()).hasSize(CRITICAL_EVENTS);
+        assertThat(priorityLane.percentileMillis(99)).isLessThan(MAX_PRIORITY_P99_MILLIS);
+        assertThat(priorityLane.percentileMillis(50)).isLessThan(singleLane.percentileMillis(50));
+    }
+
+    /**
+     * Runs the flood with critical events spread over it.
+     *
+     * @return emit-to-arrival latencies of the critical events that arrived
+     */
+    private static LaneResult measure(String run, int priorityCapacity) throws InterruptedException {
+        PipelineLogger logger = PipelineLogger.builder()
+                .logger(client())
+                .name(run)
+                .asyncCapacity(8192)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .priorityCapacity(priorityCapacity)
+                .priorityLogger(priorityCapacity > 0 ? client() : null)
+                .build();
+        PipelineLogger floodLogger = logger.withContext(Map.of("run", run, "source", "flood"));
+        PipelineLogger criticalLogger = logger.withContext(Map.of("run", run));
+
+        long end = System.nanoTime() + FLOOD_DURATION.toNanos();
+        CountDownLatch done = new CountDownLatch(FLOOD_THREADS);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) * FLOOD_THREADS / FLOOD_RATE;
+        for (int t = 0; t < FLOOD_THREADS; t++) {
+            Thread.ofPlatform().daemon().start(() -> {
+                long next = System.nanoTime();
+                while (next < end) {
+                    floodLogger.debug("[java] Flood line");
+                    next += intervalNanos;
+                    long wait = next - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Map<String, Long> emitted = new ConcurrentHashMap<>();
+        long criticalInterval = FLOOD_DURATION.toNanos() / (CRITICAL_EVENTS + 1);
+        for (int i = 0; i < CRITICAL_EVENTS; i++) {
+            LockSupport.parkNanos(criticalInterval);
+            String id = run + "_" + i;
+            emitted.put(id, System.nanoTime());
+            criticalLogger.critical("[java] Critical event occurred", Map.of(
+                    "event_id", id,
+                    "requires_immediate_attention", true));
+        }
+        done.await();
+
+        List<ReceivedLog> received = INGEST.awaitEvents(
+                log -> run.equals(log.field("run")) && log.field("event_id") != null, CRITICAL_EVENTS, DRAIN_TIMEOUT);
+        long dropped = logger.dispatcher().droppedCount();
+        logger.close();
+        return new LaneResult(run, received.stream()
+                .mapToLong(log -> log.arrivalNanos() - emitted.get(log.field("event_id")))
+                .sorted()
+                .toArray(), dropped);
+    }
+
+    private static LogBullLogger client() {
+        return LogBullLogger.builder()
+                .projectId(PROJECT_ID)
+                .host(INGEST.baseUrl())
+                .logLevel(LogLevel.DEBUG)
+                .build();
+    }
+
+    /**
+     * @param latencies sorted emit-to-arrival latencies in nanos
+     * @param dropped   events of either level dropped by the async buffer
+     */
+    private record LaneResult(String run, long[] latencies, long dropped) {
+
+        long percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(latencies[Math.max(0, index)]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-13s flood=%d/s critical=%d/%d latency p50=%dms p99=%dms max=%dms dropped=%d",
+                    run, FLOOD_RATE, latencies.length, CRITICAL_EVENTS, percentileMillis(50), percentileMillis(99),
+                    TimeUnit.NANOSECONDS.toMillis(Arrays.stream(latencies).max().orElse(0)), dropped);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.logbull.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.test.ingest.LocalIngestServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for GET /api/logs/recent with logbull.recent.enabled=true.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RecentLogsControllerTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.DISCARD);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> "12345678-1234-1234-1234-123456789012");
+        registry.add("logbull.async.enabled", () -> "true");
+        registry.add("logbull.recent.enabled", () -> "true");
+        registry.add("logbull.recent.capacity-mb", () -> "1");
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Recent logs - events of a session from both loggers are found by session_id")
+    void testQueryBySession() throws Exception {
+        String sessionId = get("/api/logs/combined").get("session_id").asText();
+
+        JsonNode result = get("/api/logs/recent?session_id=" + sessionId);
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (sources(result).size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            result = get("/api/logs/recent?session_id=" + sessionId);
+        }
+
+        assertThat(sources(result)).containsExactlyInAnyOrder("standalone", "starter");
+        for (JsonNode event : result.get("events")) {
+            assertThat(event.get("fields").get("session_id").asText()).isEqualTo(sessionId);
+        }
+    }
+
+    @Test
+    @DisplayName("Recent logs - unknown levels and malformed time ranges are rejected")
+    void testRejectsBadParameters() throws Exception {
+        assertThat(status("/api/logs/recent?level=TRACE")).isEqualTo(400);
+        assertThat(status("/api/logs/recent?from=yesterday")).isEqualTo(400);
+        assertThat(status("/api/logs/recent?level=warn&from=2026-01-01T00:00:00Z")).isEqualTo(200);
+    }
+
+    private static Set<String> sources(JsonNode result) {
+        Set<String> sources = new HashSet<>();
+        result.get("events").forEach(event -> sources.add(event.get("source").asText()));
+        return sources;
+    }
+
+    private JsonNode get(String path) throws Exception {
+        HttpResponse<String> response = send(path);
+        assertThat(response.statusCode()).isEqualTo(200);
+        return MAPPER.readTree(response.body());
+    }
+
+    private int status(String path) throws Exception {
+        return send(path).statusCode();
+    }
+
+    private HttpResponse<String> send(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
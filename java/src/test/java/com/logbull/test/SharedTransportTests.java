@@ -0,0 +1,156 @@
+package com.logbull.test;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.logbull.LogBullLogger;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+import com.logbull.test.logging.PipelineBridgeAppender;
+import com.logbull.test.logging.SharedTransports;
+import com.logbull.test.service.StandaloneLoggerService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * With logbull.transport.shared=true the standalone logger takes the
+ * JVM-wide client for its host and project, and the Spring Boot Starter's
+ * events are bridged into the same pipeline without losing their attribution.
+ */
+@SpringBootTest
+class SharedTransportTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+
+    private static final String PROJECT_ID = "12345678-1234-1234-1234-123456789012";
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private LogBullLogger logBullLogger;
+
+    @Autowired
+    private StandaloneLoggerService standaloneLoggerService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> PROJECT_ID);
+        registry.add("logbull.transport.shared", () -> "true");
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Shared transport - one client per host and project")
+    void testOneClientPerHostAndProject() {
+        LogBullLogger sameHost = SharedTransports.acquire(INGEST.baseUrl().toUpperCase() + "/", PROJECT_ID, () -> {
+            throw new AssertionError("a client already exists for this host");
+        });
+        try {
+            assertThat(sameHost).isSameAs(logBullLogger);
+        } finally {
+            SharedTransports.release(sameHost);
+        }
+    }
+
+    @Test
+    @DisplayName("Shared transport - the last release shuts the client down")
+    void testLastReleaseShutsDown() {
+        LogBullLogger client = mock(LogBullLogger.class);
+        int before = SharedTransports.clientCount();
+
+        assertThat(SharedTransports.acquire("http://release.test", PROJECT_ID, () -> client)).isSameAs(client);
+        assertThat(SharedTransports.acquire("http://release.test:80", PROJECT_ID, () -> {
+            throw new AssertionError("a client already exists for this host");
+        })).isSameAs(client);
+        assertThat(SharedTransports.clientCount()).isEqualTo(before + 1);
+
+        SharedTransports.release(client);
+        verify(client, never()).shutdown();
+        SharedTransports.release(client);
+        verify(client).shutdown();
+        assertThat(SharedTransports.clientCount()).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Shared transport - a host without a scheme is rejected")
+    void testHostWithoutSchemeRejected() {
+        assertThatThrownBy(() -> SharedTransports.acquire("localhost:4005", PROJECT_ID, () -> {
+            throw new AssertionError("no client is built for an invalid host");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("http://localhost:4005");
+    }
+
+    @Test
+    @DirtiesContext
+    @DisplayName("Shared transport - closing the context detaches the bridge and restores the starter's appenders")
+    void testCloseRestoresStarterAppenders() {
+        Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+
+        // What AbstractApplicationContext.close() publishes before destroying beans
+        context.publishEvent(new ContextClosedEvent(context));
+
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        root.iteratorForAppenders().forEachRemaining(appenders::add);
+        assertThat(appenders).noneMatch(PipelineBridgeAppender.class::isInstance)
+                .anyMatch(appender -> appender.getClass().getName().startsWith("com.logbull.spring.")
+                        && appender.isStarted());
+    }
+
+    @Test
+    @DisplayName("Shared transport - starter events reach the ingest through the standalone pipeline")
+    void testStarterEventsAreBridged() {
+        Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+        List<String> appenders = new ArrayList<>();
+        for (var it = root.iteratorForAppenders(); it.hasNext();) {
+            Appender<ILoggingEvent> appender = it.next();
+            appenders.add(appender.getClass().getName());
+        }
+        assertThat(appenders).contains(PipelineBridgeAppender.class.getName())
+                .noneMatch(name -> name.startsWith("com.logbull.spring."));
+
+        MDC.put("username", "shared_user");
+        try {
+            LoggerFactory.getLogger(SharedTransportTests.class).info("[java] Bridged starter event");
+        } finally {
+            MDC.remove("username");
+        }
+        standaloneLoggerService.processOrder("shared_order", "shared_user");
+
+        List<ReceivedLog> starter = INGEST.awaitEvents(log -> "shared_user".equals(log.field("username")), 1,
+                DELIVERY_TIMEOUT);
+        assertThat(starter).singleElement().satisfies(log -> {
+            assertThat(log.message()).isEqualTo("[java] Bridged starter event");
+            assertThat(log.field(PipelineBridgeAppender.LOGGER_FIELD)).isEqualTo(SharedTransportTests.class.getName());
+        });
+        assertThat(INGEST.awaitEvents(log -> "shared_order".equals(log.field("order_id")), 4, DELIVERY_TIMEOUT))
+                .hasSize(4)
+                .allSatisfy(log -> assertThat(log.field(PipelineBridgeAppender.LOGGER_FIELD)).isNull());
+    }
+}
@@ -0,0 +1,167 @@
+package com.logbull.test;
+
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.logging.AsyncDispatcher;
+import com.logbull.test.logging.LogEvent;
+import com.logbull.test.logging.PipelineLogger;
+import com.logbull.test.service.StandaloneLoggerService;
+import com.logbull.test.soak.FixedRateDriver;
+import com.logbull.test.soak.FixedRateDriver.RateResult;
+import com.logbull.test.soak.JvmSampler;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Soak test: drives {@link StandaloneLoggerService} and the /api/logs
+ * endpoints at a fixed event rate for a long time and fails on heap growth,
+ * long GC pauses or thread leaks.
+ *
+ * Run with: ./gradlew soakTest [-Dsoaktest.duration-seconds=3600 -Dsoaktest.events-per-second=10000]
+ *
+ * Calls rotate between processOrder on the service and POST /api/logs/standalone
+ * (4 events each), GET /api/logs/combined (4) and GET /api/logs/spring-boot-starter
+ * (2 at INFO). After a warm-up, the heap retained after full collections is
+ * taken as the baseline and compared with the heap retained once the run has
+ * drained. The stand-in discards what it receives, so it does not add to the
+ * heap being watched.
+ */
+@Tag("soak")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SoakTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.DISCARD);
+
+    private static final int EVENTS_PER_SECOND = Integer.getInteger("soaktest.events-per-second", 10_000);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("soaktest.duration-seconds", 600));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("soaktest.warmup-seconds", 30));
+    private static final Duration SAMPLE_INTERVAL = Duration.ofSeconds(Long.getLong("soaktest.sample-seconds", 10));
+    private static final int CONCURRENCY = Integer.getInteger("soaktest.concurrency", 32);
+    private static final long MAX_HEAP_GROWTH_MB = Long.getLong("soaktest.max-heap-growth-mb", 32);
+    private static final long MAX_GC_PAUSE_MS = Long.getLong("soaktest.max-gc-pause-ms", 200);
+    private static final int MAX_THREAD_GROWTH = Integer.getInteger("soaktest.max-thread-growth", 8);
+
+    /** Average events per call over the four calls of the rotation. */
+    private static final double EVENTS_PER_CALL = (4 + 4 + 4 + 2) / 4.0;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StandaloneLoggerService standaloneLoggerService;
+
+    @Autowired
+    private PipelineLogger pipelineLogger;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> "12345678-1234-1234-1234-123456789012");
+        registry.add("logbull.log-level", () -> "INFO");
+        registry.add("logbull.async.enabled", () -> System.getProperty("logbull.async.enabled", "true"));
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Soak - retained heap, GC pauses and threads stay bounded at a fixed event rate")
+    void soakAtFixedRate() throws Exception {
+        double callsPerSecond = EVENTS_PER_SECOND / EVENTS_PER_CALL;
+        System.out.println("[soak] " + FixedRateDriver.run("warm-up", callsPerSecond, WARMUP, CONCURRENCY, this::call));
+        awaitDrained();
+        long baselineHeap = JvmSampler.retainedHeapBytes();
+
+        RateResult run;
+        try (JvmSampler sampler = JvmSampler.start(SAMPLE_INTERVAL)) {
+            run = FixedRateDriver.run("soak", callsPerSecond, DURATION, CONCURRENCY, this::call);
+            awaitDrained();
+            sampler.close();
+
+            List<JvmSampler.Sample> samples = sampler.samples();
+            for (JvmSampler.Sample sample : samples) {
+                System.out.printf("[soak] t=%4ds heap-after-gc=%6.1fMB threads=%d%n", sample.elapsedMillis() / 1000,
+                        Math.max(0, sample.heapAfterGcBytes()) / (1024.0 * 1024), sample.threads());
+            }
+            System.out.println("[soak] " + run);
+            System.out.println("[soak] " + sampler);
+
+            assertThat(sampler.maxPauseMillis())
+                    .as("longest GC pause (ms)")
+                    .isLessThanOrEqualTo(MAX_GC_PAUSE_MS);
+            // Compared with the first sample under load, as request and client pools grow with it
+            int baselineThreads = samples.isEmpty() ? sampler.peakThreads() : samples.get(0).threads();
+            assertThat(sampler.peakThreads() - baselineThreads)
+                    .as("threads beyond the %d live at the first sample", baselineThreads)
+                    .isLessThanOrEqualTo(MAX_THREAD_GROWTH);
+        }
+
+        long growth = JvmSampler.retainedHeapBytes() - baselineHeap;
+        System.out.printf("[soak] retained heap %.1fMB -> growth %.1fMB%n", baselineHeap / (1024.0 * 1024),
+                growth / (1024.0 * 1024));
+        assertThat(run.failures()).isZero();
+        assertThat(growth)
+                .as("retained heap growth (bytes)")
+                .isLessThanOrEqualTo(MAX_HEAP_GROWTH_MB * 1024 * 1024);
+    }
+
+    private void call(long index) throws Exception {
+        switch ((int) (index % 4)) {
+            case 0 -> standaloneLoggerService.processOrder("soak_order_" + index, "soak_user_" + index % 1000);
+            case 1 -> send(HttpRequest.newBuilder(uri("/api/logs/standalone"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"order_id\":\"soak_order_" + index + "\",\"user_id\":\"soak_user_" + index % 1000 + "\"}"))
+                    .build());
+            case 2 -> send(HttpRequest.newBuilder(uri("/api/logs/combined")).GET().build());
+            default -> send(HttpRequest.newBuilder(uri("/api/logs/spring-boot-starter?username=soak_user_" + index % 1000))
+                    .GET().build());
+        }
+    }
+
+    private void send(HttpRequest request) throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+    }
+
+    /**
+     * Waits for the standalone ring buffer to empty, so queued events are
+     * not counted as retained heap.
+     */
+    private void awaitDrained() throws InterruptedException {
+        AsyncDispatcher<LogEvent> dispatcher = pipelineLogger.dispatcher();
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (dispatcher != null && dispatcher.queueDepth() + dispatcher.priorityQueueDepth() > 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        // Lets the client's sender thread flush what it was handed
+        Thread.sleep(1000);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -1,23 +1,58 @@
 package com.logbull.test;
 
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
 import com.logbull.test.service.StandaloneLoggerService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * Integration Tests for Standalone LogBull Logger.
- * These tests verify the actual LogBullLogger functionality without mocking.
+ * These tests verify the actual LogBullLogger functionality without mocking,
+ * delivering to an in-process ingest stand-in on a random port.
  */
 @SpringBootTest
 class StandaloneLogBullIntegrationTests {
 
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+
+    private static final Duration DELIVERY_TIMEOUT = Duration.ofSeconds(10);
+
     @Autowired
     private StandaloneLoggerService standaloneLoggerService;
 
+    @DynamicPropertySource
+    static void logbullProperties(DynamicPropertyRegistry registry) {
+        registry.add("logbull.host", INGEST::baseUrl);
+        registry.add("logbull.project-id", () -> "12345678-1234-1234-1234-123456789012");
+    }
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @BeforeEach
+    void resetIngest() {
+        INGEST.reset();
+    }
+
+    private static List<ReceivedLog> awaitLogs(String field, String value, int expected) {
+        return INGEST.awaitEvents(log -> value.equals(log.field(field)), expected, DELIVERY_TIMEOUT);
+    }
+
     @Test
     @DisplayName("Standalone Logger - Process order with all log levels")
     void testProcessOrder_AllLogLevels() {
@@ -27,8 +62,13 @@ class StandaloneLogBullIntegrationTests {
         // This should trigger debug, info logs
         standaloneLoggerService.processOrder(orderId, userId);
 
-        // If we reach here without exceptions, the logger is working
-        assert true;
+        List<ReceivedLog> logs = awaitLogs("order_id", orderId, 4);
+        assertThat(logs)
+                .extracting(ReceivedLog::level).containsExactlyInAnyOrder("INFO", "DEBUG", "INFO", "INFO");
+        assertThat(logs).allSatisfy(log -> {
+            assertThat(log.field("user_id")).isEqualTo(userId);
+            assertThat(log.field("service")).isEqualTo("order_processing");
+        });
     }
 
     @Test
@@ -39,8 +79,12 @@ class StandaloneLogBullIntegrationTests {
         // This should create nested context and log with chained context
         standaloneLoggerService.logCombinedTest(sessionId);
 
-        // If we reach here without exceptions, context chaining is working
-        assert true;
+        List<ReceivedLog> logs = awaitLogs("session_id", sessionId, 3);
+        assertThat(logs).hasSize(3);
+        ReceivedLog warning = logs.stream().filter(log -> "WARNING".equals(log.level())).findFirst().orElseThrow();
+        assertThat(warning.field("test_type")).isEqualTo("combined");
+        assertThat(warning.field("feature")).isEqualTo("context_chaining");
+        assertThat(warning.field("warning_code")).isEqualTo("W001");
     }
 
     @Test
@@ -54,8 +98,11 @@ class StandaloneLogBullIntegrationTests {
 
         standaloneLoggerService.logCriticalEvent(eventType, eventData);
 
-        // If we reach here without exceptions, critical logging is working
-        assert true;
+        List<ReceivedLog> logs = awaitLogs("event_type", eventType, 1);
+        assertThat(logs).singleElement().satisfies(log -> {
+            assertThat(log.level()).isEqualTo("CRITICAL");
+            assertThat(log.field("requires_immediate_attention")).isEqualTo("true");
+        });
     }
 
     @Test
@@ -66,8 +113,9 @@ class StandaloneLogBullIntegrationTests {
         standaloneLoggerService.logCombinedTest("session_001");
         standaloneLoggerService.processOrder("order_002", "user_002");
 
-        // If we reach here without exceptions, sequential logging is working
-        assert true;
+        assertThat(awaitLogs("order_id", "order_001", 4)).hasSize(4);
+        assertThat(awaitLogs("session_id", "session_001", 3)).hasSize(3);
+        assertThat(awaitLogs("order_id", "order_002", 4)).hasSize(4);
     }
 
     @Test
@@ -77,8 +125,9 @@ class StandaloneLogBullIntegrationTests {
         Map<String, Object> emptyData = Map.of();
         standaloneLoggerService.logCriticalEvent("test_event", emptyData);
 
-        // If we reach here without exceptions, empty data handling is working
-        assert true;
+        assertThat(awaitLogs("event_type", "test_event", 1))
+                .singleElement()
+                .satisfies(log -> assertThat(log.field("event_data")).isEqualTo("{}"));
     }
 
     @Test
@@ -89,7 +138,15 @@ class StandaloneLogBullIntegrationTests {
         standaloneLoggerService.processOrder("order_002", "bob");
         standaloneLoggerService.processOrder("order_003", "charlie");
 
-        // If we reach here without exceptions, multiple contexts are working
-        assert true;
+        // Each order's events must carry only its own user's context
+        assertThat(awaitLogs("order_id", "order_001", 4))
+                .hasSize(4)
+                .allSatisfy(log -> assertThat(log.field("user_id")).isEqualTo("alice"));
+        assertThat(awaitLogs("order_id", "order_002", 4))
+                .hasSize(4)
+                .allSatisfy(log -> assertThat(log.field("user_id")).isEqualTo("bob"));
+        assertThat(awaitLogs("order_id", "order_003", 4))
+                .hasSize(4)
+                .allSatisfy(log -> assertThat(log.field("user_id")).isEqualTo("charlie"));
     }
 }
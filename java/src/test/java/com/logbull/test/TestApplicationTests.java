@@ -10,8 +10,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -65,6 +68,18 @@ class TestApplicationTests {
 				.andExpect(jsonPath("$.request_id").isNotEmpty());
 	}
 
+	@Test
+	@DisplayName("Spring Boot Starter - request_id comes from the X-Request-Id header")
+	void testSpringBootStarter_RequestIdHeader() throws Exception {
+		String requestId = "edge-request-42";
+
+		mockMvc.perform(get("/api/logs/spring-boot-starter")
+				.header("X-Request-Id", requestId))
+				.andExpect(status().isOk())
+				.andExpect(header().string("X-Request-Id", requestId))
+				.andExpect(jsonPath("$.request_id").value(requestId));
+	}
+
 	@Test
 	@DisplayName("Spring Boot Starter - Error case with 'error' username")
 	void testSpringBootStarter_ErrorCase() throws Exception {
@@ -146,6 +161,22 @@ class TestApplicationTests {
 				.andExpect(jsonPath("$.user_id").value("user_alice"));
 	}
 
+	@Test
+	@DisplayName("Standalone Logger - Bulk request with a null order or field returns 400")
+	void testStandaloneLoggerBulk_NullOrder() throws Exception {
+		mockMvc.perform(post("/api/logs/standalone/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"order_id\": \"order_1\"}, null]"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(post("/api/logs/standalone/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"order_id\": null}]"))
+				.andExpect(status().isBadRequest());
+
+		verify(standaloneLoggerService, never()).processOrders(anyList());
+	}
+
 	@Test
 	@DisplayName("Combined Approach - Both loggers working together")
 	void testCombinedApproach() throws Exception {
@@ -0,0 +1,186 @@
+package com.logbull.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+import com.logbull.test.load.LoadDriver;
+import com.logbull.test.load.LoadDriver.LoadResult;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs thousands of concurrent requests against the application once with
+ * platform request threads and once with virtual threads, and checks that
+ * per-request MDC values and withContext fields never leak between requests.
+ *
+ * Both runs go through the async pipeline; in the virtual run its drain
+ * threads are virtual too. Pinned virtual threads are counted from the
+ * jdk.VirtualThreadPinned JFR event, and the virtual run must not pin more
+ * than {@code loadtest.vt.max-pinned} times (0 by default).
+ *
+ * Run with: ./gradlew loadTest [-Dloadtest.vt.concurrency=2000 -Dloadtest.vt.requests=10000]
+ */
+@Tag("load")
+class VirtualThreadLoadTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.vt.concurrency", 1000);
+    private static final int REQUESTS = Integer.getInteger("loadtest.vt.requests", 5000);
+    private static final long MAX_PINNED = Long.getLong("loadtest.vt.max-pinned", 0);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(Long.getLong("loadtest.drain-seconds", 30));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Virtual threads - no MDC/context leaks and comparison with platform threads")
+    void virtualThreadsMatchPlatformThreadsWithoutLeaks() {
+        ModeResult platform = runWith(false);
+        ModeResult virtual = runWith(true);
+
+        System.out.println("[load] platform threads: " + platform);
+        System.out.println("[load] virtual threads:  " + virtual);
+
+        for (ModeResult result : List.of(platform, virtual)) {
+            assertThat(result.load().failures()).isZero();
+            assertThat(result.events()).isEqualTo(result.expected());
+            assertThat(result.leaks()).isZero();
+            assertThat(result.unverified()).isZero();
+        }
+        assertThat(virtual.pinnedEvents())
+                .as("jdk.VirtualThreadPinned events with virtual threads")
+                .isLessThanOrEqualTo(MAX_PINNED);
+    }
+
+    private ModeResult runWith(boolean virtualThreads) {
+        INGEST.reset();
+        Map<String, String> usernameByRequestId = new ConcurrentHashMap<>();
+        AtomicLong pinnedEvents = new AtomicLong();
+
+        try (RecordingStream pinning = new RecordingStream();
+                ConfigurableApplicationContext context = start(virtualThreads);
+                ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> pinnedEvents.incrementAndGet());
+            pinning.startAsync();
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadResult load = LoadDriver.run(virtualThreads ? "virtual" : "platform", CONCURRENCY, REQUESTS,
+                    index -> index % 2 == 0
+                            ? callStarter(baseUrl, "vt_user_" + index, usernameByRequestId)
+                            : callStandalone(baseUrl, "vt_order_" + index, "vt_user_" + index),
+                    clients);
+
+            // Starter: 2 INFO events per request; standalone: 4 events per order
+            int expected = (REQUESTS / 2 + REQUESTS % 2) * 2 + (REQUESTS / 2) * 4;
+            List<ReceivedLog> logs = INGEST.awaitEvents(log -> log.field("request_id") != null
+                    || log.field("order_id") != null, expected, DRAIN_TIMEOUT);
+
+            pinning.stop();
+            return verify(load, expected, logs, usernameByRequestId, pinnedEvents.get());
+        }
+    }
+
+    private static ModeResult verify(LoadResult load, int expected, List<ReceivedLog> logs,
+            Map<String, String> usernameByRequestId, long pinnedEvents) {
+        long leaks = 0;
+        long unverified = 0;
+        for (ReceivedLog log : logs) {
+            String requestId = log.field("request_id");
+            String orderId = log.field("order_id");
+            if (requestId != null) {
+                String expectedUsername = usernameByRequestId.get(requestId);
+                if (expectedUsername == null) {
+                    unverified++;
+                } else if (!expectedUsername.equals(log.field("username")) || orderId != null) {
+                    leaks++;
+                }
+            } else if (orderId != null) {
+                // Standalone events carry their own withContext fields and nothing from MDC
+                String expectedUser = "vt_user_" + orderId.substring("vt_order_".length());
+                if (!expectedUser.equals(log.field("user_id")) || log.field("username") != null) {
+                    leaks++;
+                }
+            }
+        }
+        return new ModeResult(load, expected, logs.size(), leaks, unverified, pinnedEvents);
+    }
+
+    private String callStarter(String baseUrl, String username, Map<String, String> usernameByRequestId)
+            throws Exception {
+        JsonNode response = send(HttpRequest.newBuilder(
+                URI.create(baseUrl + "/api/logs/spring-boot-starter?username=" + username)).GET().build());
+        String requestId = response.get("request_id").asText();
+        usernameByRequestId.put(requestId, username);
+        return requestId;
+    }
+
+    private String callStandalone(String baseUrl, String orderId, String userId) throws Exception {
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/logs/standalone"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"order_id\":\"" + orderId + "\",\"user_id\":\"" + userId + "\"}"))
+                .build());
+        return orderId;
+    }
+
+    private JsonNode send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body());
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        // Passed as arguments so they win over any application.properties on the classpath
+        return new SpringApplicationBuilder(TestApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--logbull.async.enabled=true",
+                "--logbull.project-id=12345678-1234-1234-1234-123456789012",
+                "--logbull.host=" + INGEST.baseUrl(),
+                "--logbull.log-level=INFO");
+    }
+
+    private record ModeResult(LoadResult load, int expected, int events, long leaks, long unverified,
+            long pinnedEvents) {
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "throughput=%.0f req/s latency p50=%.2fms p99=%.2fms events=%d/%d leaks=%d pinned=%d",
+                    load.throughputPerSecond(), load.latencyPercentileMillis(50), load.latencyPercentileMillis(99),
+                    events, expected, leaks, pinnedEvents);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.logbull.test;
+
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+import com.logbull.test.service.StandaloneLoggerService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures what the standalone logger puts on the wire for a burst of
+ * processOrder calls: requests and bytes per 10k events, and how much gzip
+ * would save on those bodies at what CPU cost. Request batching and body
+ * encoding belong to the LogBull client, which has no settings for either,
+ * so this is a baseline of what it sends rather than a tuning run.
+ *
+ * Run with: ./gradlew loadTest [-Dloadtest.wire.events=20000]
+ */
+@Tag("load")
+class WireFormatLoadTests {
+
+    private static final LocalIngestServer INGEST = LocalIngestServer.start(LocalIngestServer.Mode.CAPTURE);
+
+    private static final int EVENTS = Integer.getInteger("loadtest.wire.events", 10_000);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(Long.getLong("loadtest.drain-seconds", 30));
+
+    // processOrder logs 4 events per order
+    private static final int EVENTS_PER_ORDER = 4;
+
+    @AfterAll
+    static void stopIngest() {
+        INGEST.close();
+    }
+
+    @Test
+    @DisplayName("Wire format - bytes per 10k events and gzip cost")
+    void reportsBytesOnTheWire() {
+        WireResult result = run();
+        System.out.println("[load] " + result);
+
+        assertThat(result.events()).isEqualTo(EVENTS / EVENTS_PER_ORDER * EVENTS_PER_ORDER);
+        assertThat(result.gzipBytes()).isLessThan(result.rawBytes());
+    }
+
+    private WireResult run() {
+        INGEST.reset();
+        int orders = EVENTS / EVENTS_PER_ORDER;
+
+        try (ConfigurableApplicationContext context = start()) {
+            StandaloneLoggerService service = context.getBean(StandaloneLoggerService.class);
+            for (int i = 0; i < orders; i++) {
+                service.processOrder("wire_order_" + i, "wire_user_" + (i % 100));
+            }
+            List<ReceivedLog> logs = INGEST.awaitEvents(log -> log.field("order_id") != null,
+                    orders * EVENTS_PER_ORDER, DRAIN_TIMEOUT);
+
+            List<byte[]> bodies = INGEST.bodies();
+            long rawBytes = bodies.stream().mapToLong(body -> body.length).sum();
+            Compression gzip = compress(bodies, Deflater.DEFAULT_COMPRESSION);
+            Compression gzipFast = compress(bodies, Deflater.BEST_SPEED);
+            return new WireResult(logs.size(), bodies.size(), rawBytes,
+                    gzip.bytes(), gzip.cpuNanos(), gzipFast.bytes(), gzipFast.cpuNanos());
+        }
+    }
+
+    private static Compression compress(List<byte[]> bodies, int level) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long bytes = 0;
+        for (byte[] body : bodies) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+                {
+                    def.setLevel(level);
+                }
+            }) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bytes += out.size();
+        }
+        return new Compression(bytes, threads.getCurrentThreadCpuTime() - cpuStart);
+    }
+
+    private static ConfigurableApplicationContext start() {
+        // Passed as arguments so they win over any application.properties on the classpath
+        return new SpringApplicationBuilder(TestApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--logbull.project-id=12345678-1234-1234-1234-123456789012",
+                        "--logbull.host=" + INGEST.baseUrl(),
+                        "--logbull.log-level=INFO",
+                        "--logbull.async.enabled=true");
+    }
+
+    private record Compression(long bytes, long cpuNanos) {
+    }
+
+    private record WireResult(int events, int requests, long rawBytes,
+            long gzipBytes, long gzipCpuNanos, long gzipFastBytes, long gzipFastCpuNanos) {
+
+        private double per10k(long value) {
+            return events == 0 ? 0 : value * 10_000.0 / events;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "events=%d requests/10k=%.0f raw/10k=%.0fKB"
+                            + " gzip/10k=%.0fKB (%.1fx, %.1fms cpu) gzip-fast/10k=%.0fKB (%.1fx, %.1fms cpu)",
+                    events, per10k(requests), per10k(rawBytes) / 1024,
+                    per10k(gzipBytes) / 1024, gzipBytes == 0 ? 0 : (double) rawBytes / gzipBytes,
+                    per10k(gzipCpuNanos) / 1_000_000,
+                    per10k(gzipFastBytes) / 1024, gzipFastBytes == 0 ? 0 : (double) rawBytes / gzipFastBytes,
+                    per10k(gzipFastCpuNanos) / 1_000_000);
+        }
+    }
+}
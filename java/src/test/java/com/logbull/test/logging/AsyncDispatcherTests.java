@@ -0,0 +1,296 @@
+package com.logbull.test.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RingBuffer} and {@link AsyncDispatcher} overflow policies and lanes.
+ */
+class AsyncDispatcherTests {
+
+    @Test
+    @DisplayName("Ring buffer - FIFO order and bounded capacity")
+    void testRingBufferOrderAndCapacity() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+
+        assertThat(buffer.capacity()).isEqualTo(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(List.of(buffer.poll(), buffer.poll(), buffer.poll(), buffer.poll())).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("Ring buffer - concurrent producers lose nothing")
+    void testRingBufferConcurrentProducers() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(1 << 16);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.offer(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        int polled = 0;
+        while (buffer.poll() != null) {
+            polled++;
+        }
+        assertThat(polled).isEqualTo(producers * perProducer);
+    }
+
+    @Test
+    @DisplayName("Ring buffer - offerAll adds contiguous runs and claims what fits")
+    void testRingBufferOfferAll() throws Exception {
+        RingBuffer<Integer> partial = new RingBuffer<>(8);
+        partial.offer(-1);
+        assertThat(partial.offerAll(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), 0)).isEqualTo(7);
+        assertThat(partial.offerAll(List.of(7, 8, 9), 0)).isZero();
+        assertThat(partial.poll()).isEqualTo(-1);
+
+        RingBuffer<Integer> buffer = new RingBuffer<>(1 << 16);
+        int producers = 4;
+        List<Integer> run = List.of(0, 1, 2, 3, 4, 5, 6, 7);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    buffer.offerAll(run, 0);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Runs from different producers never interleave
+        int polled = 0;
+        for (Integer element; (element = buffer.poll()) != null; polled++) {
+            assertThat(element).isEqualTo(polled % run.size());
+        }
+        assertThat(polled).isEqualTo(producers * 1_000 * run.size());
+    }
+
+    @Test
+    @DisplayName("Dispatcher - delivers everything on close")
+    void testDeliversOnClose() {
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        AsyncDispatcher<Integer> dispatcher = AsyncDispatcher.<Integer>builder(delivered::add).capacity(1024).build();
+
+        for (int i = 0; i < 500; i++) {
+            dispatcher.offer(i);
+        }
+        dispatcher.close();
+
+        assertThat(delivered).hasSize(500);
+        assertThat(dispatcher.droppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Dispatcher - events offered while it closes are delivered, not stranded")
+    void testOffersRacingClose() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            List<Integer> delivered = new CopyOnWriteArrayList<>();
+            AsyncDispatcher<Integer> dispatcher = AsyncDispatcher.<Integer>builder(delivered::add)
+                    .capacity(1 << 16)
+                    .build();
+            int producers = 4;
+            int perProducer = 2_000;
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            for (int p = 0; p < producers; p++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        dispatcher.offer(i);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            dispatcher.close();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(delivered).hasSize(producers * perProducer);
+            assertThat(dispatcher.queueDepth()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Thread factory - a virtual drain thread delivers everything")
+    void testVirtualDrainThread() {
+        List<Boolean> deliveredOnVirtual = new CopyOnWriteArrayList<>();
+        AsyncDispatcher<Integer> dispatcher = AsyncDispatcher.<Integer>builder(
+                        event -> deliveredOnVirtual.add(Thread.currentThread().isVirtual()))
+                .capacity(1024)
+                .threadFactory(Thread.ofVirtual().name("logbull-async-virtual").factory())
+                .build();
+
+        for (int i = 0; i < 500; i++) {
+            dispatcher.offer(i);
+        }
+        dispatcher.close();
+
+        assertThat(deliveredOnVirtual).hasSize(500).containsOnly(true);
+    }
+
+    @Test
+    @DisplayName("DROP_NEWEST - rejects new events while full")
+    void testDropNewest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        AsyncDispatcher<Integer> dispatcher = blockedDispatcher(OverflowPolicy.DROP_NEWEST, release, delivered);
+
+        fill(dispatcher);
+        assertThat(dispatcher.offer(100)).isFalse();
+
+        release.countDown();
+        dispatcher.close();
+        assertThat(delivered).doesNotContain(100);
+        assertThat(dispatcher.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST - evicts the oldest buffered event")
+    void testDropOldest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        AsyncDispatcher<Integer> dispatcher = blockedDispatcher(OverflowPolicy.DROP_OLDEST, release, delivered);
+
+        fill(dispatcher);
+        assertThat(dispatcher.offer(100)).isTrue();
+
+        release.countDown();
+        dispatcher.close();
+        assertThat(delivered).contains(100).doesNotContain(1);
+        assertThat(dispatcher.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("DROP_BY_LEVEL - keeps high-severity events, drops the rest")
+    void testDropByLevel() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        AsyncDispatcher<Integer> dispatcher = AsyncDispatcher.<Integer>builder(blockingSink(release, delivered))
+                .capacity(4)
+                .overflowPolicy(OverflowPolicy.DROP_BY_LEVEL)
+                .keepOnOverflow(event -> event >= 100)
+                .build();
+
+        fill(dispatcher);
+        assertThat(dispatcher.offer(5)).isFalse();
+        assertThat(dispatcher.offer(100)).isTrue();
+
+        release.countDown();
+        dispatcher.close();
+        assertThat(delivered).contains(100).doesNotContain(5);
+    }
+
+    @Test
+    @DisplayName("BLOCK - waits for space, then drops after the timeout")
+    void testBlockTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        AsyncDispatcher<Integer> dispatcher = AsyncDispatcher.<Integer>builder(blockingSink(release, delivered))
+                .capacity(4)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .blockTimeout(Duration.ofMillis(20))
+                .build();
+
+        fill(dispatcher);
+        long start = System.nanoTime();
+        assertThat(dispatcher.offer(100)).isFalse();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+
+        release.countDown();
+        assertThat(dispatcher.offer(101)).isTrue();
+        dispatcher.close();
+        assertThat(delivered).contains(101).doesNotContain(100);
+    }
+
+    @Test
+    @DisplayName("Priority lane - priority events overtake a full bulk lane")
+    void testPriorityLane() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        AsyncDispatcher<Integer> dispatcher = AsyncDispatcher.<Integer>builder(blockingSink(release, delivered))
+                .capacity(16)
+                .overflowPolicy(OverflowPolicy.DROP_NEWEST)
+                .priority(event -> event >= 100)
+                .priorityCapacity(4)
+                .build();
+
+        fill(dispatcher);
+        assertThat(dispatcher.offer(17)).isFalse();
+        assertThat(dispatcher.offer(100)).isTrue();
+        assertThat(dispatcher.offer(101)).isTrue();
+        assertThat(dispatcher.priorityQueueDepth()).isEqualTo(2);
+        release.countDown();
+        dispatcher.close();
+
+        // Event 0 was already being delivered; the priority events come before the queued bulk events
+        assertThat(delivered).startsWith(0, 100, 101, 1).hasSize(19).doesNotContain(17);
+    }
+
+    private static AsyncDispatcher<Integer> blockedDispatcher(OverflowPolicy policy, CountDownLatch release,
+            List<Integer> delivered) {
+        return AsyncDispatcher.<Integer>builder(blockingSink(release, delivered))
+                .capacity(4)
+                .overflowPolicy(policy)
+                .build();
+    }
+
+    /**
+     * Sink that holds the drain thread on the first event until released.
+     */
+    private static Consumer<Integer> blockingSink(CountDownLatch release, List<Integer> delivered) {
+        return event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.add(event);
+        };
+    }
+
+    /**
+     * Fills the bulk lane while the drain thread is stuck on event 0.
+     */
+    private static void fill(AsyncDispatcher<Integer> dispatcher) throws InterruptedException {
+        dispatcher.offer(0);
+        // Wait until the drain thread is held in the sink, not merely past its poll
+        while (dispatcher.queueDepth() > 0 || !drainerWaiting()) {
+            Thread.sleep(1);
+        }
+        for (int i = 1; i <= dispatcher.capacity() - dispatcher.priorityCapacity(); i++) {
+            assertThat(dispatcher.offer(i)).isTrue();
+        }
+    }
+
+    private static boolean drainerWaiting() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("logbull-async-dispatcher")
+                        && thread.getState() == Thread.State.WAITING);
+    }
+}
@@ -0,0 +1,81 @@
+package com.logbull.test.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CircuitBreaker}, on a fake clock.
+ */
+class CircuitBreakerTests {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreaker breaker(double jitter) {
+        return CircuitBreaker.builder()
+                .failureThreshold(3)
+                .initialBackoff(Duration.ofSeconds(1))
+                .maxBackoff(Duration.ofSeconds(4))
+                .clock(clock::get)
+                .jitter(() -> jitter)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Breaker - opens after consecutive failures and closes on a successful trial")
+    void testOpensAndCloses() {
+        CircuitBreaker breaker = breaker(0.999);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.recordFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.openedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Breaker - failed trials double the jittered backoff up to the maximum")
+    void testBackoffDoublesWithJitter() {
+        CircuitBreaker breaker = breaker(0.5);
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+
+        // Half of the nominal backoff plus half of the rest: 0.75 of 1s, 2s, 4s, 4s
+        long[] expectedMillis = { 750, 1500, 3000, 3000 };
+        for (long expected : expectedMillis) {
+            assertThat(breaker.nanosUntilTrial()).isEqualTo(Duration.ofMillis(expected).toNanos());
+            clock.addAndGet(breaker.nanosUntilTrial());
+            assertThat(breaker.allowRequest()).isTrue();
+            breaker.recordFailure();
+        }
+        assertThat(breaker.openedCount()).isEqualTo(5);
+
+        clock.addAndGet(breaker.nanosUntilTrial());
+        assertThat(breaker.allowRequest()).isTrue();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.nanosUntilTrial()).isEqualTo(Duration.ofMillis(750).toNanos());
+    }
+}
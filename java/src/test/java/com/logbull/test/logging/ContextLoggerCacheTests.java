@@ -0,0 +1,95 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ContextLoggerCache}.
+ */
+class ContextLoggerCacheTests {
+
+    private final LogBullLogger root = mock(LogBullLogger.class);
+
+    @Test
+    @DisplayName("Repeated contexts reuse the same context logger")
+    void testRepeatedContextIsCached() {
+        when(root.withContext(anyMap())).thenAnswer(invocation -> mock(LogBullLogger.class));
+        ContextLoggerCache cache = new ContextLoggerCache(root, 16);
+
+        LogBullLogger first = cache.withContext(Map.of("service", "order_processing"));
+        LogBullLogger second = cache.withContext(new HashMap<>(Map.of("service", "order_processing")));
+
+        assertThat(second).isSameAs(first);
+        verify(root, times(1)).withContext(anyMap());
+    }
+
+    @Test
+    @DisplayName("Nested contexts are keyed by parent logger")
+    void testNestedContextKeyedByParent() {
+        LogBullLogger parentA = mock(LogBullLogger.class);
+        LogBullLogger parentB = mock(LogBullLogger.class);
+        when(parentA.withContext(anyMap())).thenAnswer(invocation -> mock(LogBullLogger.class));
+        when(parentB.withContext(anyMap())).thenAnswer(invocation -> mock(LogBullLogger.class));
+        ContextLoggerCache cache = new ContextLoggerCache(root, 16);
+
+        Map<String, Object> delta = Map.of("feature", "context_chaining");
+
+        assertThat(cache.withContext(parentA, delta)).isNotSameAs(cache.withContext(parentB, delta));
+        assertThat(cache.withContext(parentA, delta)).isSameAs(cache.withContext(parentA, delta));
+    }
+
+    @Test
+    @DisplayName("Cache stays at its maximum size by evicting the least recently used context")
+    void testCacheIsBounded() {
+        when(root.withContext(anyMap())).thenAnswer(invocation -> mock(LogBullLogger.class));
+        ContextLoggerCache cache = new ContextLoggerCache(root, 2);
+
+        for (int i = 0; i < 10; i++) {
+            cache.withContext(Map.of("user_id", "user_" + i));
+        }
+        assertThat(cache.size()).isEqualTo(2);
+
+        LogBullLogger recent = cache.withContext(Map.of("user_id", "user_8"));
+        cache.withContext(Map.of("user_id", "user_10"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.withContext(Map.of("user_id", "user_8"))).isSameAs(recent);
+        verify(root, times(11)).withContext(anyMap());
+    }
+
+    @Test
+    @DisplayName("Null context values are cached like any other")
+    void testNullValues() {
+        when(root.withContext(anyMap())).thenAnswer(invocation -> mock(LogBullLogger.class));
+        ContextLoggerCache cache = new ContextLoggerCache(root, 16);
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("user_id", null);
+
+        assertThat(cache.withContext(context)).isSameAs(cache.withContext(new HashMap<>(context)));
+        assertThat(cache.context(null, context)).isSameAs(cache.context(null, context));
+    }
+
+    @Test
+    @DisplayName("Size 0 disables caching")
+    void testCachingDisabled() {
+        when(root.withContext(anyMap())).thenAnswer(invocation -> mock(LogBullLogger.class));
+        ContextLoggerCache cache = new ContextLoggerCache(root, 0);
+
+        Map<String, Object> context = Map.of("service", "order_processing");
+
+        assertThat(cache.withContext(context)).isNotSameAs(cache.withContext(context));
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,98 @@
+package com.logbull.test.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ErrorAggregator}.
+ */
+class ErrorAggregatorTests {
+
+    /**
+     * Test event: level, message template, exception type and a user, plus a
+     * summary once aggregated.
+     */
+    private record Event(String level, String message, String errorType, String user,
+            ErrorAggregator.Summary summary) {
+
+        Event(String level, String message, String errorType, String user) {
+            this(level, message, errorType, user, null);
+        }
+    }
+
+    private static ErrorAggregator<Event> aggregator(Duration window, int maxFingerprints) {
+        return ErrorAggregator.<Event>builder(
+                        event -> new ErrorAggregator.Fingerprint(event.level(), event.message(), event.errorType()),
+                        (event, summary) -> new Event(event.level(), event.message(), event.errorType(),
+                                event.user(), summary))
+                .aggregate(event -> !event.level().equals("INFO"))
+                .sampleFields(List.of("user"), (event, field) -> event.user())
+                .reservoirSize(3)
+                .maxFingerprints(maxFingerprints)
+                .window(window)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Aggregator - the first error passes, duplicates are absorbed until the window ends")
+    void testCollapsesDuplicates() throws Exception {
+        ErrorAggregator<Event> aggregator = aggregator(Duration.ofMillis(100), 16);
+        Queue<Event> summaries = new ConcurrentLinkedQueue<>();
+        aggregator.start("test", summaries::add);
+
+        assertThat(aggregator.offer(new Event("ERROR", "failed for {}", "Timeout", "user_0"))).isTrue();
+        for (int i = 1; i <= 20; i++) {
+            assertThat(aggregator.offer(new Event("ERROR", "failed for {}", "Timeout", "user_" + i % 5))).isFalse();
+        }
+        assertThat(aggregator.offer(new Event("ERROR", "failed for {}", "IOException", "user_1"))).isTrue();
+        assertThat(aggregator.offer(new Event("INFO", "failed for {}", "Timeout", "user_1"))).isTrue();
+
+        Thread.sleep(400);
+        assertThat(summaries).hasSize(1);
+        ErrorAggregator.Summary summary = summaries.peek().summary();
+        assertThat(summary.count()).isEqualTo(20);
+        assertThat(summary.samples().get("user")).containsExactly("user_1", "user_2", "user_3");
+        assertThat(summary.lastSeen()).isAfterOrEqualTo(summary.firstSeen());
+        assertThat(summary.fields()).containsEntry(ErrorAggregator.COUNT_FIELD, 20L)
+                .containsEntry("aggregated_user", List.of("user_1", "user_2", "user_3"));
+
+        assertThat(aggregator.offer(new Event("ERROR", "failed for {}", "Timeout", "user_0"))).isTrue();
+        aggregator.close();
+    }
+
+    @Test
+    @DisplayName("Aggregator - errors beyond maxFingerprints pass through unaggregated")
+    void testMaxFingerprints() {
+        ErrorAggregator<Event> aggregator = aggregator(Duration.ofHours(1), 2);
+
+        assertThat(aggregator.offer(new Event("ERROR", "a", null, null))).isTrue();
+        assertThat(aggregator.offer(new Event("ERROR", "b", null, null))).isTrue();
+        assertThat(aggregator.offer(new Event("ERROR", "c", null, null))).isTrue();
+        assertThat(aggregator.offer(new Event("ERROR", "c", null, null))).isTrue();
+        assertThat(aggregator.offer(new Event("ERROR", "a", null, null))).isFalse();
+        assertThat(aggregator.openWindows()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Aggregator - close emits summaries for windows still open")
+    void testCloseFlushes() {
+        ErrorAggregator<Event> aggregator = aggregator(Duration.ofHours(1), 16);
+        Queue<Event> summaries = new ConcurrentLinkedQueue<>();
+        aggregator.start("test", summaries::add);
+
+        aggregator.offer(new Event("CRITICAL", "disk full", null, "user_1"));
+        aggregator.offer(new Event("CRITICAL", "disk full", null, "user_1"));
+        aggregator.offer(new Event("CRITICAL", "disk full", null, "user_1"));
+        aggregator.close();
+
+        assertThat(summaries).singleElement()
+                .satisfies(event -> assertThat(event.summary().count()).isEqualTo(2));
+    }
+}
@@ -0,0 +1,96 @@
+package com.logbull.test.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link EventSampler}.
+ */
+class EventSamplerTests {
+
+    /**
+     * Test event: a key and whether it is high severity.
+     */
+    private record Event(String key, boolean severe) {
+    }
+
+    private static EventSampler<Event> sampler(int maxPerKey, Duration window) {
+        return EventSampler.<Event>builder(event -> event.key().hashCode())
+                .maxPerKey(maxPerKey)
+                .window(window)
+                .alwaysKeep(Event::severe)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Sampler - keeps maxPerKey events per key and window")
+    void testLimitsPerKey() {
+        EventSampler<Event> sampler = sampler(3, Duration.ofHours(1));
+
+        int kept = 0;
+        for (int i = 0; i < 100; i++) {
+            if (sampler.sample(new Event("user_1", false)) != EventSampler.SUPPRESSED) {
+                kept++;
+            }
+        }
+
+        assertThat(kept).isEqualTo(3);
+        assertThat(sampler.sample(new Event("user_2", false))).isZero();
+    }
+
+    @Test
+    @DisplayName("Sampler - high-severity events always pass and carry the suppressed count")
+    void testHighSeverityAlwaysPasses() {
+        EventSampler<Event> sampler = sampler(1, Duration.ofHours(1));
+
+        assertThat(sampler.sample(new Event("user_1", false))).isZero();
+        for (int i = 0; i < 9; i++) {
+            assertThat(sampler.sample(new Event("user_1", false))).isEqualTo(EventSampler.SUPPRESSED);
+        }
+
+        assertThat(sampler.sample(new Event("user_1", true))).isEqualTo(9);
+        assertThat(sampler.sample(new Event("user_1", true))).isZero();
+    }
+
+    @Test
+    @DisplayName("Sampler - the first event of a new window reports what was suppressed")
+    void testSuppressedCountInNextWindow() throws Exception {
+        EventSampler<Event> sampler = sampler(1, Duration.ofMillis(50));
+
+        sampler.sample(new Event("user_1", false));
+        sampler.sample(new Event("user_1", false));
+        sampler.sample(new Event("user_1", false));
+        Thread.sleep(120);
+
+        assertThat(sampler.sample(new Event("user_1", false))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Sampler - concurrent callers never exceed the budget")
+    void testConcurrentBudget() throws Exception {
+        EventSampler<Event> sampler = sampler(500, Duration.ofHours(1));
+        AtomicLong kept = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (sampler.sample(new Event("hot_key", false)) != EventSampler.SUPPRESSED) {
+                        kept.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(kept).hasValue(500);
+    }
+}
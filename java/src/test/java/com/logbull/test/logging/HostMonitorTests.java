@@ -0,0 +1,219 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Injects 503s, connection resets and latency into the ingest stand-in and
+ * checks that the breaker opens, holds events back and closes again once
+ * the faults stop.
+ */
+class HostMonitorTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String PROJECT_ID = "12345678-1234-1234-1234-123456789012";
+
+    @TempDir
+    Path directory;
+
+    private final LocalIngestServer ingest = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+    private PipelineLogger logger;
+
+    @AfterEach
+    void tearDown() {
+        if (logger != null) {
+            logger.close();
+        }
+        ingest.close();
+    }
+
+    private LogBullLogger client() {
+        return LogBullLogger.builder()
+                .projectId(PROJECT_ID)
+                .host(ingest.baseUrl())
+                .logLevel(LogLevel.DEBUG)
+                .build();
+    }
+
+    private HostMonitor monitor() {
+        return HostMonitor.builder()
+                .name("test")
+                .host(ingest.baseUrl())
+                .projectId(PROJECT_ID)
+                .failureThreshold(2)
+                .probeInterval(Duration.ofMillis(20))
+                .probeTimeout(Duration.ofMillis(100))
+                .initialBackoff(Duration.ofMillis(50))
+                .maxBackoff(Duration.ofMillis(200))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Breaker - opens on 503s, resets and slow responses, drops while open and recovers")
+    void testOpensOnFaultsAndRecovers() {
+        HostMonitor monitor = monitor();
+        logger = PipelineLogger.builder().logger(client()).hostMonitor(monitor).build();
+
+        logger.info("[java] before faults", Map.of("phase", "before"));
+        assertThat(ingest.awaitEvents(log -> "before".equals(log.field("phase")), 1, TIMEOUT)).hasSize(1);
+
+        openAndRecover(monitor, () -> ingest.injectFaults(Duration.ZERO, 1.0, 0));
+        openAndRecover(monitor, () -> ingest.injectFaults(Duration.ZERO, 0, 1.0));
+        openAndRecover(monitor, () -> ingest.injectFaults(Duration.ofMillis(300), 0, 0));
+        openAndRecover(monitor, () -> ingest.injectThrottling(1.0, null));
+
+        assertThat(monitor.openedCount()).isGreaterThanOrEqualTo(4);
+        assertThat(monitor.rejectedCount()).isEqualTo(40);
+        logger.info("[java] after faults", Map.of("phase", "after"));
+        assertThat(ingest.awaitEvents(log -> "after".equals(log.field("phase")), 1, TIMEOUT)).hasSize(1);
+        assertThat(ingest.events(log -> "open".equals(log.field("phase")))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Breaker - a 429 opens it and its Retry-After holds off the next probe")
+    void testThrottlingRespectsRetryAfter() {
+        HostMonitor monitor = HostMonitor.builder()
+                .name("test")
+                .host(ingest.baseUrl())
+                .projectId(PROJECT_ID)
+                .failureThreshold(2)
+                .probeInterval(Duration.ofMillis(20))
+                .probeTimeout(Duration.ofMillis(100))
+                .initialBackoff(Duration.ofMillis(50))
+                .maxBackoff(Duration.ofSeconds(5))
+                .build();
+        logger = PipelineLogger.builder().logger(client()).hostMonitor(monitor).build();
+
+        ingest.injectThrottling(1.0, Duration.ofSeconds(1));
+        await(() -> !monitor.available());
+        long throttled = ingest.faultCount();
+        ingest.clearFaults();
+
+        // Backoff alone would probe again within 100 ms; Retry-After asks for a second
+        sleep(Duration.ofMillis(500));
+        assertThat(monitor.available()).isFalse();
+        assertThat(ingest.faultCount()).isEqualTo(throttled);
+        await(monitor::available);
+    }
+
+    @Test
+    @DisplayName("Probe - posts an empty batch to the project's ingest endpoint, not the host root")
+    void testProbesIngestEndpoint() throws Exception {
+        List<String> probes = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // The host root answers while ingest is failing
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            probes.add(exchange.getRequestMethod() + " " + path + " " + exchange.getRequestHeaders().getFirst("X-API-Key")
+                    + " " + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(path.equals("/") ? 200 : 503, -1);
+            exchange.close();
+        });
+        server.start();
+        try (HostMonitor monitor = HostMonitor.builder()
+                .name("test")
+                .host("http://localhost:" + server.getAddress().getPort() + "/")
+                .projectId(PROJECT_ID)
+                .apiKey("test-key")
+                .failureThreshold(2)
+                .probeInterval(Duration.ofMillis(20))
+                .probeTimeout(Duration.ofMillis(500))
+                .build()) {
+            await(() -> !monitor.available());
+        } finally {
+            server.stop(0);
+        }
+
+        assertThat(probes).isNotEmpty()
+                .allSatisfy(probe -> assertThat(probe)
+                        .isEqualTo("POST /api/v1/logs/receiving/" + PROJECT_ID + " test-key {\"logs\":[]}"));
+    }
+
+    @Test
+    @DisplayName("Breaker - events held back while open are spooled and replayed after recovery")
+    void testSpoolsWhileOpen() {
+        LogBullLogger client = client();
+        HostMonitor monitor = monitor();
+        Spooler spooler = Spooler.builder(client)
+                .monitor(monitor)
+                .directory(directory)
+                .probeInterval(Duration.ofMillis(20))
+                .build();
+        logger = PipelineLogger.builder()
+                .logger(client)
+                .asyncCapacity(1024)
+                .spooler(spooler)
+                .build();
+        assertThat(logger.hostMonitor()).isSameAs(monitor);
+
+        ingest.injectFaults(Duration.ZERO, 1.0, 0);
+        await(() -> !monitor.available());
+        for (int i = 0; i < 100; i++) {
+            logger.info("[java] while open", Map.of("phase", "open", "sequence", i));
+        }
+        await(() -> spooler.spool().pendingCount() == 100);
+
+        ingest.clearFaults();
+        assertThat(ingest.awaitEvents(log -> "open".equals(log.field("phase")), 100, TIMEOUT)).hasSize(100);
+        assertThat(monitor.rejectedCount()).isEqualTo(100);
+        assertThat(spooler.replayedCount()).isEqualTo(100);
+    }
+
+    /**
+     * Injects a fault, logs while the breaker is open, then stops the fault
+     * and waits for the breaker to close.
+     */
+    private void openAndRecover(HostMonitor monitor, Runnable injectFault) {
+        long opened = monitor.openedCount();
+        injectFault.run();
+        await(() -> !monitor.available());
+        assertThat(monitor.openedCount()).isGreaterThan(opened);
+
+        for (int i = 0; i < 10; i++) {
+            logger.info("[java] while open", Map.of("phase", "open"));
+        }
+
+        ingest.clearFaults();
+        await(monitor::available);
+        assertThat(monitor.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,95 @@
+package com.logbull.test.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the memory-mapped {@link LogSpool}.
+ */
+class LogSpoolTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Spool - records come back in order across segments")
+    void testOrderAcrossSegments() {
+        LogSpool spool = LogSpool.open(directory, 1024 * 1024, 64);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(spool.append(record(i))).isTrue();
+        }
+        assertThat(spool.pendingCount()).isEqualTo(50);
+        assertThat(spool.sizeBytes()).isGreaterThan(64);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(text(spool.poll())).isEqualTo("event-" + i);
+        }
+        assertThat(spool.poll()).isNull();
+        assertThat(spool.pendingCount()).isZero();
+        spool.close();
+    }
+
+    @Test
+    @DisplayName("Spool - evicts the oldest segments beyond the size bound")
+    void testEvictsOldestSegments() {
+        // 64-byte segments hold 5 records each; 128 bytes keep 2 segments
+        LogSpool spool = LogSpool.open(directory, 128, 64);
+
+        for (int i = 0; i < 20; i++) {
+            spool.append(record(i));
+        }
+
+        assertThat(spool.sizeBytes()).isLessThanOrEqualTo(128);
+        assertThat(spool.evictedCount() + spool.pendingCount()).isEqualTo(20);
+        assertThat(text(spool.poll())).isEqualTo("event-" + spool.evictedCount());
+        spool.close();
+    }
+
+    @Test
+    @DisplayName("Spool - a reopened spool resumes after the last record read")
+    void testResumesAfterReopen() {
+        LogSpool spool = LogSpool.open(directory, 1024 * 1024, 64);
+        for (int i = 0; i < 12; i++) {
+            spool.append(record(i));
+        }
+        for (int i = 0; i < 7; i++) {
+            spool.poll();
+        }
+        spool.close();
+
+        LogSpool reopened = LogSpool.open(directory, 1024 * 1024, 64);
+        assertThat(reopened.pendingCount()).isEqualTo(5);
+        assertThat(text(reopened.poll())).isEqualTo("event-7");
+        reopened.append(record(12));
+        for (int i = 8; i <= 12; i++) {
+            assertThat(text(reopened.poll())).isEqualTo("event-" + i);
+        }
+        assertThat(reopened.poll()).isNull();
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Spool - rejects records larger than a segment")
+    void testRejectsOversizedRecords() {
+        LogSpool spool = LogSpool.open(directory, 1024, 64);
+
+        assertThat(spool.append(new byte[61])).isFalse();
+        assertThat(spool.append(new byte[60])).isTrue();
+        spool.close();
+    }
+
+    private static byte[] record(int index) {
+        return ("event-" + index).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] record) {
+        return new String(record, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,106 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link LoggingTime} and {@link LoggingTimings}.
+ */
+class LoggingTimingsTests {
+
+    @Test
+    @DisplayName("Logging time - only calls made while measuring count, nested calls once")
+    void testCountsOutermostCallsWhileMeasuring() {
+        LogBullLogger logBullLogger = mock(LogBullLogger.class);
+        when(logBullLogger.withContext(anyMap())).thenReturn(logBullLogger);
+        PipelineLogger logger = PipelineLogger.builder().logger(logBullLogger).build();
+
+        logger.info("[java] before the request");
+        LoggingTime.open();
+        PipelineLogger transactionLogger = logger.withContext(Map.of("order_id", "order_1"));
+        transactionLogger.info("[java] Starting order processing");
+        transactionLogger.info("[java] Processing payment", () -> Map.of("amount", 99.99));
+        long nanos = LoggingTime.close();
+        transactionLogger.info("[java] after the request");
+
+        assertThat(LoggingTime.calls()).isEqualTo(3);
+        assertThat(nanos).isPositive().isEqualTo(LoggingTime.nanos());
+        assertThat(LoggingTime.measuring()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Logging timings - percentiles and share per endpoint, highest logging time first")
+    void testPercentilesPerEndpoint() throws Exception {
+        LoggingTimings timings = new LoggingTimings(2);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(executor.submit(() -> {
+                for (int i = 1; i <= 1000; i++) {
+                    timings.record("POST /api/logs/standalone", TimeUnit.MICROSECONDS.toNanos(1000),
+                            TimeUnit.MICROSECONDS.toNanos(i), 4);
+                    timings.record("GET /api/logs/combined", TimeUnit.MICROSECONDS.toNanos(1000),
+                            TimeUnit.MICROSECONDS.toNanos(10), 2);
+                }
+            }));
+        }
+        for (Future<?> thread : threads) {
+            thread.get();
+        }
+        executor.shutdown();
+        timings.record("GET /api/logs/spring-boot-starter", 1000, 0, 0);
+
+        Map<String, Map<String, Object>> snapshot = timings.snapshot();
+        assertThat(snapshot).containsOnlyKeys("POST /api/logs/standalone", "GET /api/logs/combined",
+                LoggingTimings.OTHER_ENDPOINT);
+        assertThat(snapshot.keySet()).first().isEqualTo("POST /api/logs/standalone");
+
+        Map<String, Object> standalone = snapshot.get("POST /api/logs/standalone");
+        assertThat(standalone).containsEntry("requests", 4000L).containsEntry("logging_calls_per_request", 4.0);
+        assertThat((double) standalone.get("logging_share")).isCloseTo(0.5005, within(0.001));
+        Map<?, ?> logging = (Map<?, ?>) standalone.get("logging_us");
+        assertThat((long) logging.get("p50")).isBetween(495L, 505L);
+        assertThat((long) logging.get("p99")).isBetween(985L, 995L);
+        assertThat((long) logging.get("p999")).isBetween(995L, 1005L);
+        assertThat((long) ((Map<?, ?>) standalone.get("request_us")).get("p50")).isBetween(995L, 1005L);
+
+        timings.record("POST /api/logs/standalone", 1000, 1000, 1);
+        assertThat(timings.snapshot().get("POST /api/logs/standalone")).containsEntry("requests", 4001L);
+    }
+
+    @Test
+    @DisplayName("Logging timings - a virtual thread per request adds no recorders")
+    void testRecordersBoundedAcrossShortLivedThreads() {
+        LoggingTimings timings = new LoggingTimings(2);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.submit(() -> {
+                    timings.record("POST /api/logs/standalone", TimeUnit.MICROSECONDS.toNanos(1000),
+                            TimeUnit.MICROSECONDS.toNanos(100), 1);
+                    timings.record("GET /api/logs/combined", TimeUnit.MICROSECONDS.toNanos(500), 0, 0);
+                });
+            }
+        }
+
+        assertThat(timings.recorderCount()).isEqualTo(4);
+        Map<String, Object> standalone = timings.snapshot().get("POST /api/logs/standalone");
+        assertThat(standalone).containsEntry("requests", 10_000L);
+        assertThat((long) ((Map<?, ?>) standalone.get("logging_us")).get("p50")).isBetween(99L, 101L);
+        assertThat(timings.recorderCount()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,154 @@
+package com.logbull.test.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PipelineAppender}.
+ */
+class PipelineAppenderTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("Concurrent producers fill the ring buffer through Logback and lose nothing")
+    void testConcurrentProducersFillBuffer() throws Exception {
+        int producers = 4;
+        int perProducer = 1_000;
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        ConcurrentHashMap<String, AtomicInteger> perThread = new ConcurrentHashMap<>();
+
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        AppenderBase<ILoggingEvent> sink = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // The MDC must be the producer's, captured before the event left its thread
+                if (event.getThreadName().equals(event.getMDCPropertyMap().get("producer"))) {
+                    perThread.computeIfAbsent(event.getThreadName(), name -> new AtomicInteger()).incrementAndGet();
+                }
+                received.incrementAndGet();
+            }
+        };
+        sink.setContext(context);
+        sink.start();
+
+        PipelineAppender appender = new PipelineAppender(sink,
+                new AsyncSettings(true, 64, OverflowPolicy.BLOCK, Duration.ofSeconds(30), 0, false),
+                new SamplingSettings(false, "", 100, Duration.ofSeconds(1)),
+                new AggregationSettings(false, Duration.ofSeconds(1), List.of(), 5, 1024),
+                null, null);
+        appender.setContext(context);
+        appender.start();
+        Logger logger = context.getLogger("com.logbull.test.logging.PipelineAppenderTests");
+        logger.addAppender(appender);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                executor.submit(() -> {
+                    context.getMDCAdapter().put("producer", Thread.currentThread().getName());
+                    for (int i = 0; i < perProducer; i++) {
+                        logger.info("Event {}", i);
+                    }
+                    context.getMDCAdapter().clear();
+                });
+            }
+
+            // The sink is held, so the producers block on a full buffer
+            await(() -> appender.dispatcher().queueDepth() == appender.dispatcher().capacity());
+            release.countDown();
+
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+            await(() -> received.get() == producers * perProducer);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            appender.stop();
+            context.stop();
+        }
+
+        assertThat(appender.dispatcher().droppedCount()).isZero();
+        assertThat(perThread).hasSize(producers);
+        assertThat(perThread.values()).allSatisfy(count -> assertThat(count).hasValue(perProducer));
+    }
+
+    @Test
+    @DisplayName("Unwrap - buffered events reach the delegate, which keeps running, and the meters are removed")
+    void testUnwrapKeepsDelegate() {
+        List<ILoggingEvent> received = new CopyOnWriteArrayList<>();
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        AppenderBase<ILoggingEvent> sink = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                received.add(event);
+            }
+        };
+        sink.setContext(context);
+        sink.start();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        PipelineAppender appender = new PipelineAppender(sink,
+                new AsyncSettings(true, 1024, OverflowPolicy.BLOCK, Duration.ofSeconds(1), 0, false),
+                new SamplingSettings(false, "", 100, Duration.ofSeconds(1)),
+                new AggregationSettings(false, Duration.ofSeconds(1), List.of(), 5, 1024),
+                registry, null);
+        appender.setContext(context);
+        appender.start();
+        Logger logger = context.getLogger("com.logbull.test.logging.PipelineAppenderTests");
+        logger.addAppender(appender);
+        for (int i = 0; i < 500; i++) {
+            logger.info("Event {}", i);
+        }
+        assertThat(registry.find("logbull.pipeline.events.enqueued").tag("logger", "starter").counter()).isNotNull();
+
+        logger.detachAppender(appender);
+        assertThat(appender.unwrap()).isSameAs(sink);
+
+        assertThat(received).hasSize(500);
+        assertThat(appender.isStarted()).isFalse();
+        assertThat(sink.isStarted()).isTrue();
+        assertThat(registry.getMeters()).noneMatch(meter -> "starter".equals(meter.getId().getTag("logger")));
+        context.stop();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
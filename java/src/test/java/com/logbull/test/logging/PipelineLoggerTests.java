@@ -0,0 +1,262 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for level gating, lazy and typed fields, sampling, aggregation, batches, closing and
+ * the lazy transport in {@link PipelineLogger}.
+ */
+class PipelineLoggerTests {
+
+    private final LogBullLogger logBullLogger = mock(LogBullLogger.class);
+
+    @Test
+    @DisplayName("Disabled level - returns without calling the supplier or the logger")
+    void testDisabledLevelSkipsSupplier() {
+        PipelineLogger logger = PipelineLogger.builder().logger(logBullLogger).level(LogLevel.INFO).build();
+        AtomicInteger calls = new AtomicInteger();
+
+        logger.debug("[java] hidden", () -> {
+            calls.incrementAndGet();
+            return Map.of("step", 1);
+        });
+        logger.debug("[java] hidden", Map.of("step", 2));
+
+        assertThat(logger.isDebugEnabled()).isFalse();
+        assertThat(logger.isInfoEnabled()).isTrue();
+        assertThat(calls).hasValue(0);
+        verifyNoInteractions(logBullLogger);
+    }
+
+    @Test
+    @DisplayName("Enabled level - supplier fields reach the logger")
+    void testEnabledLevelCallsSupplier() {
+        PipelineLogger logger = PipelineLogger.builder().logger(logBullLogger).level(LogLevel.INFO).build();
+
+        logger.warning("[java] shown", () -> Map.of("step", 3));
+
+        verify(logBullLogger).warning("[java] shown", Map.of("step", 3));
+    }
+
+    @Test
+    @DisplayName("Typed event - record fields reach the logger as snake_case entries")
+    void testTypedEvent() {
+        record PaymentEvent(String paymentMethod, double amount) {
+        }
+        PipelineLogger logger = PipelineLogger.builder().logger(logBullLogger).level(LogLevel.INFO).build();
+
+        logger.debug("[java] hidden", new PaymentEvent("credit_card", 1.0));
+        logger.info("[java] Processing payment", new PaymentEvent("credit_card", 99.99));
+
+        verify(logBullLogger).info("[java] Processing payment", Map.of("payment_method", "credit_card", "amount", 99.99));
+        verify(logBullLogger, times(0)).debug(eq("[java] hidden"), anyMap());
+    }
+
+    @Test
+    @DisplayName("Sampling - repeated lines per user are limited and the next kept one carries the count")
+    void testSamplingPerContextKey() throws Exception {
+        when(logBullLogger.withContext(anyMap())).thenReturn(logBullLogger);
+        PipelineLogger logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .samplingKey("user_id")
+                .samplingMaxPerKey(2)
+                .samplingWindow(Duration.ofMillis(100))
+                .build();
+        PipelineLogger hotUser = logger.withContext(Map.of("user_id", "user_1"));
+        PipelineLogger otherUser = logger.withContext(Map.of("user_id", "user_2"));
+
+        for (int i = 0; i < 10; i++) {
+            hotUser.info("[java] Processing payment");
+        }
+        otherUser.info("[java] Processing payment");
+        verify(logBullLogger, times(3)).info("[java] Processing payment");
+
+        Thread.sleep(250);
+        hotUser.info("[java] Processing payment");
+        verify(logBullLogger).info("[java] Processing payment", Map.of(PipelineLogger.SUPPRESSED_COUNT_FIELD, 8L));
+    }
+
+    @Test
+    @DisplayName("Aggregation - repeated errors become the first event plus one summary")
+    void testAggregatesRepeatedErrors() {
+        when(logBullLogger.withContext(anyMap())).thenReturn(logBullLogger);
+        PipelineLogger logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .aggregationWindow(Duration.ofMillis(100))
+                .aggregationSampleFields(List.of("order_id"))
+                .aggregationReservoirSize(2)
+                .build();
+        Map<String, Object> failure = Map.of("error_type", "TimeoutException");
+
+        for (int i = 0; i < 50; i++) {
+            logger.withContext(Map.of("order_id", "order_" + i)).error("[java] Order processing failed", failure);
+        }
+        logger.error("[java] Order processing failed", Map.of("error_type", "IllegalStateException"));
+
+        verify(logBullLogger, times(1)).error("[java] Order processing failed", failure);
+        verify(logBullLogger).error("[java] Order processing failed", Map.of("error_type", "IllegalStateException"));
+        verify(logBullLogger, timeout(2000)).error(eq("[java] Order processing failed"), argThat(fields ->
+                Long.valueOf(49).equals(fields.get(ErrorAggregator.COUNT_FIELD))
+                        && List.of("order_1", "order_2").equals(fields.get("aggregated_order_id"))
+                        && fields.containsKey(ErrorAggregator.FIRST_SEEN_FIELD)
+                        && fields.containsKey(ErrorAggregator.LAST_SEEN_FIELD)));
+        logger.close();
+    }
+
+    @Test
+    @DisplayName("Batch - events are held until the batch is closed")
+    void testBatchHoldsEventsUntilClose() {
+        when(logBullLogger.withContext(anyMap())).thenReturn(logBullLogger);
+        PipelineLogger logger = PipelineLogger.builder().logger(logBullLogger).build();
+
+        try (PipelineLogger.Batch batch = logger.batch()) {
+            batch.logger().withContext(Map.of("order_id", "order_1")).info("[java] Processing payment");
+            batch.logger().info("[java] Processing payment");
+            verify(logBullLogger, times(0)).info("[java] Processing payment");
+        }
+        verify(logBullLogger, times(2)).info("[java] Processing payment");
+    }
+
+    @Test
+    @DisplayName("Close - buffered events reach the bulk and priority clients before the close action")
+    void testCloseActionRunsAfterDelivery() {
+        LogBullLogger priorityLogger = mock(LogBullLogger.class);
+        PipelineLogger logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .asyncCapacity(64)
+                .priorityCapacity(16)
+                .priorityLogger(priorityLogger)
+                .onClose(() -> {
+                    logBullLogger.shutdown();
+                    priorityLogger.shutdown();
+                })
+                .build();
+
+        logger.info("[java] Starting order processing");
+        logger.error("[java] Order processing failed", Map.of("error_type", "PaymentException"));
+        logger.close();
+
+        InOrder order = inOrder(logBullLogger, priorityLogger);
+        order.verify(priorityLogger).error("[java] Order processing failed", Map.of("error_type", "PaymentException"));
+        order.verify(priorityLogger).shutdown();
+        InOrder bulk = inOrder(logBullLogger);
+        bulk.verify(logBullLogger).info("[java] Starting order processing");
+        bulk.verify(logBullLogger).shutdown();
+    }
+
+    @Test
+    @DisplayName("Lazy transport - the client is built on the first event and buffered events follow in order")
+    void testLazyTransportBuffersUntilClientIsBuilt() throws Exception {
+        AtomicInteger built = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineLogger logger = PipelineLogger.builder()
+                .lazyLogger(() -> {
+                    built.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return logBullLogger;
+                }, 16)
+                .build();
+        assertThat(built).hasValue(0);
+
+        logger.info("[java] Starting order processing");
+        logger.withContext(Map.of("order_id", "order_1")).info("[java] Processing payment", Map.of("step", 2));
+        assertThat(logger.transportStarted()).isFalse();
+        verifyNoInteractions(logBullLogger);
+
+        release.countDown();
+        verify(logBullLogger, timeout(2000)).info("[java] Processing payment", Map.of("order_id", "order_1", "step", 2));
+        logger.info("[java] Order processed successfully");
+
+        InOrder order = inOrder(logBullLogger);
+        order.verify(logBullLogger).info("[java] Starting order processing");
+        order.verify(logBullLogger).info("[java] Processing payment", Map.of("order_id", "order_1", "step", 2));
+        order.verify(logBullLogger).info("[java] Order processed successfully");
+        assertThat(logger.transportStarted()).isTrue();
+        assertThat(built).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Lazy transport - a failed build is counted and the next event builds the client")
+    void testLazyTransportCountsBuildFailures() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicInteger built = new AtomicInteger();
+        PipelineLogger logger = PipelineLogger.builder()
+                .lazyLogger(() -> {
+                    if (built.incrementAndGet() == 1) {
+                        throw new IllegalStateException("host not resolvable yet");
+                    }
+                    return logBullLogger;
+                }, 16)
+                .meterRegistry(registry)
+                .build();
+
+        logger.info("[java] Starting order processing");
+        double failures = 0;
+        for (long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2); failures == 0
+                && System.nanoTime() < deadline; Thread.onSpinWait()) {
+            failures = registry.get("logbull.pipeline.transport.build.failures").functionCounter().count();
+        }
+        assertThat(failures).isEqualTo(1);
+
+        logger.info("[java] Order processed successfully");
+        verify(logBullLogger, timeout(2000)).info("[java] Order processed successfully");
+        InOrder order = inOrder(logBullLogger);
+        order.verify(logBullLogger).info("[java] Starting order processing");
+        order.verify(logBullLogger).info("[java] Order processed successfully");
+        assertThat(built).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Lazy transport - a client built after closing is handed the buffer and then released")
+    void testLazyTransportReleasesClientBuiltAfterClose() {
+        CountDownLatch release = new CountDownLatch(1);
+        LazyTransport transport = new LazyTransport(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return logBullLogger;
+        }, LogBullLogger::shutdown, "test", 16);
+
+        transport.send(new LogEvent(null, LogLevel.INFO, "[java] Starting order processing", null, null,
+                System.currentTimeMillis()));
+        transport.close(Duration.ofMillis(50));
+        verify(logBullLogger, never()).shutdown();
+
+        release.countDown();
+        verify(logBullLogger, timeout(2000)).shutdown();
+        InOrder order = inOrder(logBullLogger);
+        order.verify(logBullLogger).info("[java] Starting order processing");
+        order.verify(logBullLogger).shutdown();
+    }
+}
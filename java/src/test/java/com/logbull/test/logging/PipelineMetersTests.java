@@ -0,0 +1,83 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the pipeline meters recorded by {@link PipelineLogger}.
+ */
+class PipelineMetersTests {
+
+    private final LogBullLogger logBullLogger = mock(LogBullLogger.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Async pipeline - counts enqueued and delivered events per level")
+    void testAsyncPipelineMeters() {
+        PipelineLogger logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .name("standalone")
+                .meterRegistry(registry)
+                .asyncCapacity(64)
+                .build();
+
+        logger.info("[java] one");
+        logger.info("[java] two", Map.of("step", 2));
+        logger.error("[java] three");
+        logger.close();
+
+        assertThat(count("logbull.pipeline.events.enqueued", "INFO")).isEqualTo(2);
+        assertThat(count("logbull.pipeline.events.delivered", "INFO")).isEqualTo(2);
+        assertThat(count("logbull.pipeline.events.delivered", "ERROR")).isEqualTo(1);
+        assertThat(registry.get("logbull.pipeline.handoff").tag("logger", "standalone").timer().count()).isEqualTo(3);
+        assertThat(registry.get("logbull.pipeline.queue.capacity").gauge().value()).isEqualTo(64);
+        assertThat(registry.get("logbull.pipeline.batch.size").summary().totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Async pipeline - counts dropped events per level")
+    void testDroppedEvents() {
+        PipelineLogger logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .meterRegistry(registry)
+                .asyncCapacity(2)
+                .overflowPolicy(OverflowPolicy.DROP_NEWEST)
+                .build();
+
+        for (int i = 0; i < 10_000; i++) {
+            logger.debug("[java] flood");
+        }
+        logger.close();
+
+        double delivered = count("logbull.pipeline.events.delivered", "DEBUG");
+        double dropped = count("logbull.pipeline.events.dropped", "DEBUG");
+        assertThat(delivered + dropped).isEqualTo(10_000);
+    }
+
+    @Test
+    @DisplayName("Synchronous pipeline - records sends without a queue")
+    void testSynchronousPipelineMeters() {
+        PipelineLogger logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .meterRegistry(registry)
+                .build();
+
+        logger.warning("[java] sync");
+
+        assertThat(count("logbull.pipeline.events.delivered", "WARNING")).isEqualTo(1);
+        assertThat(registry.find("logbull.pipeline.queue.depth").gauge()).isNull();
+    }
+
+    private double count(String name, String level) {
+        Counter counter = registry.find(name).tag("level", level).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,114 @@
+package com.logbull.test.logging;
+
+import com.logbull.core.LogLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link RecentEvents}.
+ */
+class RecentEventsTests {
+
+    private static final long NOW = Instant.parse("2026-01-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    @DisplayName("Recent events - queries by request_id, session_id, level and time range, newest first")
+    void testIndexedQueries() {
+        RecentEvents recent = new RecentEvents(64 * 1024, 512, 16);
+        for (int i = 0; i < 40; i++) {
+            LogLevel level = i % 10 == 0 ? LogLevel.ERROR : LogLevel.INFO;
+            recent.record(NOW + i, level, "[java] step " + i,
+                    Map.of("request_id", "req-" + i % 4, "session_id", "sess-" + i % 2, "step", i), "standalone");
+        }
+
+        List<Map<String, Object>> byRequest = recent.query("req-1", null, null, null, null, 100);
+        assertThat(byRequest).extracting(event -> event.get("message"))
+                .containsExactly(List.of(37, 33, 29, 25, 21, 17, 13, 9, 5, 1).stream()
+                        .map(i -> "[java] step " + i).toArray());
+
+        assertThat(recent.query(null, "sess-0", null, null, null, 100)).hasSize(20);
+        assertThat(recent.query("req-0", "sess-0", LogLevel.ERROR, null, null, 100))
+                .extracting(event -> (Object) ((Map<?, ?>) event.get("fields")).get("step"))
+                .containsExactly(20, 0);
+        assertThat(recent.query(null, null, LogLevel.ERROR, null, null, 2)).hasSize(2);
+        assertThat(recent.query(null, null, null, Instant.ofEpochMilli(NOW + 30), Instant.ofEpochMilli(NOW + 34), 100))
+                .hasSize(5);
+        assertThat(recent.query("req-9", null, null, null, null, 100)).isEmpty();
+
+        Map<String, Object> newest = recent.query(null, null, null, null, null, 1).get(0);
+        assertThat(newest).containsEntry("level", "INFO").containsEntry("source", "standalone")
+                .containsEntry("timestamp", "2026-01-01T12:00:00.039Z");
+    }
+
+    @Test
+    @DisplayName("Recent events - a context kept apart is indexed and written once, event fields on top")
+    void testSeparateContext() {
+        RecentEvents recent = new RecentEvents(64 * 1024, 512, 16);
+        LogContext context = new LogContext(new LogContext(null, Map.of("service", "order_processing")),
+                Map.of("request_id", "req-1", "step", "context"));
+
+        recent.record(NOW, LogLevel.INFO, "[java] first", context, Map.of("step", 1), "standalone");
+        recent.record(NOW + 1, LogLevel.INFO, "[java] second", context, null, "standalone");
+
+        List<Map<String, Object>> events = recent.query("req-1", null, null, null, null, 10);
+        assertThat(events).extracting(event -> event.get("fields")).containsExactly(
+                Map.of("service", "order_processing", "request_id", "req-1", "step", "context"),
+                Map.of("service", "order_processing", "request_id", "req-1", "step", 1));
+        assertThat(context.json()).isSameAs(context.json());
+    }
+
+    @Test
+    @DisplayName("Recent events - memory stays bounded: old events are overwritten, oversized ones truncated")
+    void testBounded() {
+        RecentEvents recent = new RecentEvents(16 * 512, 512, 16);
+        for (int i = 0; i < 100; i++) {
+            recent.record(NOW + i, LogLevel.INFO, "[java] step " + i, Map.of("request_id", "req-" + i % 3), "starter");
+        }
+        recent.record(NOW + 100, LogLevel.WARNING, "x".repeat(2000), Map.of("request_id", "req-big"), "starter");
+
+        assertThat(recent.slotCount()).isEqualTo(16);
+        assertThat(recent.query(null, null, null, null, null, 1000)).hasSize(16);
+        assertThat(recent.query("req-0", null, null, null, null, 1000)).hasSizeLessThanOrEqualTo(6);
+
+        Map<String, Object> big = recent.query(null, null, LogLevel.WARNING, null, null, 1).get(0);
+        assertThat(big).containsEntry("truncated", true).doesNotContainKey("fields");
+        assertThat((String) big.get("message")).hasSizeLessThan(2000);
+    }
+
+    @Test
+    @DisplayName("Recent events - concurrent writers lose nothing the ring still holds")
+    void testConcurrentWriters() throws Exception {
+        RecentEvents recent = new RecentEvents(4096L * 512, 512, 256);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            String requestId = "req-" + t;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    recent.record(System.currentTimeMillis(), LogLevel.INFO, "[java] event",
+                            Map.of("request_id", requestId, "sequence", i), "standalone");
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+
+        assertThat(recent.recordedCount()).isEqualTo(4000);
+        assertThat(recent.skippedCount()).isZero();
+        for (int t = 0; t < 8; t++) {
+            assertThat(recent.query("req-" + t, null, null, null, null, 1000)).hasSize(500);
+        }
+    }
+}
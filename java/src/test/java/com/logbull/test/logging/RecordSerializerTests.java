@@ -0,0 +1,83 @@
+package com.logbull.test.logging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for typed events: {@link RecordSerializer}, {@link RecordFields} and {@link JsonBuffer}.
+ */
+class RecordSerializerTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    enum Status {
+        COMPLETED
+    }
+
+    record PaymentEvent(String paymentMethod, double amount) {
+    }
+
+    record CompletionEvent(Status status, long processingTimeMs, int retries, boolean cached, char grade,
+            BigDecimal total, String note) {
+    }
+
+    @Test
+    @DisplayName("Serializer - writes snake_case fields with unboxed primitives as valid JSON")
+    void testWritesJson() throws Exception {
+        JsonBuffer buffer = new JsonBuffer(16);
+        RecordSerializer.of(CompletionEvent.class).write(new CompletionEvent(Status.COMPLETED, 1250, -3, true, 'A',
+                new BigDecimal("99.990"), "quote \" slash \\ tab \t café 😀"), buffer);
+
+        assertThat(buffer.toString()).isEqualTo("{\"status\":\"COMPLETED\",\"processing_time_ms\":1250,"
+                + "\"retries\":-3,\"cached\":true,\"grade\":\"A\",\"total\":99.990,"
+                + "\"note\":\"quote \\\" slash \\\\ tab \\t café 😀\"}");
+        JsonNode parsed = MAPPER.readTree(buffer.toByteArray());
+        assertThat(parsed.get("note").asText()).isEqualTo("quote \" slash \\ tab \t café 😀");
+    }
+
+    @Test
+    @DisplayName("Serializer - doubles, nulls and extremes round-trip through a reused buffer")
+    void testReusesBuffer() throws Exception {
+        JsonBuffer buffer = new JsonBuffer();
+        RecordSerializer<PaymentEvent> serializer = RecordSerializer.of(PaymentEvent.class);
+
+        for (double amount : new double[] { 99.99, 100.0, -0.5, 1e20, Double.MIN_VALUE }) {
+            serializer.write(new PaymentEvent("credit_card", amount), buffer.reset());
+            assertThat(MAPPER.readTree(buffer.toByteArray()).get("amount").asDouble()).isEqualTo(amount);
+        }
+        serializer.write(new PaymentEvent(null, Double.NaN), buffer.reset());
+        assertThat(buffer.toString()).isEqualTo("{\"payment_method\":null,\"amount\":null}");
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double value = i % 2 == 0 ? random.nextInt(10_000_000) / 100.0 : random.nextDouble() * 1000;
+            buffer.reset().writeDouble(value);
+            assertThat(buffer.toString()).isEqualTo(Double.toString(value));
+        }
+
+        buffer.reset().writeLong(Long.MIN_VALUE);
+        assertThat(buffer.toString()).isEqualTo(Long.toString(Long.MIN_VALUE));
+        assertThat(RecordSerializer.of(PaymentEvent.class)).isSameAs(serializer);
+        assertThat(RecordSerializer.snakeCase("httpURLPath")).isEqualTo("http_url_path");
+    }
+
+    @Test
+    @DisplayName("Fields - map view reads single fields and equals the equivalent map")
+    void testMapView() {
+        RecordFields<PaymentEvent> fields = RecordFields.of(new PaymentEvent("credit_card", 99.99));
+
+        assertThat(fields.get("amount")).isEqualTo(99.99);
+        assertThat(fields.get("unknown")).isNull();
+        assertThat(fields).hasSize(2).containsKey("payment_method");
+        assertThat(fields).isEqualTo(Map.of("payment_method", "credit_card", "amount", 99.99));
+        assertThat(fields.keySet()).containsExactly("payment_method", "amount");
+    }
+}
@@ -0,0 +1,132 @@
+package com.logbull.test.logging;
+
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stops and restarts the ingest stand-in in the middle of a run and checks
+ * that events logged during the outage are spooled and replayed.
+ */
+class SpoolerTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path directory;
+
+    private LocalIngestServer ingest = LocalIngestServer.start(LocalIngestServer.Mode.RECORD);
+    private PipelineLogger logger;
+
+    @AfterEach
+    void tearDown() {
+        if (logger != null) {
+            logger.close();
+        }
+        ingest.close();
+    }
+
+    @Test
+    @DisplayName("Spooler - events logged while the host is down are replayed in order")
+    void testReplaysAfterOutage() {
+        LogBullLogger logBullLogger = LogBullLogger.builder()
+                .projectId("12345678-1234-1234-1234-123456789012")
+                .host(ingest.baseUrl())
+                .logLevel(LogLevel.DEBUG)
+                .build();
+        Spooler spooler = Spooler.builder(logBullLogger)
+                .host(ingest.baseUrl())
+                .projectId("12345678-1234-1234-1234-123456789012")
+                .directory(directory)
+                .segmentBytes(4096)
+                .probeInterval(Duration.ofMillis(50))
+                .build();
+        logger = PipelineLogger.builder().logger(logBullLogger).spooler(spooler).build();
+        PipelineLogger orders = logger.withContext(Map.of("service", "order_processing"));
+
+        orders.info("[java] before outage", Map.of("phase", "before"));
+        assertThat(ingest.awaitEvents(log -> "before".equals(log.field("phase")), 1, TIMEOUT)).hasSize(1);
+
+        int port = ingest.port();
+        ingest.close();
+        await(() -> !spooler.hostReachable());
+
+        Instant loggedFrom = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 200; i++) {
+            orders.info("[java] during outage", Map.of("phase", "during", "sequence", i));
+        }
+        Instant loggedTo = Instant.now();
+        assertThat(spooler.spool().pendingCount()).isEqualTo(200);
+
+        ingest = LocalIngestServer.start(LocalIngestServer.Mode.RECORD, port);
+        List<ReceivedLog> replayed = ingest.awaitEvents(log -> "during".equals(log.field("phase")), 200, TIMEOUT);
+
+        assertThat(replayed).hasSize(200);
+        assertThat(replayed).allSatisfy(log -> assertThat(log.field("service")).isEqualTo("order_processing"));
+        // Replayed with the time they were logged, not the time of the replay
+        assertThat(replayed).allSatisfy(log -> assertThat(Instant.parse(log.field(Spooler.LOGGED_AT_FIELD)))
+                .isBetween(loggedFrom, loggedTo));
+        assertThat(replayed).extracting(log -> ((Number) log.fields().get("sequence")).intValue())
+                .isSorted();
+        assertThat(spooler.spool().pendingCount()).isZero();
+        assertThat(spooler.replayedCount()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Spooler - async overflow spills to the spool instead of dropping")
+    void testOverflowSpillsToSpool() {
+        LogBullLogger logBullLogger = LogBullLogger.builder()
+                .projectId("12345678-1234-1234-1234-123456789012")
+                .host(ingest.baseUrl())
+                .logLevel(LogLevel.DEBUG)
+                .build();
+        Spooler spooler = Spooler.builder(logBullLogger)
+                .host(ingest.baseUrl())
+                .projectId("12345678-1234-1234-1234-123456789012")
+                .directory(directory)
+                .replayRate(100_000)
+                .probeInterval(Duration.ofMillis(50))
+                .build();
+        logger = PipelineLogger.builder()
+                .logger(logBullLogger)
+                .asyncCapacity(2)
+                .overflowPolicy(OverflowPolicy.DROP_NEWEST)
+                .spooler(spooler)
+                .build();
+
+        for (int i = 0; i < 2000; i++) {
+            logger.debug("[java] flood", Map.of("phase", "flood"));
+        }
+
+        assertThat(logger.dispatcher().droppedCount()).isZero();
+        assertThat(ingest.awaitEvents(log -> "flood".equals(log.field("phase")), 2000, TIMEOUT)).hasSize(2000);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
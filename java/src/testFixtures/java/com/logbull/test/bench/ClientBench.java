@@ -0,0 +1,342 @@
+package com.logbull.test.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the same order workload in each client library against one
+ * {@link LocalIngestServer} and prints a table to compare them.
+ *
+ * Usage: {@code ClientBench <testing dir> <output dir> <orders> <clients>},
+ * normally through {@code make bench} or {@code ./gradlew clientBench}.
+ *
+ * Each client runs in a process of its own from its directory of the
+ * testing repository, with LOGBULL_HOST pointing at the stand-in. Per order
+ * it logs "Starting order processing" with an order context, "Processing
+ * payment" with a nested payment context and "Order processed
+ * successfully", plus a critical event every 100th order, each carrying
+ * {@code emitted_at_us}. A warm-up of a tenth of the orders runs first under
+ * a run id of its own and is left out of the figures, request bytes and
+ * counts included: each timed event accounts for its share of the request
+ * that carried it, so a request with the last warm-up and first timed
+ * events only counts in part. A client reports
+ * {@code BENCH emitted=<n> seconds=<s>} once it has emitted the timed run;
+ * the stand-in is then watched until every event arrived or none arrived
+ * for {@link #SETTLE}.
+ *
+ * Per client: emit rate (events over the client's own emit time), delivered
+ * rate (events over first emit to last arrival), delivery latency from
+ * {@code emitted_at_us} to arrival, request body bytes per event, events per
+ * request and loss. Latency compares two wall clocks of the same host. A
+ * client whose toolchain is not installed is reported as skipped. Results
+ * are also written to {@code clients.json} in the output directory, to keep
+ * alongside the client versions they were taken with.
+ */
+public final class ClientBench {
+
+    private static final String PROJECT_ID = "12345678-1234-1234-1234-123456789012";
+    private static final Pattern RESULT = Pattern.compile("BENCH emitted=(\\d+) seconds=([0-9.]+)");
+    private static final Duration SETTLE = Duration.ofSeconds(5);
+    private static final Duration CLIENT_TIMEOUT = Duration.ofMinutes(10);
+
+    private ClientBench() {
+    }
+
+    /**
+     * A client library and how to run its bench script.
+     */
+    private record Client(String name, String directory, List<String> command) {
+    }
+
+    /**
+     * Outcome for one client; {@code skipped} holds the reason when it did not run.
+     */
+    private record Result(
+            String client,
+            String skipped,
+            long expected,
+            long emitted,
+            double emitSeconds,
+            long delivered,
+            double deliveredSeconds,
+            double p50Millis,
+            double p99Millis,
+            double maxMillis,
+            double bytesPerEvent,
+            double eventsPerRequest) {
+
+        double loss() {
+            return expected == 0 ? 0 : 1 - Math.min(delivered, expected) / (double) expected;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path testing = Path.of(args[0]).toAbsolutePath().normalize();
+        Path output = Path.of(args[1]);
+        int orders = Integer.parseInt(args[2]);
+        List<String> selected = Arrays.asList(args[3].split(","));
+
+        List<Client> clients = new ArrayList<>();
+        for (Client client : clients()) {
+            if (selected.contains("all") || selected.contains(client.name())) {
+                clients.add(client);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        try (LocalIngestServer ingest = LocalIngestServer.start(LocalIngestServer.Mode.RECORD)) {
+            for (Client client : clients) {
+                System.out.println("[bench] " + client.name() + ": " + orders + " orders");
+                Result result = run(ingest, testing, client, orders);
+                results.add(result);
+                if (result.skipped() != null) {
+                    System.out.println("[bench] " + client.name() + " skipped: " + result.skipped());
+                }
+            }
+        }
+
+        print(orders, results);
+        write(output.resolve("clients.json"), orders, results);
+    }
+
+    private static List<Client> clients() {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return List.of(
+                new Client("go", "go", List.of("go", "run", "./bench")),
+                new Client("python", "python", List.of("uv", "run", "bench.py")),
+                new Client("js", "js", List.of("node", "bench.js")),
+                new Client("java", "java", List.of(java, "-cp", System.getProperty("java.class.path"),
+                        JavaClientBench.class.getName())),
+                new Client("php", "php", List.of("php", "bench.php")),
+                new Client("net", "net", List.of("dotnet", "run", "-c", "Release", "--", "bench")));
+    }
+
+    private static Result run(LocalIngestServer ingest, Path testing, Client client, int orders) throws Exception {
+        String run = client.name() + "-" + System.currentTimeMillis();
+        long expected = 3L * orders + (orders + 99) / 100;
+        int warmup = orders / 10;
+        long warmupExpected = 3L * warmup + (warmup + 99) / 100;
+        ingest.reset();
+
+        ProcessBuilder builder = new ProcessBuilder(client.command())
+                .directory(testing.resolve(client.directory()).toFile())
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+        builder.environment().put("LOGBULL_HOST", ingest.baseUrl());
+        builder.environment().put("LOGBULL_PROJECT_ID", PROJECT_ID);
+        builder.environment().put("LOGBULL_API_KEY", "");
+        builder.environment().put("BENCH_RUN", run);
+        builder.environment().put("BENCH_ORDERS", Integer.toString(orders));
+        builder.environment().put("BENCH_WARMUP", Integer.toString(warmup));
+
+        Process process;
+        try {
+            process = builder.start();
+        } catch (IOException e) {
+            return skipped(client, client.command().get(0) + " not found");
+        }
+        // Relates the stand-in's nanoTime arrivals to the wall clock the clients stamp events with
+        long originNanos = System.nanoTime();
+        long originMicros = epochMicros();
+
+        CompletableFuture<Matcher> reported = CompletableFuture.supplyAsync(() -> awaitResult(client, process));
+        Matcher result;
+        try {
+            result = reported.get(CLIENT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            result = null;
+        }
+        if (result == null) {
+            process.destroyForcibly().waitFor();
+            return skipped(client, "no BENCH line, exit " + (process.isAlive() ? "-" : process.exitValue()));
+        }
+        awaitDelivery(ingest, warmupExpected + expected);
+        // Clients exit once they have flushed; one that does not is ended
+        if (!process.waitFor(5, TimeUnit.SECONDS)) {
+            process.destroy();
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+
+        List<ReceivedLog> timed = ingest.events(log -> run.equals(log.field("bench_run")));
+        long[] latencies = new long[timed.size()];
+        long firstEmitted = Long.MAX_VALUE;
+        long lastArrival = Long.MIN_VALUE;
+        for (int i = 0; i < timed.size(); i++) {
+            ReceivedLog log = timed.get(i);
+            long emitted = asLong(log.field("emitted_at_us"));
+            long arrival = originMicros + TimeUnit.NANOSECONDS.toMicros(log.arrivalNanos() - originNanos);
+            latencies[i] = arrival - emitted;
+            firstEmitted = Math.min(firstEmitted, emitted);
+            lastArrival = Math.max(lastArrival, arrival);
+        }
+        Arrays.sort(latencies);
+
+        Map<Long, Integer> perRequest = new HashMap<>();
+        for (ReceivedLog log : ingest.events()) {
+            perRequest.merge(log.batchSequence(), 1, Integer::sum);
+        }
+        double requests = 0;
+        double bytes = 0;
+        for (ReceivedLog log : timed) {
+            int inRequest = perRequest.get(log.batchSequence());
+            requests += 1.0 / inRequest;
+            bytes += log.batchBytes() / (double) inRequest;
+        }
+        return new Result(
+                client.name(),
+                null,
+                expected,
+                Long.parseLong(result.group(1)),
+                Double.parseDouble(result.group(2)),
+                timed.size(),
+                timed.isEmpty() ? 0 : (lastArrival - firstEmitted) / 1e6,
+                millisAt(latencies, 0.50),
+                millisAt(latencies, 0.99),
+                millisAt(latencies, 1.0),
+                timed.isEmpty() ? 0 : bytes / timed.size(),
+                requests == 0 ? 0 : timed.size() / requests);
+    }
+
+    /**
+     * Reads the client's output until its BENCH line, echoing the rest; null if it ended without one.
+     */
+    private static Matcher awaitResult(Client client, Process process) {
+        BufferedReader reader = process.inputReader(StandardCharsets.UTF_8);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = RESULT.matcher(line);
+                if (matcher.find()) {
+                    // Keeps draining so a chatty client does not block on a full pipe
+                    Thread.ofPlatform().daemon().start(() -> drain(reader));
+                    return matcher;
+                }
+                System.out.println("[" + client.name() + "] " + line);
+            }
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void drain(BufferedReader reader) {
+        try (reader) {
+            while (reader.readLine() != null) {
+                // Discarded
+            }
+        } catch (IOException e) {
+            // The process is gone
+        }
+    }
+
+    private static void awaitDelivery(LocalIngestServer ingest, long expected) throws InterruptedException {
+        long count = ingest.eventCount();
+        long lastChange = System.nanoTime();
+        while (count < expected && System.nanoTime() - lastChange < SETTLE.toNanos()) {
+            Thread.sleep(50);
+            long now = ingest.eventCount();
+            if (now != count) {
+                count = now;
+                lastChange = System.nanoTime();
+            }
+        }
+    }
+
+    private static Result skipped(Client client, String reason) {
+        return new Result(client.name(), reason, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    private static double millisAt(long[] sortedMicros, double quantile) {
+        if (sortedMicros.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedMicros.length) - 1;
+        return sortedMicros[Math.max(0, Math.min(sortedMicros.length - 1, index))] / 1000.0;
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    private static long epochMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano());
+    }
+
+    private static void print(int orders, List<Result> results) {
+        System.out.println();
+        System.out.printf("Client bench: %d orders, %d events per client%n", orders, 3L * orders + (orders + 99) / 100);
+        System.out.printf("%-8s %12s %14s %10s %10s %10s %10s %10s %8s%n",
+                "client", "emit ev/s", "delivered ev/s", "p50 ms", "p99 ms", "max ms", "B/event", "ev/req", "loss");
+        for (Result result : results) {
+            if (result.skipped() != null) {
+                System.out.printf("%-8s skipped (%s)%n", result.client(), result.skipped());
+                continue;
+            }
+            System.out.printf("%-8s %12.0f %14.0f %10.2f %10.2f %10.2f %10.1f %10.1f %7.2f%%%n",
+                    result.client(),
+                    result.emitted() / Math.max(1e-9, result.emitSeconds()),
+                    result.delivered() / Math.max(1e-9, result.deliveredSeconds()),
+                    result.p50Millis(),
+                    result.p99Millis(),
+                    result.maxMillis(),
+                    result.bytesPerEvent(),
+                    result.eventsPerRequest(),
+                    100 * result.loss());
+        }
+    }
+
+    private static void write(Path file, int orders, List<Result> results) throws IOException {
+        List<Map<String, Object>> clients = new ArrayList<>();
+        for (Result result : results) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("client", result.client());
+            if (result.skipped() != null) {
+                entry.put("skipped", result.skipped());
+            } else {
+                entry.put("emitted", result.emitted());
+                entry.put("emit_seconds", result.emitSeconds());
+                entry.put("delivered", result.delivered());
+                entry.put("delivered_seconds", result.deliveredSeconds());
+                Map<String, Object> latency = new LinkedHashMap<>();
+                latency.put("p50", result.p50Millis());
+                latency.put("p99", result.p99Millis());
+                latency.put("max", result.maxMillis());
+                entry.put("latency_ms", latency);
+                entry.put("bytes_per_event", result.bytesPerEvent());
+                entry.put("events_per_request", result.eventsPerRequest());
+                entry.put("loss", result.loss());
+            }
+            clients.add(entry);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("orders", orders);
+        report.put("clients", clients);
+
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        System.out.println("[bench] results written to " + file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,87 @@
+package com.logbull.test.bench;
+
+import com.logbull.LogBullLogger;
+import com.logbull.core.LogLevel;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Java client's side of {@link ClientBench}: runs the shared order
+ * workload on {@link LogBullLogger} directly, the same way go/bench,
+ * python/bench.py, js/bench.js, php/bench.php and net/Bench.cs do.
+ *
+ * Reads LOGBULL_HOST, LOGBULL_PROJECT_ID, BENCH_RUN, BENCH_ORDERS and
+ * BENCH_WARMUP from the environment and prints
+ * {@code BENCH emitted=<n> seconds=<s>} for the timed run. It then shuts
+ * the client down, which sends what its queue still holds, and exits, as
+ * the other clients' scripts do after their flush.
+ */
+public final class JavaClientBench {
+
+    private JavaClientBench() {
+    }
+
+    public static void main(String[] args) {
+        LogBullLogger logger = LogBullLogger.builder()
+                .projectId(System.getenv("LOGBULL_PROJECT_ID"))
+                .host(System.getenv("LOGBULL_HOST"))
+                .logLevel(LogLevel.INFO)
+                .build();
+        String run = System.getenv("BENCH_RUN");
+        int orders = Integer.parseInt(System.getenv("BENCH_ORDERS"));
+        int warmup = Integer.parseInt(System.getenv().getOrDefault("BENCH_WARMUP", "0"));
+
+        runOrders(logger, run + "-warmup", warmup);
+
+        long start = System.nanoTime();
+        long emitted = runOrders(logger, run, orders);
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("BENCH emitted=%d seconds=%.6f%n", emitted, seconds);
+        System.out.flush();
+
+        logger.shutdown();
+    }
+
+    /**
+     * The shared workload; returns the number of events emitted.
+     */
+    private static long runOrders(LogBullLogger logger, String run, int orders) {
+        LogBullLogger serviceLogger = logger.withContext(Map.of(
+                "service", "order_processing",
+                "bench_run", run));
+        long emitted = 0;
+        for (int i = 0; i < orders; i++) {
+            LogBullLogger orderLogger = serviceLogger.withContext(Map.of(
+                    "order_id", "order_" + i,
+                    "user_id", "user_" + i % 1000));
+            orderLogger.info("Starting order processing", Map.of(
+                    "emitted_at_us", epochMicros(),
+                    "amount", 99.99));
+
+            LogBullLogger paymentLogger = orderLogger.withContext(Map.of("payment_method", "credit_card"));
+            paymentLogger.info("Processing payment", Map.of(
+                    "emitted_at_us", epochMicros(),
+                    "gateway", "stripe"));
+
+            orderLogger.info("Order processed successfully", Map.of(
+                    "emitted_at_us", epochMicros(),
+                    "duration_ms", 150));
+            emitted += 3;
+
+            if (i % 100 == 0) {
+                orderLogger.critical("Order processing failed", Map.of(
+                        "emitted_at_us", epochMicros(),
+                        "error_code", "PAYMENT_DECLINED"));
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    private static long epochMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano());
+    }
+}
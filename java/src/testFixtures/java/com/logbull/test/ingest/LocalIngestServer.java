@@ -0,0 +1,355 @@
+package com.logbull.test.ingest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * In-process stand-in for the LogBull ingest API.
+ * Binds to a random loopback port so tests and benchmarks can point
+ * {@code logbull.host} at it without a real LogBull server.
+ * GET requests, such as host probes, are answered without being recorded.
+ * Faults (latency, 503s and connection resets) can be injected into all
+ * requests with {@link #injectFaults}.
+ */
+public final class LocalIngestServer implements AutoCloseable {
+
+    /**
+     * How the stand-in treats request bodies.
+     */
+    public enum Mode {
+        /** Drains the body without keeping it; the cheapest possible sink. */
+        DISCARD,
+        /** Reads every body into memory the way a real ingest would. */
+        ACCEPT,
+        /** Decodes every batch and records its events with arrival timestamps. */
+        RECORD,
+        /** Like {@link #RECORD}, and also keeps every raw request body for wire-format checks. */
+        CAPTURE
+    }
+
+    private static final byte[] ACCEPTED_RESPONSE = "{\"accepted\":true}".getBytes(StandardCharsets.UTF_8);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Faults NO_FAULTS = new Faults(Duration.ZERO, 0, 0, 0, null);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Mode mode;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong eventCount = new AtomicLong();
+    private final AtomicLong decodeFailures = new AtomicLong();
+    private final ConcurrentLinkedQueue<ReceivedLog> events = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<byte[]> bodies = new ConcurrentLinkedQueue<>();
+    private final AtomicLong faultCount = new AtomicLong();
+    private volatile Faults faults = NO_FAULTS;
+
+    private LocalIngestServer(Mode mode, int port) throws IOException {
+        this.mode = mode;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    /**
+     * Starts a stand-in on a random loopback port.
+     */
+    public static LocalIngestServer start(Mode mode) {
+        return start(mode, 0);
+    }
+
+    /**
+     * Starts a stand-in on the given loopback port, e.g. to bring one back
+     * on the port of a stand-in that was closed to simulate an outage.
+     */
+    public static LocalIngestServer start(Mode mode, int port) {
+        try {
+            return new LocalIngestServer(mode, port);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start local ingest server", e);
+        }
+    }
+
+    /**
+     * Base URL to use as {@code logbull.host}.
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long bytesReceived() {
+        return bytes.get();
+    }
+
+    /**
+     * Number of events decoded so far. Only counted in {@link Mode#RECORD} and {@link Mode#CAPTURE}.
+     */
+    public long eventCount() {
+        return eventCount.get();
+    }
+
+    /**
+     * Number of request bodies that could not be decoded as a log batch.
+     */
+    public long decodeFailures() {
+        return decodeFailures.get();
+    }
+
+    /**
+     * Snapshot of all events recorded so far, in arrival order.
+     */
+    public List<ReceivedLog> events() {
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * Snapshot of recorded events matching the given filter.
+     */
+    public List<ReceivedLog> events(Predicate<ReceivedLog> filter) {
+        return events.stream().filter(filter).toList();
+    }
+
+    /**
+     * Raw request bodies received so far, exactly as sent. Only kept in {@link Mode#CAPTURE}.
+     */
+    public List<byte[]> bodies() {
+        return new ArrayList<>(bodies);
+    }
+
+    /**
+     * Waits until at least {@code expected} events match the filter or the
+     * timeout elapses, and returns whatever matched.
+     */
+    public List<ReceivedLog> awaitEvents(Predicate<ReceivedLog> filter, int expected, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<ReceivedLog> matched = events(filter);
+        while (matched.size() < expected && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            matched = events(filter);
+        }
+        return matched;
+    }
+
+    /**
+     * From now on, delays every request by {@code latency}, then answers a
+     * share {@code errorRate} of them with 503 and closes the connection
+     * without a response on a share {@code resetRate}.
+     */
+    public void injectFaults(Duration latency, double errorRate, double resetRate) {
+        faults = new Faults(latency, errorRate, resetRate, 0, null);
+    }
+
+    /**
+     * From now on, answers a share {@code throttleRate} of requests with 429
+     * Too Many Requests, with a {@code Retry-After} header in whole seconds
+     * unless {@code retryAfter} is null, as a host shedding load would.
+     */
+    public void injectThrottling(double throttleRate, Duration retryAfter) {
+        faults = new Faults(Duration.ZERO, 0, 0, throttleRate, retryAfter);
+    }
+
+    /**
+     * Stops injecting faults.
+     */
+    public void clearFaults() {
+        faults = NO_FAULTS;
+    }
+
+    /**
+     * Requests answered with a 503, a 429 or a reset so far.
+     */
+    public long faultCount() {
+        return faultCount.get();
+    }
+
+    /**
+     * Forgets everything received so far.
+     */
+    public void reset() {
+        events.clear();
+        bodies.clear();
+        eventCount.set(0);
+        requests.set(0);
+        bytes.set(0);
+        decodeFailures.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (injectFault(exchange)) {
+            return;
+        }
+        if ("GET".equals(exchange.getRequestMethod())) {
+            respond(exchange);
+            return;
+        }
+        long arrivalNanos = System.nanoTime();
+        long sequence = requests.incrementAndGet();
+
+        try (InputStream body = exchange.getRequestBody()) {
+            if (mode == Mode.DISCARD) {
+                bytes.addAndGet(body.transferTo(OutputStream.nullOutputStream()));
+            } else {
+                byte[] raw = body.readAllBytes();
+                bytes.addAndGet(raw.length);
+                if (mode == Mode.CAPTURE) {
+                    bodies.add(raw);
+                }
+                if (mode == Mode.RECORD || mode == Mode.CAPTURE) {
+                    record(raw, exchange.getRequestHeaders().getFirst("Content-Encoding"), arrivalNanos, sequence);
+                }
+            }
+        }
+        respond(exchange);
+    }
+
+    /**
+     * Applies the injected faults; true if the request was failed.
+     */
+    private boolean injectFault(HttpExchange exchange) throws IOException {
+        Faults current = faults;
+        if (current == NO_FAULTS) {
+            return false;
+        }
+        if (!current.latency().isZero()) {
+            try {
+                Thread.sleep(current.latency());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < current.resetRate()) {
+            faultCount.incrementAndGet();
+            // Closing before any response is sent drops the connection
+            exchange.close();
+            return true;
+        }
+        if (roll < current.resetRate() + current.errorRate()) {
+            faultCount.incrementAndGet();
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return true;
+        }
+        if (roll < current.resetRate() + current.errorRate() + current.throttleRate()) {
+            faultCount.incrementAndGet();
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            if (current.retryAfter() != null) {
+                exchange.getResponseHeaders().set("Retry-After", Long.toString(current.retryAfter().toSeconds()));
+            }
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+            return true;
+        }
+        return false;
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, ACCEPTED_RESPONSE.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(ACCEPTED_RESPONSE);
+        }
+    }
+
+    private void record(byte[] raw, String contentEncoding, long arrivalNanos, long sequence) {
+        try {
+            byte[] json = "gzip".equalsIgnoreCase(contentEncoding)
+                    ? new GZIPInputStream(new ByteArrayInputStream(raw)).readAllBytes()
+                    : raw;
+            JsonNode root = MAPPER.readTree(json);
+            // Accept {"logs": [...]}, a bare array or a single event
+            JsonNode logs = root.has("logs") ? root.get("logs") : root;
+            if (logs.isArray()) {
+                for (JsonNode log : logs) {
+                    events.add(toReceivedLog(log, arrivalNanos, sequence, raw.length));
+                    eventCount.incrementAndGet();
+                }
+            } else {
+                events.add(toReceivedLog(logs, arrivalNanos, sequence, raw.length));
+                eventCount.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException e) {
+            decodeFailures.incrementAndGet();
+        }
+    }
+
+    private static ReceivedLog toReceivedLog(JsonNode log, long arrivalNanos, long sequence, int batchBytes) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        JsonNode fieldsNode = log.get("fields");
+        if (fieldsNode != null && fieldsNode.isObject()) {
+            fieldsNode.fields().forEachRemaining(entry -> fields.put(entry.getKey(), toValue(entry.getValue())));
+        }
+        return new ReceivedLog(
+                log.path("level").asText(null),
+                log.path("message").asText(null),
+                fields,
+                arrivalNanos,
+                sequence,
+                batchBytes);
+    }
+
+    private static Object toValue(JsonNode node) {
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    private record Faults(Duration latency, double errorRate, double resetRate, double throttleRate,
+            Duration retryAfter) {
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.logbull.test.ingest;
+
+import java.util.Map;
+
+/**
+ * A single log event decoded by {@link LocalIngestServer}.
+ *
+ * @param level         level as sent by the client, e.g. {@code INFO}
+ * @param message       log message
+ * @param fields        structured fields, including any context fields
+ * @param arrivalNanos  {@link System#nanoTime()} when the batch carrying this
+ *                      event was received; comparable with emit times taken in
+ *                      the same JVM
+ * @param batchSequence sequence number of the HTTP request that carried it
+ * @param batchBytes    body size of that request as received, before any
+ *                      gzip decoding
+ */
+public record ReceivedLog(
+        String level,
+        String message,
+        Map<String, Object> fields,
+        long arrivalNanos,
+        long batchSequence,
+        int batchBytes) {
+
+    /**
+     * Returns a field value as a string, or null when absent.
+     */
+    public String field(String name) {
+        Object value = fields.get(name);
+        return value == null ? null : value.toString();
+    }
+}
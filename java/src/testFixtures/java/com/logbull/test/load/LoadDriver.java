@@ -0,0 +1,178 @@
+package com.logbull.test.load;
+
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drives a fixed number of calls at a fixed concurrency and measures request
+ * throughput, request latency and, against a {@link LocalIngestServer}, log
+ * delivery latency and loss.
+ *
+ * Every call returns a correlation key (e.g. an order or request id) that is
+ * also present as a field on the log events it emits. Delivery latency is the
+ * time from the start of the call to the arrival of each matching event at the
+ * stand-in.
+ */
+public final class LoadDriver {
+
+    /**
+     * A single load-generating call.
+     */
+    @FunctionalInterface
+    public interface Call {
+        /**
+         * Executes call number {@code index} and returns its correlation key.
+         */
+        String execute(int index) throws Exception;
+    }
+
+    private LoadDriver() {
+    }
+
+    /**
+     * Runs {@code requests} calls using {@code concurrency} platform threads.
+     */
+    public static LoadResult run(String name, int concurrency, int requests, Call call) {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            return run(name, concurrency, requests, call, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs {@code requests} calls as {@code concurrency} workers on the given executor.
+     */
+    public static LoadResult run(String name, int concurrency, int requests, Call call, ExecutorService executor) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicLongArray latencies = new AtomicLongArray(requests);
+        Map<String, Long> emitNanosByKey = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            workers.add(executor.submit(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < requests) {
+                    long callStart = System.nanoTime();
+                    try {
+                        String key = call.execute(index);
+                        if (key != null) {
+                            emitNanosByKey.put(key, callStart);
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies.set(index, System.nanoTime() - callStart);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("Load worker failed", e);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        return new LoadResult(name, concurrency, requests, failures.get(), elapsed, sorted, emitNanosByKey);
+    }
+
+    /**
+     * Outcome of a load run.
+     */
+    public record LoadResult(
+            String name,
+            int concurrency,
+            int requests,
+            int failures,
+            long elapsedNanos,
+            long[] sortedLatencyNanos,
+            Map<String, Long> emitNanosByKey) {
+
+        public double throughputPerSecond() {
+            return requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        public double latencyPercentileMillis(double percentile) {
+            return percentile(sortedLatencyNanos, percentile) / 1_000_000.0;
+        }
+
+        /**
+         * Waits for the events of this run to arrive at the stand-in and
+         * measures delivery latency and loss.
+         *
+         * @param keyField           event field carrying the correlation key
+         * @param expectedPerRequest number of events each call should deliver
+         */
+        public DeliveryReport deliveredTo(LocalIngestServer ingest, String keyField, int expectedPerRequest,
+                Duration timeout) {
+            int expected = emitNanosByKey.size() * expectedPerRequest;
+            List<ReceivedLog> delivered = ingest.awaitEvents(log -> {
+                String key = log.field(keyField);
+                return key != null && emitNanosByKey.containsKey(key);
+            }, expected, timeout);
+
+            long[] deliveryNanos = delivered.stream()
+                    .mapToLong(log -> log.arrivalNanos() - emitNanosByKey.get(log.field(keyField)))
+                    .sorted()
+                    .toArray();
+            return new DeliveryReport(this, expected, delivered.size(), deliveryNanos);
+        }
+    }
+
+    /**
+     * Delivery statistics for a {@link LoadResult}.
+     */
+    public record DeliveryReport(LoadResult load, int expectedEvents, int deliveredEvents, long[] sortedDeliveryNanos) {
+
+        public double lossRate() {
+            return expectedEvents == 0 ? 0 : Math.max(0, expectedEvents - deliveredEvents) / (double) expectedEvents;
+        }
+
+        public double deliveryPercentileMillis(double percentile) {
+            return percentile(sortedDeliveryNanos, percentile) / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%-20s concurrency=%d requests=%d failures=%d throughput=%.0f req/s "
+                            + "latency p50=%.2fms p99=%.2fms delivery p50=%.2fms p99=%.2fms "
+                            + "events=%d/%d loss=%.4f",
+                    load.name(), load.concurrency(), load.requests(), load.failures(), load.throughputPerSecond(),
+                    load.latencyPercentileMillis(50), load.latencyPercentileMillis(99),
+                    deliveryPercentileMillis(50), deliveryPercentileMillis(99),
+                    deliveredEvents, expectedEvents, lossRate());
+        }
+    }
+
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,113 @@
+package com.logbull.test.soak;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues calls at a fixed rate for a fixed time, for soak runs.
+ *
+ * Call {@code i} is due at {@code start + i / rate}; workers wait until a
+ * call is due and run it, or run it at once when behind, so a slow call
+ * delays the calls after it instead of lowering the rate they were due at.
+ * Only counters are kept, so a run of hours does not itself grow the heap
+ * being watched.
+ */
+public final class FixedRateDriver {
+
+    /**
+     * A single call; {@code index} counts calls from 0.
+     */
+    @FunctionalInterface
+    public interface Call {
+        void execute(long index) throws Exception;
+    }
+
+    private FixedRateDriver() {
+    }
+
+    /**
+     * Runs {@code callsPerSecond} calls a second for {@code duration} on
+     * {@code concurrency} platform threads.
+     */
+    public static RateResult run(String name, double callsPerSecond, Duration duration, int concurrency, Call call) {
+        long calls = (long) (callsPerSecond * duration.toNanos() / TimeUnit.SECONDS.toNanos(1));
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / callsPerSecond;
+        AtomicLong next = new AtomicLong();
+        LongAdder failures = new LongAdder();
+        LongAdder late = new LongAdder();
+        LongAccumulator maxLateness = new LongAccumulator(Math::max, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(executor.submit(() -> {
+                    long index;
+                    while ((index = next.getAndIncrement()) < calls) {
+                        long due = start + (long) (index * intervalNanos);
+                        long wait = due - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        } else if (-wait > TimeUnit.MILLISECONDS.toNanos(1)) {
+                            late.increment();
+                            maxLateness.accumulate(-wait);
+                        }
+                        try {
+                            call.execute(index);
+                        } catch (Exception e) {
+                            failures.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Soak worker failed", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new RateResult(name, callsPerSecond, calls, failures.sum(), System.nanoTime() - start,
+                late.sum(), maxLateness.get());
+    }
+
+    /**
+     * Outcome of a fixed-rate run.
+     *
+     * @param lateCalls        calls started more than a millisecond after they were due
+     * @param maxLatenessNanos how far behind schedule the latest call started
+     */
+    public record RateResult(
+            String name,
+            double targetPerSecond,
+            long calls,
+            long failures,
+            long elapsedNanos,
+            long lateCalls,
+            long maxLatenessNanos) {
+
+        public double achievedPerSecond() {
+            return calls * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s target=%.0f/s achieved=%.0f/s calls=%d failures=%d late=%d max-lateness=%.1fms",
+                    name, targetPerSecond, achievedPerSecond(), calls, failures, lateCalls,
+                    maxLatenessNanos / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.logbull.test.soak;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Watches this JVM through JMX during a soak run: heap occupancy after each
+ * garbage collection, GC pause times and the live thread count.
+ *
+ * Heap after GC and pauses come from GC notifications. Collectors that
+ * report concurrent cycles rather than pauses (G1 Concurrent GC, ZGC and
+ * Shenandoah Cycles) and collections from {@code System.gc()} are left out
+ * of the pause figures. A sample of the latest heap after GC and the thread
+ * count is taken every interval.
+ */
+public final class JvmSampler implements AutoCloseable {
+
+    /**
+     * One periodic sample.
+     *
+     * @param heapAfterGcBytes heap used after the latest collection, or -1 before the first one
+     */
+    public record Sample(long elapsedMillis, long heapAfterGcBytes, int threads) {
+    }
+
+    private final Set<String> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+    private final List<Sample> samples = new CopyOnWriteArrayList<>();
+    private final AtomicLong heapAfterGc = new AtomicLong(-1);
+    private final LongAccumulator maxPause = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalPause = new LongAdder();
+    private final LongAdder pauses = new LongAdder();
+    private final NotificationListener listener = this::onGc;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final long intervalNanos;
+    private final long start = System.nanoTime();
+    private final Thread sampler;
+
+    private volatile boolean running = true;
+
+    private JvmSampler(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+        this.sampler = new Thread(this::run, "soak-jvm-sampler");
+        this.sampler.setDaemon(true);
+        this.sampler.start();
+    }
+
+    /**
+     * Starts sampling every {@code interval}.
+     */
+    public static JvmSampler start(Duration interval) {
+        return new JvmSampler(interval);
+    }
+
+    /**
+     * Heap still used after full collections, i.e. what the application
+     * retains. Collects more than once so objects released by finalization
+     * or reference processing in the first pass are gone too.
+     */
+    public static long retainedHeapBytes() {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            used = Math.min(used, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    public static int liveThreads() {
+        return ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+
+    private void onGc(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPools.contains(pool.getKey())) {
+                used += pool.getValue().getUsed();
+            }
+        }
+        heapAfterGc.set(used);
+
+        String name = info.getGcName();
+        if (name.contains("Concurrent") || name.contains("Cycles") || "System.gc()".equals(info.getGcCause())) {
+            return;
+        }
+        long duration = info.getGcInfo().getDuration();
+        maxPause.accumulate(duration);
+        totalPause.add(duration);
+        pauses.increment();
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            samples.add(new Sample(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), heapAfterGc.get(),
+                    liveThreads()));
+        }
+    }
+
+    public List<Sample> samples() {
+        return List.copyOf(samples);
+    }
+
+    public long maxPauseMillis() {
+        return maxPause.get();
+    }
+
+    public long totalPauseMillis() {
+        return totalPause.sum();
+    }
+
+    public long pauseCount() {
+        return pauses.sum();
+    }
+
+    /**
+     * Most live threads seen in any sample, or the current count before the first one.
+     */
+    public int peakThreads() {
+        return samples.stream().mapToInt(Sample::threads).max().orElse(liveThreads());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(sampler);
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // Already gone
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return String.format("gc pauses=%d max=%dms total=%dms (%.2f%% of run) heap-after-gc=%.1fMB peak-threads=%d",
+                pauseCount(), maxPauseMillis(), totalPauseMillis(), 100.0 * totalPauseMillis() / elapsedMillis,
+                heapAfterGc.get() / (1024.0 * 1024), peakThreads());
+    }
+}
@@ -0,0 +1,245 @@
+package com.logbull.test.startup;
+
+import com.logbull.test.ingest.LocalIngestServer;
+import com.logbull.test.ingest.ReceivedLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Starts the boot jar repeatedly and measures, from process start, the time
+ * to the first answered request and to the first log event of that request
+ * arriving at a {@link LocalIngestServer}.
+ *
+ * Each of logbull.transport.lazy=false and =true is run as is, with an
+ * AppCDS archive, with the AOT-processed beans (-Dspring.aot.enabled=true)
+ * and with both. The jar is extracted first, since CDS only archives classes
+ * loaded from plain jars; archives are created by a training run that exits
+ * once the context is refreshed. Medians are printed as a table.
+ *
+ * Usage: {@code StartupBenchmark <boot jar> <work dir> [runs]}, run by
+ * {@code ./gradlew startupBenchmark [-PstartupRuns=5]}.
+ */
+public final class StartupBenchmark {
+
+    private static final String PROJECT_ID = "12345678-1234-1234-1234-123456789012";
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private final Path app;
+    private final Path workDir;
+    private final LocalIngestServer ingest;
+
+    private StartupBenchmark(Path app, Path workDir, LocalIngestServer ingest) {
+        this.app = app;
+        this.workDir = workDir;
+        this.ingest = ingest;
+    }
+
+    /**
+     * One way of starting the application.
+     */
+    private record Variant(String name, boolean lazy, boolean aot, boolean cds) {
+    }
+
+    /**
+     * Milliseconds from process start to the first answered request and to
+     * the first of its events at the stand-in.
+     */
+    private record Timing(double firstRequestMillis, double firstLogMillis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupBenchmark <boot jar> <work dir> [runs]");
+            System.exit(2);
+        }
+        Path jar = Path.of(args[0]);
+        Path workDir = Path.of(args[1]);
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        Path app = extract(jar, workDir.resolve("extracted"));
+        List<Variant> variants = new ArrayList<>();
+        for (boolean lazy : new boolean[] {false, true}) {
+            String mode = lazy ? "lazy" : "eager";
+            variants.add(new Variant(mode, lazy, false, false));
+            variants.add(new Variant(mode + "+cds", lazy, false, true));
+            variants.add(new Variant(mode + "+aot", lazy, true, false));
+            variants.add(new Variant(mode + "+aot+cds", lazy, true, true));
+        }
+
+        try (LocalIngestServer ingest = LocalIngestServer.start(LocalIngestServer.Mode.RECORD)) {
+            StartupBenchmark benchmark = new StartupBenchmark(app, workDir, ingest);
+            System.out.printf("%-14s %20s %24s%n", "variant", "first request (ms)", "first delivered log (ms)");
+            for (Variant variant : variants) {
+                double[] firstRequest = new double[runs];
+                double[] firstLog = new double[runs];
+                Path archive = variant.cds() ? benchmark.train(variant) : null;
+                for (int run = 0; run < runs; run++) {
+                    Timing timing = benchmark.measure(variant, archive, run);
+                    firstRequest[run] = timing.firstRequestMillis();
+                    firstLog[run] = timing.firstLogMillis();
+                }
+                System.out.printf("%-14s %20.0f %24.0f%n", variant.name(), median(firstRequest), median(firstLog));
+            }
+        }
+    }
+
+    /**
+     * Extracts the boot jar into a runnable jar plus lib/ and returns the runnable jar.
+     */
+    private static Path extract(Path jar, Path destination) throws IOException, InterruptedException {
+        deleteRecursively(destination);
+        Process process = new ProcessBuilder(java(), "-Djarmode=tools", "-jar", jar.toString(),
+                "extract", "--destination", destination.toString())
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Extracting " + jar + " failed");
+        }
+        try (Stream<Path> files = Files.list(destination)) {
+            return files.filter(file -> file.toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar extracted to " + destination));
+        }
+    }
+
+    /**
+     * Creates an AppCDS archive from a run that exits once the context is refreshed.
+     */
+    private Path train(Variant variant) throws IOException, InterruptedException {
+        Path archive = workDir.resolve(variant.name() + ".jsa");
+        Files.deleteIfExists(archive);
+        List<String> command = command(variant, freePort(),
+                "-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(variant.name() + "-training.log").toFile())
+                .start();
+        if (!process.waitFor(TIMEOUT.toSeconds(), TimeUnit.SECONDS) || process.exitValue() != 0 || !Files.exists(archive)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("CDS training run for " + variant.name() + " failed; see "
+                    + workDir.resolve(variant.name() + "-training.log"));
+        }
+        return archive;
+    }
+
+    private Timing measure(Variant variant, Path archive, int run) throws IOException, InterruptedException {
+        ingest.reset();
+        int port = freePort();
+        String orderId = "startup-" + variant.name() + "-" + run;
+        List<String> command = archive == null ? command(variant, port)
+                : command(variant, port, "-XX:SharedArchiveFile=" + archive);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/logs/standalone"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(5))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"order_id\":\"" + orderId + "\"}"))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve(variant.name() + ".log").toFile())
+                .start();
+        try {
+            long firstRequest = awaitFirstRequest(process, request, start + TIMEOUT.toNanos());
+            List<ReceivedLog> logs = ingest.awaitEvents(event -> orderId.equals(event.field("order_id")), 1, TIMEOUT);
+            if (logs.isEmpty()) {
+                throw new IllegalStateException("No log of " + variant.name() + " arrived within " + TIMEOUT);
+            }
+            long firstLog = logs.stream().mapToLong(ReceivedLog::arrivalNanos).min().getAsLong();
+            return new Timing(millis(firstRequest - start), millis(firstLog - start));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Sends the request until it is answered with 200 and returns when that was.
+     */
+    private static long awaitFirstRequest(Process process, HttpRequest request, long deadline)
+            throws IOException, InterruptedException {
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                if (CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime();
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No answer within " + TIMEOUT);
+    }
+
+    private List<String> command(Variant variant, int port, String... jvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(Arrays.asList(jvmArgs));
+        if (variant.aot()) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", app.toString(),
+                "--server.port=" + port,
+                "--logbull.project-id=" + PROJECT_ID,
+                "--logbull.host=" + ingest.baseUrl(),
+                "--logbull.transport.lazy=" + variant.lazy()));
+        return command;
+    }
+
+    private static String java() {
+        return ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
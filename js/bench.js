@@ -0,0 +1,74 @@
+// Bench client for `make bench`: runs the shared order workload against the
+// host in LOGBULL_HOST and prints "BENCH emitted=<n> seconds=<s>" for the
+// timed run.
+import { performance } from "node:perf_hooks";
+import { LogBullLogger, LogLevel } from "logbull";
+
+const emittedAtUs = () =>
+  Math.round((performance.timeOrigin + performance.now()) * 1000);
+
+function runOrders(logger, run, orders) {
+  const serviceLogger = logger.withContext({
+    service: "order_processing",
+    bench_run: run,
+  });
+
+  let emitted = 0;
+  for (let i = 0; i < orders; i++) {
+    const orderLogger = serviceLogger.withContext({
+      order_id: `order_${i}`,
+      user_id: `user_${i % 1000}`,
+    });
+    orderLogger.info("Starting order processing", {
+      emitted_at_us: emittedAtUs(),
+      amount: 99.99,
+    });
+
+    const paymentLogger = orderLogger.withContext({
+      payment_method: "credit_card",
+    });
+    paymentLogger.info("Processing payment", {
+      emitted_at_us: emittedAtUs(),
+      gateway: "stripe",
+    });
+
+    orderLogger.info("Order processed successfully", {
+      emitted_at_us: emittedAtUs(),
+      duration_ms: 150,
+    });
+    emitted += 3;
+
+    if (i % 100 === 0) {
+      orderLogger.critical("Order processing failed", {
+        emitted_at_us: emittedAtUs(),
+        error_code: "PAYMENT_DECLINED",
+      });
+      emitted++;
+    }
+  }
+  return emitted;
+}
+
+async function main() {
+  const logger = new LogBullLogger({
+    host: process.env.LOGBULL_HOST,
+    projectId: process.env.LOGBULL_PROJECT_ID,
+    apiKey: process.env.LOGBULL_API_KEY || "",
+    logLevel: LogLevel.INFO,
+  });
+  const run = process.env.BENCH_RUN;
+  const orders = Number(process.env.BENCH_ORDERS);
+  const warmup = Number(process.env.BENCH_WARMUP || 0);
+
+  runOrders(logger, `${run}-warmup`, warmup);
+
+  const start = performance.now();
+  const emitted = runOrders(logger, run, orders);
+  const seconds = (performance.now() - start) / 1000;
+  console.log(`BENCH emitted=${emitted} seconds=${seconds.toFixed(6)}`);
+
+  logger.flush();
+  await logger.shutdown();
+}
+
+main();
@@ -0,0 +1,90 @@
+using System;
+using System.Collections.Generic;
+using System.Diagnostics;
+using LogBull;
+
+namespace LogBullTest;
+
+/// <summary>
+/// Bench client for <c>make bench</c>, run with <c>dotnet run -c Release -- bench</c>.
+/// Runs the shared order workload against the host in LOGBULL_HOST and prints
+/// "BENCH emitted=&lt;n&gt; seconds=&lt;s&gt;" for the timed run.
+/// </summary>
+static class Bench
+{
+    public static void Run()
+    {
+        var logger = LogBullLogger.CreateBuilder()
+            .WithProjectId(Environment.GetEnvironmentVariable("LOGBULL_PROJECT_ID")!)
+            .WithHost(Environment.GetEnvironmentVariable("LOGBULL_HOST")!)
+            .WithApiKey(Environment.GetEnvironmentVariable("LOGBULL_API_KEY"))
+            .WithLogLevel(LogBull.Core.LogLevel.INFO)
+            .Build();
+        var run = Environment.GetEnvironmentVariable("BENCH_RUN")!;
+        var orders = int.Parse(Environment.GetEnvironmentVariable("BENCH_ORDERS")!);
+        var warmup = int.Parse(Environment.GetEnvironmentVariable("BENCH_WARMUP") ?? "0");
+
+        RunOrders(logger, $"{run}-warmup", warmup);
+
+        var stopwatch = Stopwatch.StartNew();
+        var emitted = RunOrders(logger, run, orders);
+        Console.WriteLine($"BENCH emitted={emitted} seconds={stopwatch.Elapsed.TotalSeconds:F6}");
+
+        logger.Flush();
+        logger.Dispose();
+    }
+
+    static int RunOrders(LogBullLogger logger, string run, int orders)
+    {
+        var serviceLogger = logger.WithContext(new Dictionary<string, object>
+        {
+            { "service", "order_processing" },
+            { "bench_run", run }
+        });
+
+        var emitted = 0;
+        for (var i = 0; i < orders; i++)
+        {
+            var orderLogger = serviceLogger.WithContext(new Dictionary<string, object>
+            {
+                { "order_id", $"order_{i}" },
+                { "user_id", $"user_{i % 1000}" }
+            });
+            orderLogger.Info("Starting order processing", new Dictionary<string, object>
+            {
+                { "emitted_at_us", EmittedAtUs() },
+                { "amount", 99.99 }
+            });
+
+            var paymentLogger = orderLogger.WithContext(new Dictionary<string, object>
+            {
+                { "payment_method", "credit_card" }
+            });
+            paymentLogger.Info("Processing payment", new Dictionary<string, object>
+            {
+                { "emitted_at_us", EmittedAtUs() },
+                { "gateway", "stripe" }
+            });
+
+            orderLogger.Info("Order processed successfully", new Dictionary<string, object>
+            {
+                { "emitted_at_us", EmittedAtUs() },
+                { "duration_ms", 150 }
+            });
+            emitted += 3;
+
+            if (i % 100 == 0)
+            {
+                orderLogger.Critical("Order processing failed", new Dictionary<string, object>
+                {
+                    { "emitted_at_us", EmittedAtUs() },
+                    { "error_code", "PAYMENT_DECLINED" }
+                });
+                emitted++;
+            }
+        }
+        return emitted;
+    }
+
+    static long EmittedAtUs() => (DateTime.UtcNow.Ticks - DateTime.UnixEpoch.Ticks) / 10;
+}
@@ -21,6 +21,12 @@ class Program
 
     static async Task Main(string[] args)
     {
+        if (args.Length > 0 && args[0] == "bench")
+        {
+            Bench.Run();
+            return;
+        }
+
         Console.WriteLine("LogBull .NET Library Integration Tests");
         Console.WriteLine("========================================");
 
@@ -0,0 +1,78 @@
+<?php
+
+// Bench client for `make bench`: runs the shared order workload against the
+// host in LOGBULL_HOST and prints "BENCH emitted=<n> seconds=<s>" for the
+// timed run.
+
+require 'vendor/autoload.php';
+
+use LogBull\Core\LogBullLogger;
+use LogBull\Core\Types;
+
+function emittedAtUs(): int
+{
+    return (int) (microtime(true) * 1000000);
+}
+
+function runOrders(LogBullLogger $logger, string $run, int $orders): int
+{
+    $serviceLogger = $logger->withContext([
+        'service' => 'order_processing',
+        'bench_run' => $run
+    ]);
+
+    $emitted = 0;
+    for ($i = 0; $i < $orders; $i++) {
+        $orderLogger = $serviceLogger->withContext([
+            'order_id' => "order_$i",
+            'user_id' => 'user_' . ($i % 1000)
+        ]);
+        $orderLogger->info('Starting order processing', [
+            'emitted_at_us' => emittedAtUs(),
+            'amount' => 99.99
+        ]);
+
+        $paymentLogger = $orderLogger->withContext([
+            'payment_method' => 'credit_card'
+        ]);
+        $paymentLogger->info('Processing payment', [
+            'emitted_at_us' => emittedAtUs(),
+            'gateway' => 'stripe'
+        ]);
+
+        $orderLogger->info('Order processed successfully', [
+            'emitted_at_us' => emittedAtUs(),
+            'duration_ms' => 150
+        ]);
+        $emitted += 3;
+
+        if ($i % 100 === 0) {
+            $orderLogger->critical('Order processing failed', [
+                'emitted_at_us' => emittedAtUs(),
+                'error_code' => 'PAYMENT_DECLINED'
+            ]);
+            $emitted++;
+        }
+    }
+    return $emitted;
+}
+
+$apiKey = getenv('LOGBULL_API_KEY') ?: null;
+
+$logger = new LogBullLogger(
+    projectId: getenv('LOGBULL_PROJECT_ID'),
+    host: getenv('LOGBULL_HOST'),
+    apiKey: $apiKey,
+    logLevel: Types::INFO
+);
+$run = getenv('BENCH_RUN');
+$orders = (int) getenv('BENCH_ORDERS');
+$warmup = (int) (getenv('BENCH_WARMUP') ?: 0);
+
+runOrders($logger, "$run-warmup", $warmup);
+
+$start = hrtime(true);
+$emitted = runOrders($logger, $run, $orders);
+printf("BENCH emitted=%d seconds=%.6f\n", $emitted, (hrtime(true) - $start) / 1e9);
+
+$logger->flush();
@@ -0,0 +1,74 @@
+"""Bench client for `make bench`.
+
+Runs the shared order workload against the host in LOGBULL_HOST and prints
+"BENCH emitted=<n> seconds=<s>" for the timed run.
+"""
+
+import os
+import time
+
+from logbull import LogBullLogger
+
+
+def emitted_at_us():
+    return time.time_ns() // 1000
+
+
+def run_orders(logger, run, orders):
+    service_logger = logger.with_context(
+        {"service": "order_processing", "bench_run": run}
+    )
+
+    emitted = 0
+    for i in range(orders):
+        order_logger = service_logger.with_context(
+            {"order_id": f"order_{i}", "user_id": f"user_{i % 1000}"}
+        )
+        order_logger.info(
+            "Starting order processing",
+            fields={"emitted_at_us": emitted_at_us(), "amount": 99.99},
+        )
+
+        payment_logger = order_logger.with_context({"payment_method": "credit_card"})
+        payment_logger.info(
+            "Processing payment",
+            fields={"emitted_at_us": emitted_at_us(), "gateway": "stripe"},
+        )
+
+        order_logger.info(
+            "Order processed successfully",
+            fields={"emitted_at_us": emitted_at_us(), "duration_ms": 150},
+        )
+        emitted += 3
+
+        if i % 100 == 0:
+            order_logger.critical(
+                "Order processing failed",
+                fields={"emitted_at_us": emitted_at_us(), "error_code": "PAYMENT_DECLINED"},
+            )
+            emitted += 1
+    return emitted
+
+
+def main():
+    logger = LogBullLogger(
+        project_id=os.environ["LOGBULL_PROJECT_ID"],
+        host=os.environ["LOGBULL_HOST"],
+        api_key=os.getenv("LOGBULL_API_KEY", ""),
+        log_level="INFO",
+    )
+    run = os.environ["BENCH_RUN"]
+    orders = int(os.environ["BENCH_ORDERS"])
+    warmup = int(os.getenv("BENCH_WARMUP", "0"))
+
+    run_orders(logger, f"{run}-warmup", warmup)
+
+    start = time.perf_counter()
+    emitted = run_orders(logger, run, orders)
+    print(f"BENCH emitted={emitted} seconds={time.perf_counter() - start:.6f}", flush=True)
+
+    logger.flush()
+
+
+if __name__ == "__main__":
+    main()